@@ -0,0 +1,177 @@
+package com.shopping.Auth;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.shopping.model.Role;
+import com.shopping.util.TimingWheel;
+
+/**
+ * 토큰으로 구분하는 동시 세션 저장소 (여러 사용자가 한 JVM에서 동시에 로그인)
+ * - 토큰 → 세션 해시 조회 O(1), 조회·권한 확인은 잠금 없음 (ConcurrentHashMap + volatile 마지막 접근 시각)
+ * - 유휴 만료는 계층형 타이밍 휠로 관리: 세션을 열 때 한 번 등록, 접근할 때는 시각만 갱신
+ *   휠에서 꺼낼 때 실제 마지막 접근 시각을 보고 아직 살아 있으면 남은 시간으로 다시 등록
+ * - 휠 진행은 별도 스레드 없이 open/find 때 틱이 바뀌었으면 수행 (tryLock → 조회를 막지 않음)
+ * - 만료된 세션은 휠이 아직 치우지 않았더라도 조회 시점에 바로 무효
+ */
+public class SessionRegistry {
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L; // 30분
+    public static final long DEFAULT_TICK_MILLIS = 1000L;
+    private static final int WHEEL_LEVELS = 4; // 64^4 틱 (1초 틱이면 약 194일)
+    private static final int TOKEN_BYTES = 16;
+
+    private final ConcurrentHashMap<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final TimingWheel<Entry> wheel;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final long idleTimeoutMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+    private volatile long lastTick;
+
+    public SessionRegistry() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_TICK_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 현재 시각(ms) - 테스트에서 시간을 직접 진행할 때 지정
+     */
+    public SessionRegistry(long idleTimeoutMillis, long tickMillis, LongSupplier clock) {
+        if (idleTimeoutMillis <= 0) throw new IllegalArgumentException("idleTimeoutMillis <= 0");
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis <= 0");
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.lastTick = clock.getAsLong() / tickMillis;
+        this.wheel = new TimingWheel<>(WHEEL_LEVELS, lastTick);
+    }
+
+    /**
+     * 로그인한 계정으로 세션 생성
+     * @param account 로그인한 User 또는 Admin 객체
+     * @return 세션 토큰
+     */
+    public String open(String userId, Role role, Object account) {
+        long now = clock.getAsLong();
+        String token;
+        Entry entry;
+        do {
+            token = newToken();
+            entry = new Entry(token, userId, role, account, now);
+        } while (sessions.putIfAbsent(token, entry) != null);
+
+        wheelLock.lock();
+        try {
+            wheel.schedule(entry, deadlineTick(entry));
+        } finally {
+            wheelLock.unlock();
+        }
+        expireIdle(now);
+        return token;
+    }
+
+    /**
+     * 토큰으로 세션 조회 (접근 시각 갱신)
+     * @return 세션, 없거나 만료되었으면 null
+     */
+    public Entry find(String token) {
+        if (token == null) return null;
+        long now = clock.getAsLong();
+        Entry entry = sessions.get(token);
+        expireIdle(now);
+        if (entry == null || isExpired(entry, now)) return null;
+        entry.lastAccessMillis = now;
+        return entry;
+    }
+
+    /**
+     * 토큰의 역할 (잠금 없음, 접근 시각 갱신)
+     * @return 역할, 로그인하지 않았거나 만료되었으면 null
+     */
+    public Role roleOf(String token) {
+        Entry entry = find(token);
+        return (entry != null) ? entry.role : null;
+    }
+
+    /**
+     * 로그아웃 - 휠에 남은 등록은 꺼낼 때 무시됨
+     */
+    public boolean close(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * 살아 있는 세션 수 (만료되었지만 아직 치우지 않은 세션 포함)
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 현재 시각까지 휠을 진행해 유휴 세션 정리
+     */
+    public void expireIdle() {
+        expireIdle(clock.getAsLong());
+    }
+
+    private void expireIdle(long now) {
+        long tick = now / tickMillis;
+        if (tick <= lastTick || !wheelLock.tryLock()) return; // 다른 스레드가 진행 중이면 맡김
+        try {
+            wheel.advanceTo(tick, entry -> {
+                if (sessions.get(entry.token) != entry) return; // 이미 로그아웃
+                if (isExpired(entry, now)) {
+                    sessions.remove(entry.token, entry);
+                } else {
+                    wheel.schedule(entry, deadlineTick(entry)); // 그 사이 접근함 → 남은 시간으로 재등록
+                }
+            });
+            lastTick = tick;
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.lastAccessMillis >= idleTimeoutMillis;
+    }
+
+    private long deadlineTick(Entry entry) {
+        return (entry.lastAccessMillis + idleTimeoutMillis + tickMillis - 1) / tickMillis;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 세션 한 건 - 로그인 정보는 바뀌지 않고 마지막 접근 시각만 갱신
+     */
+    public static final class Entry {
+        private final String token;
+        private final String userId;
+        private final Role role;
+        private final Object account;
+        private volatile long lastAccessMillis;
+
+        Entry(String token, String userId, Role role, Object account, long now) {
+            this.token = token;
+            this.userId = userId;
+            this.role = role;
+            this.account = account;
+            this.lastAccessMillis = now;
+        }
+
+        public String getToken() { return token; }
+        public String getUserId() { return userId; }
+        public Role getRole() { return role; }
+        public Object getAccount() { return account; }
+        public boolean isAdmin() { return role == Role.ADMIN; }
+    }
+}
@@ -1,6 +1,8 @@
 package com.shopping.controller;
 
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,12 +13,14 @@ import com.shopping.model.OrderStatus;
 import com.shopping.model.Product;
 import com.shopping.model.ProductCategory;
 import com.shopping.model.User;
+import com.shopping.repository.CursorPage;
 import com.shopping.service.OrderService;
 import com.shopping.service.ProductService;
 import com.shopping.service.ReportService;
 import com.shopping.service.UserService;
 
 public class AdminController {
+	private static final int USER_PAGE_SIZE = 20; // 회원 목록 페이지당 표시 수
 	private UserService userService;
 	private OrderService orderService;
 	private ProductService productService;
@@ -307,14 +311,51 @@ public class AdminController {
 	        }
 	    }
 
+	/**
+	 * 전체 회원 목록을 ID 순 페이지로 보여줌 (한 번에 한 페이지만 읽음)
+	 * - 커서 방식이라 페이지 번호로 바로 이동은 없고, 이전 페이지는 지나온 커서를 되짚음
+	 */
 	private void displayAllUsers() {
 		System.out.println("\n== 전체 사용자 목록 ==");
-        List<User> users = userService.getAllUsers();
-        if (users.isEmpty()) {
+        long totalUsers = userService.getUserCount();
+        if (totalUsers == 0) {
             System.out.println("등록된 사용자가 없습니다.");
             return;
         }
-        users.forEach(System.out::println);
+        long totalPages = (totalUsers + USER_PAGE_SIZE - 1) / USER_PAGE_SIZE;
+
+        Deque<String> previousCursors = new ArrayDeque<>(); // 지나온 페이지의 시작 커서
+        String cursor = null;
+        int page = 1;
+        while (true) {
+            CursorPage<User> users = userService.getUsersPage(cursor, USER_PAGE_SIZE);
+            System.out.printf("\n--- 전체 사용자 목록 (페이지 %d / %d) ---\n", page, totalPages);
+            users.getItems().forEach(System.out::println);
+
+            System.out.print("이동 (다음: n, 이전: p, 종료: e): ");
+            String command = scanner.nextLine().trim();
+            if ("n".equalsIgnoreCase(command)) {
+                if (users.hasNext()) {
+                    previousCursors.push(cursor == null ? "" : cursor);
+                    cursor = users.getNextCursor();
+                    page++;
+                } else {
+                    System.out.println("마지막 페이지입니다.");
+                }
+            } else if ("p".equalsIgnoreCase(command)) {
+                if (previousCursors.isEmpty()) {
+                    System.out.println("첫 페이지입니다.");
+                } else {
+                    String previous = previousCursors.pop();
+                    cursor = previous.isEmpty() ? null : previous;
+                    page--;
+                }
+            } else if ("e".equalsIgnoreCase(command)) {
+                break;
+            } else {
+                System.out.println("잘못된 입력입니다. n, p, e 중에서 입력하세요.");
+            }
+        }
 	}
 	
 	private void displayUserDetails() {
@@ -10,11 +10,16 @@ import com.shopping.model.Order;
 import com.shopping.model.Role;
 import com.shopping.service.UserService;
 import com.shopping.service.AuthService;
+import com.shopping.service.OrderProductAdapter;
 import com.shopping.service.OrderService;
+import com.shopping.service.ProductService;
+import com.shopping.repository.AccountIndex;
 import com.shopping.repository.DefaultFileOrderRepository;
 import com.shopping.repository.FileAdminRepository;
 import com.shopping.repository.FileOrderRepository;
+import com.shopping.repository.FileProductRepository;
 import com.shopping.repository.FileUserRepository;
+import com.shopping.util.PasswordVerifier;
 
 
 /**
@@ -35,8 +40,10 @@ public class UserController {
 	    FileAdminRepository adminRepo = new FileAdminRepository();
 	    DefaultFileOrderRepository orderRepo = new DefaultFileOrderRepository("data/orders.dat");
 	    this.userService = new UserService(userRepo);
-	    this.authService = new AuthService(userRepo, adminRepo);
-	    this.orderService = new OrderService(orderRepo, null, orderRepo);
+	    this.authService = new AuthService(userRepo, adminRepo, AccountIndex.of(userRepo, adminRepo),
+	            PasswordVerifier.shared());
+	    ProductService productService = new ProductService(new FileProductRepository());
+	    this.orderService = new OrderService(orderRepo, new OrderProductAdapter(productService), orderRepo);
 	    this.scanner = new Scanner(System.in);
 	    this.session = session;
 	}
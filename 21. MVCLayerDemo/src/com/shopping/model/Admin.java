@@ -19,6 +19,11 @@ public class Admin extends User {
         this.role = Role.ADMIN;
     }
 
+    // 복사 생성자 (역할 포함 모든 필드를 그대로 복사)
+    public Admin(Admin other) {
+        super(other);
+    }
+
     // id, password, email, name 및 관련 getter/setter는
     // User 클래스로부터 상속받았으므로 작성할 필요가 없습니다.
     @Override
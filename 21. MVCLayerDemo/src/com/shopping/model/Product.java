@@ -29,6 +29,20 @@ public class Product implements Serializable {
         this.salesCount = 0;
     }
 
+    /**
+     * 복사 생성자 (저장소가 보관하는 상품과 호출자가 고치는 상품을 분리할 때 사용)
+     */
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.category = other.category;
+        this.price = other.price;
+        this.stock = other.stock;
+        this.description = other.description;
+        this.registrationDateTime = other.registrationDateTime;
+        this.salesCount = other.salesCount;
+    }
+
     // Getters and Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
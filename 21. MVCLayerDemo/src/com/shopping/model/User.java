@@ -28,6 +28,18 @@ public class User implements Serializable {
         this.balance = 10000.0; // 초기 잔액
     }
 
+    /**
+     * 복사 생성자 (저장소가 보관하는 사용자와 호출자가 고치는 사용자를 분리할 때 사용)
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.password = other.password;
+        this.email = other.email;
+        this.name = other.name;
+        this.role = other.role;
+        this.balance = other.balance;
+    }
+
     // getter & setter (생략)
     public String getId() { return id; }
     public String getPassword() { return password; }
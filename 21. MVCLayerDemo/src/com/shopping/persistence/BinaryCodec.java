@@ -0,0 +1,19 @@
+package com.shopping.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 자바 직렬화(ObjectOutputStream)를 대신하는 수작업 바이너리 코덱
+ * - 클래스 디스크립터 없이 필드 값만 기록하므로 파일이 작고 읽기/쓰기가 빠름
+ * - 구현체는 ModelCodecs 참고
+ */
+public interface BinaryCodec<T> {
+
+    // 레코드 하나를 기록
+    void write(DataOutput out, T value) throws IOException;
+
+    // 레코드 하나를 읽어 객체로 복원
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,328 @@
+package com.shopping.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 블록 압축 스냅샷 형식 (Deflater/Inflater)
+ *
+ * 형식: [magic(4)][version(1)][format(1)][blockSize(4)]
+ *       { [compressedLen(4)][rawLen(4)][crc32c(4)][deflate 데이터] } * 블록 수
+ *       [블록 인덱스: { [offset(8)][firstRecord(4)][recordCount(4)] } * 블록 수]
+ *       [indexOffset(8)][recordCount(4)][blockCount(4)][END magic(4)]
+ * - 레코드를 [len(4)][record]로 이어 붙이다가 blockSize를 넘으면 블록 하나로 압축
+ * - 끝의 블록 인덱스로 레코드 번호 → 블록을 바로 찾으므로, 레코드 하나만 필요하면 해당 블록만 압축 해제
+ * - 블록마다 압축 데이터의 CRC32C 검증
+ */
+public final class BlockCompressedFile {
+
+    static final int MAGIC = 0x534D535A;       // "SMSZ"
+    private static final int VERSION = 1;
+    private static final int END_MAGIC = 0x5A454E44; // "ZEND"
+    private static final int TRAILER_SIZE = 8 + 4 + 4 + 4;
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private BlockCompressedFile() {
+    }
+
+    /**
+     * 레코드 전체를 블록 압축 형식으로 기록 (원자적 교체는 SnapshotFile이 담당)
+     */
+    static <T> void write(OutputStream target, Collection<T> records, BinaryCodec<T> codec,
+                          int blockSize) throws IOException {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize <= 0");
+        CountingOutputStream counter = new CountingOutputStream(target);
+        DataOutputStream out = new DataOutputStream(counter);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(codec != null ? 1 : 0);
+        out.writeInt(blockSize);
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        ByteArrayOutputStream block = new ByteArrayOutputStream(blockSize + 1024);
+        DataOutputStream blockOut = new DataOutputStream(block);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        int recordCount = 0;
+        int blockCount = 0;
+        int firstInBlock = 0;
+        try {
+            for (T record : records) {
+                byte[] bytes = SnapshotFile.encodeRecord(record, codec);
+                blockOut.writeInt(bytes.length);
+                blockOut.write(bytes);
+                recordCount++;
+                if (block.size() >= blockSize) {
+                    writeBlock(out, counter, indexOut, deflater, block, firstInBlock, recordCount - firstInBlock);
+                    blockCount++;
+                    firstInBlock = recordCount;
+                }
+            }
+            if (block.size() > 0) {
+                writeBlock(out, counter, indexOut, deflater, block, firstInBlock, recordCount - firstInBlock);
+                blockCount++;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        long indexOffset = counter.count;
+        index.writeTo(out);
+        out.writeLong(indexOffset);
+        out.writeInt(recordCount);
+        out.writeInt(blockCount);
+        out.writeInt(END_MAGIC);
+        out.flush();
+    }
+
+    private static void writeBlock(DataOutputStream out, CountingOutputStream counter, DataOutputStream indexOut,
+                                   Deflater deflater, ByteArrayOutputStream block,
+                                   int firstRecord, int count) throws IOException {
+        byte[] raw = block.toByteArray();
+        block.reset();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buf = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buf);
+            compressed.write(buf, 0, n);
+        }
+        byte[] data = compressed.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+
+        out.flush();
+        indexOut.writeLong(counter.count);
+        indexOut.writeInt(firstRecord);
+        indexOut.writeInt(count);
+        out.writeInt(data.length);
+        out.writeInt(raw.length);
+        out.writeInt((int) crc.getValue());
+        out.write(data);
+    }
+
+    /**
+     * 블록 압축 파일 열기 (끝의 인덱스만 읽음)
+     */
+    public static <T> Reader<T> open(File file, BinaryCodec<T> codec) throws IOException {
+        return new Reader<>(file, codec);
+    }
+
+    /**
+     * 블록 압축 파일 읽기 - 레코드 번호로 임의 접근 또는 순차 순회
+     * - 마지막으로 압축 해제한 블록 하나만 메모리에 유지
+     */
+    public static final class Reader<T> implements AutoCloseable {
+        private final RandomAccessFile raf;
+        private final BinaryCodec<T> codec;
+        private final long[] blockOffsets;
+        private final int[] blockFirstRecord;
+        private final int[] blockRecordCount;
+        private final int recordCount;
+        private final Inflater inflater = new Inflater();
+
+        private int cachedBlock = -1;
+        private int[] cachedStarts;   // 블록 안 레코드 시작 위치
+        private byte[] cachedRaw;
+
+        private Reader(File file, BinaryCodec<T> codec) throws IOException {
+            this.raf = new RandomAccessFile(file, "r");
+            this.codec = codec;
+            try {
+                if (raf.length() < 10 + TRAILER_SIZE) throw new EOFException("블록 압축 파일이 너무 짧습니다.");
+                if (raf.readInt() != MAGIC) throw new IOException("블록 압축 형식 파일이 아닙니다.");
+                int version = raf.readUnsignedByte();
+                if (version != VERSION) throw new IOException("지원하지 않는 블록 압축 버전입니다: " + version);
+                if (raf.readByte() == 1 && codec == null) throw new IOException("코덱 형식 파일이지만 코덱이 지정되지 않았습니다.");
+
+                raf.seek(raf.length() - TRAILER_SIZE);
+                long indexOffset = raf.readLong();
+                this.recordCount = raf.readInt();
+                int blockCount = raf.readInt();
+                if (raf.readInt() != END_MAGIC) throw new IOException("끝 표시가 없습니다 (쓰다 만 파일).");
+                if (blockCount < 0 || indexOffset + (long) blockCount * INDEX_ENTRY_SIZE != raf.length() - TRAILER_SIZE) {
+                    throw new IOException("블록 인덱스가 손상되었습니다.");
+                }
+
+                byte[] index = new byte[blockCount * INDEX_ENTRY_SIZE];
+                raf.seek(indexOffset);
+                raf.readFully(index);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+                this.blockOffsets = new long[blockCount];
+                this.blockFirstRecord = new int[blockCount];
+                this.blockRecordCount = new int[blockCount];
+                for (int i = 0; i < blockCount; i++) {
+                    blockOffsets[i] = in.readLong();
+                    blockFirstRecord[i] = in.readInt();
+                    blockRecordCount[i] = in.readInt();
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        public int size() {
+            return recordCount;
+        }
+
+        public int blockCount() {
+            return blockOffsets.length;
+        }
+
+        /**
+         * index번째 레코드 디코딩 (해당 블록만 압축 해제)
+         */
+        public T get(int index) throws IOException {
+            if (index < 0 || index >= recordCount) throw new IndexOutOfBoundsException(index);
+            int block = findBlock(index);
+            loadBlock(block);
+            int local = index - blockFirstRecord[block];
+            int start = cachedStarts[local];
+            int length = readInt(cachedRaw, start - 4);
+            byte[] bytes = new byte[length];
+            System.arraycopy(cachedRaw, start, bytes, 0, length);
+            return SnapshotFile.decodeRecord(bytes, codec);
+        }
+
+        /**
+         * 처음부터 순서대로 순회 (블록 단위로 압축 해제)
+         */
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < recordCount;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    try {
+                        return get(next++);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("블록 압축 레코드 읽기 실패 (레코드 " + (next - 1) + ")", e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+            try {
+                raf.close();
+            } catch (IOException ignored) {
+                // 닫기 실패는 무시
+            }
+        }
+
+        private int findBlock(int index) {
+            int lo = 0;
+            int hi = blockFirstRecord.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (blockFirstRecord[mid] <= index) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+
+        private void loadBlock(int block) throws IOException {
+            if (block == cachedBlock) return;
+            raf.seek(blockOffsets[block]);
+            int compressedLength = raf.readInt();
+            int rawLength = raf.readInt();
+            int expected = raf.readInt();
+            if (compressedLength < 0 || rawLength < 0) throw new IOException("잘못된 블록 길이 (블록 " + block + ")");
+            byte[] data = new byte[compressedLength];
+            raf.readFully(data);
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            if ((int) crc.getValue() != expected) throw new IOException("체크섬 불일치 (블록 " + block + ")");
+
+            byte[] raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(data);
+            try {
+                int n = 0;
+                while (n < rawLength && !inflater.finished()) {
+                    n += inflater.inflate(raw, n, rawLength - n);
+                    if (inflater.needsInput()) break;
+                }
+                if (n != rawLength) throw new IOException("압축 해제 길이 불일치 (블록 " + block + ")");
+            } catch (DataFormatException e) {
+                throw new IOException("압축 데이터 손상 (블록 " + block + ")", e);
+            }
+
+            int count = blockRecordCount[block];
+            int[] starts = new int[count];
+            int pos = 0;
+            for (int i = 0; i < count; i++) {
+                if (pos + 4 > rawLength) throw new IOException("블록 내용이 잘렸습니다 (블록 " + block + ")");
+                int length = readInt(raw, pos);
+                starts[i] = pos + 4;
+                pos += 4 + length;
+                if (length < 0 || pos > rawLength) throw new IOException("블록 내용이 잘렸습니다 (블록 " + block + ")");
+            }
+            cachedBlock = block;
+            cachedRaw = raw;
+            cachedStarts = starts;
+        }
+
+        private static int readInt(byte[] b, int pos) {
+            return ((b[pos] & 0xFF) << 24) | ((b[pos + 1] & 0xFF) << 16)
+                    | ((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF);
+        }
+    }
+
+    /**
+     * 기록한 바이트 수를 세는 스트림 (블록 위치 계산용)
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private long count;
+
+        CountingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.shopping.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * 증분(delta) 스냅샷 엔진
+ * - 변경 시 전체 레코드를 다시 쓰지 않고, 바뀐 레코드만 델타 파일(.delta) 끝에 덧붙임 → 쓰기 비용은 이번 변경량에 비례
+ * - 마지막 병합 이후 바뀐 레코드 수가 mergeThreshold에 도달하면 (메모리 반영 후) 전체 스냅샷으로 병합
+ * - 로드: 전체 스냅샷 → 델타 적용 (전체 스냅샷을 백업에서 복구한 경우 직전 델타(.delta.prev)부터 적용)
+ * - 전체 스냅샷은 블록 압축 형식(BlockCompressedFile)으로 저장할 수 있음
+ *
+ * 델타 파일 형식: [magic(4)][version(1)] + 레코드...
+ * 델타 레코드 형식: [payloadLen(4)][crc32c(4)][payload(키 + 최신 레코드, 삭제면 레코드 없음)]
+ * - 마지막 레코드가 잘렸거나 체크섬이 맞지 않으면(쓰기 도중 종료) 그 꼬리만 버리고 경고를 남김
+ * - 마지막이 아닌 레코드가 손상되었으면 이후 변경을 잃게 되므로 기동을 거부 (빈 상태나 이전 상태로 덮어쓰지 않음)
+ * - 이전 형식(변경분 전체를 스냅샷으로 다시 쓰던 .delta)은 읽은 뒤 바로 병합해서 새 형식으로 전환
+ */
+public class DeltaStorageEngine<V> extends MapStorageEngine<String, V> {
+
+    public static final int DEFAULT_MERGE_THRESHOLD = 256; // 이만큼 레코드가 바뀌면 전체 스냅샷으로 병합
+
+    private static final int DELTA_MAGIC = 0x53444C54;  // "SDLT"
+    private static final int DELTA_VERSION = 1;
+    private static final int DELTA_HEADER_SIZE = 5;
+
+    private final File file;               // 전체 스냅샷 (예: data/orders.dat)
+    private final File deltaFile;          // 마지막 병합 이후 변경분 (예: data/orders.dat.delta)
+    private final File previousDeltaFile;  // 직전 병합 구간의 변경분 (예: data/orders.dat.delta.prev)
+    private final BinaryCodec<V> codec;    // null이면 자바 직렬화
+    private final BinaryCodec<Change<V>> changeCodec;
+    private final int mergeThreshold;
+    private final boolean compressed;      // 전체 스냅샷 블록 압축 여부
+    private final Map<String, V> changed = new LinkedHashMap<>(); // 키 → 최신 레코드 (null = 삭제)
+    private FileOutputStream deltaOut;     // 델타 파일 끝에 덧붙이는 스트림 (sync용)
+    private DataOutputStream delta;
+
+    /**
+     * - 원본도 백업도 없으면 빈 스냅샷을 새로 만듦
+     * - 읽을 때는 압축 여부와 관계없이 파일 형식을 보고 판단
+     */
+    public DeltaStorageEngine(File file, Function<V, String> keyExtractor, BinaryCodec<V> codec,
+                              int mergeThreshold, boolean compressed) {
+        super(keyExtractor);
+        if (mergeThreshold <= 0) throw new IllegalArgumentException("mergeThreshold <= 0");
+        this.file = file;
+        this.deltaFile = new File(file.getPath() + ".delta");
+        this.previousDeltaFile = new File(file.getPath() + ".delta.prev");
+        this.codec = codec;
+        this.changeCodec = (codec != null) ? new ChangeCodec<>(codec) : null;
+        this.mergeThreshold = mergeThreshold;
+        this.compressed = compressed;
+        ensureFile();
+        loadAll();
+    }
+
+    /**
+     * 마지막 병합 이후 바뀐 레코드 수
+     */
+    public synchronized int pendingChanges() {
+        return changed.size();
+    }
+
+    /**
+     * 이번에 바뀐 레코드만 델타 파일 끝에 덧붙이고 디스크에 동기화, 기준에 도달하면 전체 병합
+     * - 병합 전에도 먼저 덧붙임 → 병합 후 .delta.prev가 직전 전체 스냅샷과 새 스냅샷 사이의 변경을 모두 담음
+     */
+    @Override
+    protected void persist(Collection<V> puts, Collection<String> deleteKeys) {
+        long committedLength = deltaFile.length();
+        try {
+            DataOutputStream os = deltaStream();
+            for (V value : puts) {
+                writeChange(os, new Change<>(keyExtractor.apply(value), value));
+            }
+            for (String key : deleteKeys) {
+                writeChange(os, new Change<>(key, null));
+            }
+            os.flush();
+            deltaOut.getFD().sync();
+        } catch (IOException e) {
+            closeDelta();
+            discardTail(committedLength); // 반쯤 쓴 배치 뒤에 다음 배치가 붙어 중간 손상이 되지 않도록
+            throw new UncheckedIOException("델타 기록 실패: " + deltaFile, e);
+        }
+        for (V value : puts) {
+            changed.put(keyExtractor.apply(value), value);
+        }
+        for (String key : deleteKeys) {
+            changed.put(key, null);
+        }
+    }
+
+    /**
+     * 메모리 반영 후 병합 - 변경은 이미 델타에 안전하게 남았으므로 병합 실패는 호출자에게 알리지 않고 다음 변경 때 다시 시도
+     */
+    @Override
+    protected void afterApply() {
+        if (changed.size() < mergeThreshold) return;
+        try {
+            persistAll(values());
+        } catch (UncheckedIOException e) {
+            System.err.println("[Delta] 병합 실패, 다음 변경 때 다시 시도합니다: " + file.getPath() + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * 델타를 전체 스냅샷으로 병합
+     * - 새 전체 스냅샷 저장 → 현재 델타를 .delta.prev로 보관 (직전 전체 스냅샷 + 이 델타 = 새 전체 스냅샷)
+     * - 병합 후 남은 델타 백업은 이전 구간 기준이므로 삭제
+     */
+    @Override
+    protected void persistAll(Collection<V> live) {
+        closeDelta();
+        try {
+            writeFullSnapshot(live);
+            if (deltaFile.exists()) {
+                SnapshotFile.move(deltaFile, previousDeltaFile);
+            } else {
+                previousDeltaFile.delete();
+            }
+            SnapshotFile.backupOf(deltaFile).delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException("델타 병합 실패: " + file, e);
+        }
+        changed.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        closeDelta();
+    }
+
+    // ---------- 내부 유틸 ----------
+
+    /**
+     * 저장 파일 존재 보장
+     * - 원본도 백업도 없으면 빈 스냅샷을 저장해서 새로 생성 (백업만 남은 경우 빈 파일로 덮지 않음)
+     */
+    private void ensureFile() {
+        try {
+            File parent = file.getParentFile();
+            if (parent != null) parent.mkdirs();
+            if (!file.exists() && !SnapshotFile.backupOf(file).exists()) {
+                writeFullSnapshot(Collections.<V>emptyList());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 전체 스냅샷 + 델타를 읽어 메모리에 로드
+     * - 원본이 손상되었으면 직전 스냅샷으로 복구, 둘 다 손상이면 예외 (빈 상태로 덮어쓰지 않음)
+     * - 직전 스냅샷으로 복구했다면 직전 델타 → 현재 델타 순으로 적용 후 바로 병합 (델타 적용은 멱등)
+     */
+    private void loadAll() {
+        try {
+            Map<String, V> state = new LinkedHashMap<>();
+            SnapshotFile.Recovered<V> full = SnapshotFile.read(file, codec);
+            for (V value : full.getRecords()) {
+                state.put(keyExtractor.apply(value), value);
+            }
+            if (full.isFromBackup()) {
+                applyChanges(state, readDelta(previousDeltaFile).changes);
+            }
+            DeltaLog<V> delta = readDelta(deltaFile);
+            applyChanges(state, delta.changes);
+            load(state.values());
+            for (Change<V> c : delta.changes) {
+                changed.put(c.key, c.value == null ? null : state.get(c.key));
+            }
+            if (full.isFromBackup() || delta.legacy) {
+                checkpoint(); // 복구 결과 / 이전 형식 델타를 새 전체 스냅샷으로 확정
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 로드 실패: " + file, e);
+        }
+    }
+
+    private void writeFullSnapshot(Collection<V> live) throws IOException {
+        if (compressed) {
+            SnapshotFile.writeCompressed(file, live, codec, BlockCompressedFile.DEFAULT_BLOCK_SIZE);
+        } else {
+            SnapshotFile.write(file, live, codec);
+        }
+    }
+
+    /**
+     * 델타 파일 읽기 (새 형식: 덧붙인 레코드, 이전 형식: 변경분 스냅샷)
+     * @throws IOException 마지막이 아닌 레코드가 손상되어 이후 변경을 복구할 수 없는 경우
+     */
+    private DeltaLog<V> readDelta(File file) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            if (!SnapshotFile.backupOf(file).exists()) return new DeltaLog<>(new ArrayList<>(), false);
+            return readLegacyDelta(file);
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (file.length() < 4 || in.readInt() != DELTA_MAGIC) return readLegacyDelta(file);
+        }
+
+        List<Change<V>> changes = new ArrayList<>();
+        long validLength = DELTA_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.readInt();
+            int version = in.readUnsignedByte();
+            if (version != DELTA_VERSION) throw new IOException("지원하지 않는 델타 버전입니다: " + version);
+            while (validLength < file.length()) {
+                long recordEnd;
+                try {
+                    int length = in.readInt();
+                    int expected = in.readInt();
+                    if (length < 0) throw new IOException("잘못된 델타 레코드 길이: " + length + " (" + file.getPath() + ")");
+                    recordEnd = validLength + 8 + length;
+                    if (recordEnd > file.length()) throw new EOFException();
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    if (checksum(payload) != expected) {
+                        if (recordEnd < file.length()) {
+                            throw new IOException("델타 파일 중간 레코드가 손상되었습니다: " + file.getPath()
+                                    + " (레코드 " + changes.size() + ", 이후 변경을 복구할 수 없어 기동을 중단합니다)");
+                        }
+                        break; // 마지막 레코드 → 쓰기 도중 종료된 꼬리
+                    }
+                    changes.add(SnapshotFile.decodeRecord(payload, changeCodec));
+                } catch (EOFException e) {
+                    break; // 잘린 꼬리
+                }
+                validLength = recordEnd;
+            }
+        }
+        if (validLength < file.length()) {
+            System.err.println("[Delta] 잘렸거나 손상된 델타 꼬리를 버립니다: " + file.getPath()
+                    + " (" + changes.size() + "건, " + validLength + " bytes 유지)");
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        return new DeltaLog<>(changes, false);
+    }
+
+    /**
+     * 이전 형식 델타 (매번 변경분 전체를 스냅샷으로 다시 쓰던 형식) - 백업으로 복구했으면 경고
+     */
+    private DeltaLog<V> readLegacyDelta(File file) throws IOException {
+        SnapshotFile.Recovered<Change<V>> recovered = SnapshotFile.read(file, changeCodec);
+        if (recovered.isFromBackup()) {
+            System.err.println("[Delta] 델타 파일이 손상되어 백업으로 복구했습니다: " + file.getPath()
+                    + " (마지막 저장의 변경이 빠졌을 수 있습니다)");
+        }
+        return new DeltaLog<>(recovered.getRecords(), true);
+    }
+
+    private void writeChange(DataOutputStream os, Change<V> change) throws IOException {
+        byte[] payload = SnapshotFile.encodeRecord(change, changeCodec);
+        os.writeInt(payload.length);
+        os.writeInt(checksum(payload));
+        os.write(payload);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private DataOutputStream deltaStream() throws IOException {
+        if (delta == null) {
+            boolean fresh = !deltaFile.exists() || deltaFile.length() == 0;
+            deltaOut = new FileOutputStream(deltaFile, true);
+            delta = new DataOutputStream(new BufferedOutputStream(deltaOut));
+            if (fresh) {
+                delta.writeInt(DELTA_MAGIC);
+                delta.writeByte(DELTA_VERSION);
+            }
+        }
+        return delta;
+    }
+
+    private void discardTail(long length) {
+        if (!deltaFile.exists() || deltaFile.length() <= length) return;
+        try (RandomAccessFile raf = new RandomAccessFile(deltaFile, "rw")) {
+            raf.setLength(length);
+        } catch (IOException e) {
+            System.err.println("[Delta] 실패한 배치를 잘라내지 못했습니다: " + deltaFile.getPath() + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void closeDelta() {
+        if (delta != null) {
+            try {
+                delta.close();
+            } catch (IOException ignored) {
+                // 닫기 실패는 무시 (기록된 레코드는 이미 sync됨)
+            }
+            delta = null;
+            deltaOut = null;
+        }
+    }
+
+    private static <V> void applyChanges(Map<String, V> state, List<Change<V>> changes) {
+        for (Change<V> c : changes) {
+            if (c.value == null) state.remove(c.key);
+            else state.put(c.key, c.value);
+        }
+    }
+
+    private static final class DeltaLog<V> {
+        final List<Change<V>> changes;
+        final boolean legacy;
+
+        DeltaLog(List<Change<V>> changes, boolean legacy) {
+            this.changes = changes;
+            this.legacy = legacy;
+        }
+    }
+
+    /**
+     * 델타 레코드: 키 + 최신 레코드 (null이면 삭제)
+     */
+    private static final class Change<V> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String key;
+        private final V value;
+
+        Change(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 델타 레코드 코덱: [key(UTF)][존재 여부(1)][레코드(레코드 코덱)]
+     */
+    private static final class ChangeCodec<V> implements BinaryCodec<Change<V>> {
+        private final BinaryCodec<V> codec;
+
+        ChangeCodec(BinaryCodec<V> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void write(DataOutput out, Change<V> change) throws IOException {
+            out.writeUTF(change.key);
+            out.writeBoolean(change.value != null);
+            if (change.value != null) codec.write(out, change.value);
+        }
+
+        @Override
+        public Change<V> read(DataInput in) throws IOException {
+            String key = in.readUTF();
+            V value = in.readBoolean() ? codec.read(in) : null;
+            return new Change<>(key, value);
+        }
+    }
+}
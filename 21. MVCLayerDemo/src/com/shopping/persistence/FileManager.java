@@ -1,13 +1,14 @@
 package com.shopping.persistence;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 파일 입출력을 담당하는 유틸리티 클래스 
@@ -20,44 +21,71 @@ public class FileManager {
     /*
      * 파일에서 객체 리스트 읽기
      */
-    @SuppressWarnings("unchecked")
     public static <T> List<T> readFromFile(String fileName) {
-        // 파일 경로 정규화
+        return readFromFile(fileName, null);
+    }
+
+    /**
+     * 바이너리 코덱으로 파일에서 객체 리스트 읽기
+     * - 체크섬 스냅샷 형식 외에 기존 직렬화/코덱 형식 파일도 읽음 (다음 저장 시 새 형식으로 변환됨)
+     * - 원본이 손상되었으면 마지막 정상 스냅샷(.bak)으로 복구
+     * - codec이 null이면 자바 직렬화 사용
+     * @throws UncheckedIOException 복구 가능한 스냅샷이 없는 경우 (빈 리스트로 덮어써서 데이터를 잃지 않도록)
+     */
+    public static <T> List<T> readFromFile(String fileName, BinaryCodec<T> codec) {
         String fullPath = normalizePath(fileName);
-        File file = new File(fullPath);  // 수정: fullPath 사용
-        
-        // 파일이 존재하지 않는 경우
-        if (!file.exists()) {
+        File file = new File(fullPath);
+
+        // 파일이 존재하지 않는 경우 (백업도 없으면 새로 시작)
+        if (!file.exists() && !SnapshotFile.backupOf(file).exists()) {
             System.out.println("파일이 존재하지 않습니다: " + fullPath);
             System.out.println("빈 리스트를 반환합니다.");
             return new ArrayList<>();
         }
-        
-        // 파일이 비어있는 경우
-        if (file.length() == 0) {
-            System.out.println("파일이 비어있습니다: " + fullPath);
-            return new ArrayList<>();
-        }
-        
-        // 파일 읽기
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(file))) {
-            List<T> data = (List<T>) ois.readObject();
-            System.out.println("파일 읽기 성공: " + fullPath + 
+
+        try {
+            List<T> data = SnapshotFile.read(file, codec).getRecords();
+            System.out.println("파일 읽기 성공: " + fullPath +
                              " (" + data.size() + "개 항목)");
             return data;
-            
         } catch (IOException e) {
-            System.err.println("파일 읽기 중 IOException 발생: " + e.getMessage());
-            return new ArrayList<>();
-            
-        } catch (ClassNotFoundException e) {
-            System.err.println("클래스를 찾을 수 없습니다: " + e.getMessage());
-            return new ArrayList<>();
-            
-        } catch (Exception e) {
-            System.err.println("파일 읽기 중 예외 발생: " + e.getMessage());
-            return new ArrayList<>();
+            System.err.println("파일 읽기 실패: " + fullPath);
+            System.err.println("오류 내용: " + e.getMessage());
+            throw new UncheckedIOException("스냅샷 복구 실패: " + fullPath, e);
+        }
+    }
+
+    /**
+     * 파일의 레코드를 하나씩 읽는 스트림 (자바 직렬화)
+     */
+    public static <T> Stream<T> stream(String fileName) {
+        return stream(fileName, null);
+    }
+
+    /**
+     * 파일의 레코드를 하나씩 디코딩하는 스트림
+     * - findFirst/anyMatch 등으로 일찍 멈추면 나머지 레코드는 읽지 않음 → 메모리는 레코드 하나 분량
+     * - try-with-resources로 닫아야 함 (끝까지 읽으면 파일은 자동으로 닫힘)
+     * - 원본 헤더를 읽을 수 없으면 백업(.bak)에서 읽음
+     * - 읽는 도중 손상을 만나면: 아직 레코드를 받기 전이면 백업으로 이어 읽고, 이미 받았으면
+     *   원본을 격리한 뒤 UncheckedIOException → 호출자는 예외를 처리하고 처음부터 다시 읽으면 됨 (백업을 읽음)
+     */
+    public static <T> Stream<T> stream(String fileName, BinaryCodec<T> codec) {
+        RecordCursor<T> cursor = openCursor(fileName, codec);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    /**
+     * 파일의 레코드를 하나씩 읽는 커서 열기 (파일이 없으면 빈 커서)
+     */
+    public static <T> RecordCursor<T> openCursor(String fileName, BinaryCodec<T> codec) {
+        String fullPath = normalizePath(fileName);
+        try {
+            return SnapshotFile.openCursor(new File(fullPath), codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException("파일 열기 실패: " + fullPath, e);
         }
     }
 
@@ -65,7 +93,7 @@ public class FileManager {
      * 파일 경로 정규화 
      * 운영체제에 관계없이 올바른 경로 반환 
      */
-    private static String normalizePath(String fileName) {
+    static String normalizePath(String fileName) {
         // 이미 경로가 포함된 경우 그대로 반환
         if (fileName.contains(File.separator) || fileName.contains("/") 
                 || fileName.contains("\\")) {
@@ -80,16 +108,25 @@ public class FileManager {
      * 객체 리스트를 파일에 저장 
      */
     public static <T> void writeToFile(String fileName, List<T> data) {
+        writeToFile(fileName, data, null);
+    }
+
+    /**
+     * 객체 리스트를 바이너리 코덱으로 파일에 저장
+     * - 체크섬 스냅샷 형식, 임시 파일에 쓴 뒤 원자적으로 교체 (기존 스냅샷은 .bak으로 보관)
+     * - codec이 null이면 자바 직렬화 사용
+     */
+    public static <T> void writeToFile(String fileName, List<T> data, BinaryCodec<T> codec) {
         // null 체크 
         if (data == null) {
             System.err.println("[FileManager] 저장할 데이터가 null입니다.");
             return;
         }
-        
+
         // 파일 경로 정규화
         String fullPath = normalizePath(fileName);
         File file = new File(fullPath);
-        
+
         // 부모 디렉토리 확인 및 생성
         File parentDir = file.getParentFile();
         if (parentDir != null && !parentDir.exists()) {
@@ -98,14 +135,12 @@ public class FileManager {
                 System.out.println("디렉토리 생성: " + parentDir.getPath());
             }
         }
-        
+
         // 파일 저장 시도
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(file))) {
-            oos.writeObject(data);
-            oos.flush();  // 버퍼 강제 flush
-            
-            System.out.println("파일 저장 성공: " + fullPath + 
+        try {
+            SnapshotFile.write(file, data, codec);
+
+            System.out.println("파일 저장 성공: " + fullPath +
                              " (" + data.size() + "개 항목)");
         } catch (IOException e) {
             System.err.println("파일 저장 실패: " + fullPath);
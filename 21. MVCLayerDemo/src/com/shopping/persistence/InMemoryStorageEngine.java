@@ -0,0 +1,24 @@
+package com.shopping.persistence;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 디스크에 아무것도 쓰지 않는 엔진
+ * - 서비스 계층을 I/O 없이 돌려 보는 부하 테스트, 파일을 남기면 안 되는 테스트용
+ * - 프로세스가 끝나면 데이터도 사라짐
+ */
+public class InMemoryStorageEngine<K, V> extends MapStorageEngine<K, V> {
+
+    public InMemoryStorageEngine(Function<V, K> keyExtractor) {
+        super(keyExtractor);
+    }
+
+    @Override
+    protected void persist(Collection<V> puts, Collection<K> deleteKeys) {
+    }
+
+    @Override
+    protected void persistAll(Collection<V> live) {
+    }
+}
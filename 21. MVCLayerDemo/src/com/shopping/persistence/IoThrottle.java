@@ -0,0 +1,60 @@
+package com.shopping.persistence;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 초당 바이트 수 제한 (백그라운드 작업의 디스크 I/O가 요청 처리 I/O를 밀어내지 않도록)
+ * - 쓴 만큼 다음 허용 시각을 뒤로 미루고, 앞서 나가면 그만큼 잠시 대기
+ * - 쉬는 동안의 여유분은 쌓아 두지 않음 (한꺼번에 몰아서 쓰지 않도록)
+ */
+public class IoThrottle {
+
+    private final long bytesPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    public IoThrottle(long bytesPerSecond) {
+        if (bytesPerSecond <= 0) throw new IllegalArgumentException("bytesPerSecond <= 0");
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * bytes만큼의 I/O 허용을 받음 (필요하면 대기)
+     */
+    public void acquire(long bytes) {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextFreeNanos < now) nextFreeNanos = now;
+            waitNanos = nextFreeNanos - now;
+            nextFreeNanos += bytes * 1_000_000_000L / bytesPerSecond;
+        }
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 쓰기 속도가 제한되는 출력 스트림
+     */
+    public OutputStream wrap(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                acquire(1);
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                acquire(len);
+                out.write(b, off, len);
+            }
+        };
+    }
+}
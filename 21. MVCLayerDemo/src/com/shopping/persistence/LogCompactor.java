@@ -0,0 +1,86 @@
+package com.shopping.persistence;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 백그라운드 로그 압축기 (log compaction)
+ * - WriteAheadLog가 로그 세그먼트를 봉인(seal)하면 압축을 요청받아 별도 스레드에서 수행
+ * - 스냅샷 + 봉인된 세그먼트를 재생해 살아있는 레코드만 새 스냅샷으로 기록 후 원자적으로 교체
+ * - 디스크 I/O는 IoThrottle로 초당 바이트 수를 제한
+ * - 압축 중에도 쓰기는 새 활성 로그에 계속 덧붙고, 조회는 메모리 상태를 그대로 사용 → 압축 전체 동안 막히지 않음
+ */
+public class LogCompactor {
+
+    public static final long DEFAULT_BYTES_PER_SECOND = 8L * 1024 * 1024; // 8 MiB/s
+
+    private static LogCompactor shared;
+
+    private final ExecutorService executor;
+    private final IoThrottle throttle;
+    private final Set<WriteAheadLog<?>> pending = ConcurrentHashMap.newKeySet(); // 중복 요청 제거
+
+    public LogCompactor(String name, long bytesPerSecond) {
+        this.throttle = new IoThrottle(bytesPerSecond);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name + "-compactor");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * 저장소들이 함께 쓰는 기본 압축기 (스레드 하나, 기본 속도 제한)
+     */
+    public static synchronized LogCompactor shared() {
+        if (shared == null) {
+            shared = new LogCompactor("log", DEFAULT_BYTES_PER_SECOND);
+        }
+        return shared;
+    }
+
+    /**
+     * 압축 요청 - 이미 대기 중인 로그면 무시
+     */
+    public void request(WriteAheadLog<?> wal) {
+        if (!pending.add(wal)) return;
+        executor.execute(() -> {
+            pending.remove(wal);
+            try {
+                wal.compact(throttle);
+            } catch (RuntimeException e) {
+                System.err.println("[Compactor] 로그 압축 실패, 다음 요청 때 다시 시도합니다: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 지금까지 요청된 압축이 모두 끝날 때까지 대기
+     */
+    public void awaitIdle() {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 대기 중인 압축을 마치고 종료
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
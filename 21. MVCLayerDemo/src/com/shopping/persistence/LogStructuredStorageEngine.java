@@ -0,0 +1,43 @@
+package com.shopping.persistence;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 변경을 로그에 덧붙이는 엔진 (WriteAheadLog)
+ * - 변경 한 건당 레코드 하나만 기록하므로 쓰기 비용이 전체 레코드 수와 무관
+ * - 로그가 쌓이면 세그먼트로 봉인하고 LogCompactor가 백그라운드에서 스냅샷으로 압축
+ */
+public class LogStructuredStorageEngine<V> extends MapStorageEngine<String, V> {
+
+    private final WriteAheadLog<V> wal;
+
+    public LogStructuredStorageEngine(String fileName, Function<V, String> keyExtractor, BinaryCodec<V> codec) {
+        this(fileName, keyExtractor, codec, WriteAheadLog.DEFAULT_CHECKPOINT_THRESHOLD, LogCompactor.shared());
+    }
+
+    /**
+     * @param compactor null이면 백그라운드 압축 없이 checkpoint() 호출 시에만 스냅샷 기록
+     */
+    public LogStructuredStorageEngine(String fileName, Function<V, String> keyExtractor, BinaryCodec<V> codec,
+                                      int checkpointThreshold, LogCompactor compactor) {
+        super(keyExtractor);
+        this.wal = new WriteAheadLog<>(fileName, keyExtractor, codec, checkpointThreshold, compactor);
+        load(wal.recover().values());
+    }
+
+    @Override
+    protected void persist(Collection<V> puts, Collection<String> deleteKeys) {
+        wal.appendBatch(puts, deleteKeys);
+    }
+
+    @Override
+    protected void persistAll(Collection<V> live) {
+        wal.checkpoint(live);
+    }
+
+    @Override
+    public void close() {
+        wal.close();
+    }
+}
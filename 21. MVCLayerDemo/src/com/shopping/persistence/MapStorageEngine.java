@@ -0,0 +1,321 @@
+package com.shopping.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.shopping.util.BloomFilter;
+
+/**
+ * 메모리 Map을 기본 저장소로 쓰는 엔진의 공통 부분
+ * - 조회는 모두 메모리에서 처리, 변경은 persist()로 디스크에 먼저 기록한 뒤 메모리/색인/변경 알림에 반영
+ *   (기록에 실패하면 예외만 전달되고 메모리는 그대로 → 메모리와 디스크가 어긋나지 않음)
+ * - 기본 키 조회는 Map, 보조 키(이메일 등)는 HashMap 보조 인덱스로 O(1) 조회
+ * - 보조 키 중복은 잠금 안에서 반영 전에 검사 → 다른 레코드가 쓰는 보조 키를 저장하면 아무것도 바꾸지 않고 거부
+ * - 블룸 필터를 켜면 없는 키 조회는 잠금 없이 바로 반환 (전체 스냅샷 기록 중에도 가입 중복 검사가 기다리지 않음)
+ * - 하위 클래스는 디스크 기록 방식(persist / persistAll)만 구현
+ */
+public abstract class MapStorageEngine<K, V> implements StorageEngine<K, V> {
+
+    protected final Function<V, K> keyExtractor;
+    private final Map<K, V> records = new LinkedHashMap<>();
+    private final Map<String, UniqueIndex<K, V>> indexes = new HashMap<>();
+    private final List<ChangeListener<K, V>> listeners = new ArrayList<>();
+    private double bloomFalsePositiveRate;          // 0이면 블룸 필터 사용 안 함
+    private volatile BloomFilter keyFilter;         // 재구성 시 통째로 교체
+    private int filterInsertions;                   // 현재 필터에 넣은 횟수 (용량 초과 시 재구성)
+
+    protected MapStorageEngine(Function<V, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * 디스크에서 읽은 레코드로 메모리 상태 초기화 (하위 클래스 생성자에서 호출)
+     */
+    protected final void load(Collection<V> loaded) {
+        records.clear();
+        for (V value : loaded) {
+            records.put(keyExtractor.apply(value), value);
+        }
+        for (UniqueIndex<K, V> index : indexes.values()) {
+            index.rebuild(records);
+        }
+        rebuildFilters(0);
+    }
+
+    /**
+     * 변경분 기록 - 호출 시점에 메모리에는 아직 반영되지 않음 (전체 레코드가 필요하면 valuesAfter 사용)
+     * 실패하면 RuntimeException(UncheckedIOException 등)을 던져야 하며, 그러면 메모리에도 반영하지 않음
+     */
+    protected abstract void persist(Collection<V> puts, Collection<K> deleteKeys);
+
+    /**
+     * 변경분이 메모리에 반영된 뒤 호출 (엔진 잠금 안) - 증분을 정리하는 엔진이 재정의
+     */
+    protected void afterApply() {
+    }
+
+    /**
+     * 전체 레코드 기록 (clear / checkpoint)
+     */
+    protected abstract void persistAll(Collection<V> live);
+
+    @Override
+    public V get(K key) {
+        BloomFilter filter = keyFilter;
+        if (filter != null && key != null && !filter.mightContain(key)) return null;
+        synchronized (this) {
+            return records.get(key);
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        BloomFilter filter = keyFilter;
+        if (filter != null && key != null && !filter.mightContain(key)) return false;
+        synchronized (this) {
+            return records.containsKey(key);
+        }
+    }
+
+    @Override
+    public synchronized List<V> values() {
+        return new ArrayList<>(records.values());
+    }
+
+    @Override
+    public synchronized int size() {
+        return records.size();
+    }
+
+    @Override
+    public synchronized void put(V value) {
+        apply(List.of(value), List.of());
+    }
+
+    @Override
+    public synchronized boolean remove(K key) {
+        if (!records.containsKey(key)) return false;
+        apply(List.of(), List.of(key));
+        return true;
+    }
+
+    @Override
+    public synchronized void apply(Collection<V> puts, Collection<K> deleteKeys) {
+        if (puts.isEmpty() && deleteKeys.isEmpty()) return;
+        for (Map.Entry<String, UniqueIndex<K, V>> e : indexes.entrySet()) {
+            e.getValue().checkAvailable(e.getKey(), puts, deleteKeys, keyExtractor);
+        }
+        persist(puts, deleteKeys); // 실패하면 여기서 예외 → 아래 메모리 반영은 일어나지 않음
+        for (V value : puts) {
+            K key = keyExtractor.apply(value);
+            records.put(key, value);
+            for (UniqueIndex<K, V> index : indexes.values()) index.put(key, value);
+            addToFilters(key, value);
+            for (ChangeListener<K, V> listener : listeners) listener.onPut(key, value);
+        }
+        for (K key : deleteKeys) {
+            if (records.remove(key) == null) continue;
+            for (UniqueIndex<K, V> index : indexes.values()) index.remove(key);
+            for (ChangeListener<K, V> listener : listeners) listener.onRemove(key);
+        }
+        afterApply();
+    }
+
+    /**
+     * 이번 변경을 반영했을 때의 전체 레코드 (저장 순서 유지) - 전체 스냅샷을 쓰는 persist용
+     */
+    protected final List<V> valuesAfter(Collection<V> puts, Collection<K> deleteKeys) {
+        Map<K, V> after = new LinkedHashMap<>(records);
+        for (V value : puts) after.put(keyExtractor.apply(value), value);
+        for (K key : deleteKeys) after.remove(key);
+        return new ArrayList<>(after.values());
+    }
+
+    @Override
+    public synchronized void clear() {
+        persistAll(List.of());
+        for (K key : records.keySet()) {
+            for (ChangeListener<K, V> listener : listeners) listener.onRemove(key);
+        }
+        records.clear();
+        for (UniqueIndex<K, V> index : indexes.values()) {
+            index.rebuild(records);
+        }
+        rebuildFilters(0);
+    }
+
+    @Override
+    public synchronized void addUniqueIndex(String name, Function<V, ?> indexKeyExtractor) {
+        indexes.computeIfAbsent(name, n -> {
+            UniqueIndex<K, V> index = new UniqueIndex<>(indexKeyExtractor);
+            index.rebuild(records);
+            if (keyFilter != null) {
+                index.filter = index.buildFilter(records.values(), keyFilter.expectedInsertions(), bloomFalsePositiveRate);
+            }
+            return index;
+        });
+    }
+
+    @Override
+    public V getByIndex(String name, Object indexKey) {
+        UniqueIndex<K, V> index;
+        synchronized (this) {
+            index = indexes.get(name);
+        }
+        if (index == null) throw new IllegalArgumentException("등록되지 않은 인덱스입니다: " + name);
+        BloomFilter filter = index.filter;
+        if (filter != null && indexKey != null && !filter.mightContain(indexKey)) return null;
+        synchronized (this) {
+            K key = index.keyOf.get(indexKey);
+            return (key != null) ? records.get(key) : null;
+        }
+    }
+
+    @Override
+    public synchronized void addListener(ChangeListener<K, V> listener) {
+        for (Map.Entry<K, V> e : records.entrySet()) {
+            listener.onPut(e.getKey(), e.getValue());
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void enableBloomFilter(int expectedRecords, double falsePositiveRate) {
+        if (expectedRecords <= 0) throw new IllegalArgumentException("expectedRecords <= 0");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate는 0과 1 사이여야 합니다: " + falsePositiveRate);
+        }
+        if (bloomFalsePositiveRate > 0) return; // 이미 켜져 있음 (공유 엔진을 여러 저장소가 여는 경우)
+        this.bloomFalsePositiveRate = falsePositiveRate;
+        rebuildFilters(expectedRecords);
+    }
+
+    // ---------- 블룸 필터 ----------
+
+    private void addToFilters(K key, V value) {
+        if (bloomFalsePositiveRate == 0) return;
+        if (++filterInsertions > keyFilter.expectedInsertions()) {
+            rebuildFilters(0); // 용량 초과 → 거짓 양성이 늘기 전에 현재 레코드 기준으로 다시 만듦
+            return;
+        }
+        keyFilter.add(key);
+        for (UniqueIndex<K, V> index : indexes.values()) {
+            index.addToFilter(value);
+        }
+    }
+
+    /**
+     * 현재 레코드로 필터를 새로 만들어 교체 (삭제된 키도 이때 정리됨)
+     */
+    private void rebuildFilters(int expectedRecords) {
+        if (bloomFalsePositiveRate == 0) return;
+        // 레코드 수의 두 배 용량으로 만들어 재구성 빈도를 낮춤
+        int capacity = Math.max(1024, Math.max(expectedRecords, records.size() * 2));
+        BloomFilter filter = new BloomFilter(capacity, bloomFalsePositiveRate);
+        for (K key : records.keySet()) {
+            filter.add(key);
+        }
+        // 다 채운 필터로 한 번에 교체 - 잠금 없이 읽는 getByIndex가 빈 필터를 보고 "없음"으로 답하지 않도록
+        for (UniqueIndex<K, V> index : indexes.values()) {
+            index.filter = index.buildFilter(records.values(), capacity, bloomFalsePositiveRate);
+        }
+        filterInsertions = records.size();
+        keyFilter = filter;
+    }
+
+    @Override
+    public synchronized void checkpoint() {
+        persistAll(records.values());
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 보조 키 → 기본 키 HashMap 인덱스
+     * - 기본 키별로 마지막에 인덱싱한 보조 키를 기억: 조회한 객체를 저장 전에 고쳐도(이메일 변경 등)
+     *   저장 시점에 이전 보조 키를 정확히 지울 수 있음
+     */
+    private static final class UniqueIndex<K, V> {
+        private final Function<V, ?> indexKeyExtractor;
+        private final Map<Object, K> keyOf = new HashMap<>();
+        private final Map<K, Object> indexedKey = new HashMap<>();
+        private volatile BloomFilter filter;
+
+        UniqueIndex(Function<V, ?> indexKeyExtractor) {
+            this.indexKeyExtractor = indexKeyExtractor;
+        }
+
+        void rebuild(Map<K, V> records) {
+            keyOf.clear();
+            indexedKey.clear();
+            for (Map.Entry<K, V> e : records.entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+        }
+
+        /**
+         * 배치를 반영하면 다른 레코드와 보조 키가 겹치는지 검사 (겹치면 IllegalArgumentException)
+         * - 같은 배치에서 삭제되거나 다른 보조 키로 바뀌는 레코드의 자리는 비는 것으로 봄
+         */
+        void checkAvailable(String name, Collection<V> puts, Collection<K> deleteKeys, Function<V, K> keyExtractor) {
+            Map<Object, K> claimed = (puts.size() > 1) ? new HashMap<>() : null;
+            Set<K> moving = null;
+            for (V value : puts) {
+                Object indexKey = indexKeyExtractor.apply(value);
+                if (indexKey == null) continue;
+                K key = keyExtractor.apply(value);
+                K other = (claimed != null) ? claimed.put(indexKey, key) : null;
+                if (other != null && !other.equals(key)) throw duplicate(name, indexKey);
+                K owner = keyOf.get(indexKey);
+                if (owner == null || owner.equals(key)) continue;
+                if (moving == null) {
+                    moving = new HashSet<>(deleteKeys);
+                    for (V put : puts) moving.add(keyExtractor.apply(put));
+                }
+                if (!moving.contains(owner)) throw duplicate(name, indexKey);
+            }
+        }
+
+        private static IllegalArgumentException duplicate(String name, Object indexKey) {
+            return new IllegalArgumentException("이미 사용 중인 " + name + " 값입니다: " + indexKey);
+        }
+
+        void put(K key, V value) {
+            remove(key);
+            Object indexKey = indexKeyExtractor.apply(value);
+            if (indexKey == null) return;
+            keyOf.put(indexKey, key);
+            indexedKey.put(key, indexKey);
+        }
+
+        void remove(K key) {
+            Object previous = indexedKey.remove(key);
+            if (previous != null && key.equals(keyOf.get(previous))) {
+                keyOf.remove(previous);
+            }
+        }
+
+        void addToFilter(V value) {
+            Object indexKey = indexKeyExtractor.apply(value);
+            if (filter != null && indexKey != null) filter.add(indexKey);
+        }
+
+        BloomFilter buildFilter(Collection<V> values, int capacity, double falsePositiveRate) {
+            BloomFilter built = new BloomFilter(capacity, falsePositiveRate);
+            for (V value : values) {
+                Object indexKey = indexKeyExtractor.apply(value);
+                if (indexKey != null) built.add(indexKey);
+            }
+            return built;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.shopping.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import com.shopping.model.Admin;
+import com.shopping.model.Cart;
+import com.shopping.model.CartItem;
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.model.Role;
+import com.shopping.model.User;
+
+/**
+ * 도메인 모델별 바이너리 코덱 모음
+ * - 모든 레코드는 코덱 버전(1바이트)으로 시작 → 이후 필드 추가 시 버전별로 읽기 분기
+ * - 정수는 varint, enum은 고정 사전(dictionary)의 인덱스, LocalDateTime은 epoch 초 + 나노초
+ * - enum 사전은 선언 순서와 무관하게 고정됨: 새 상수는 반드시 사전 끝에 추가할 것
+ */
+public final class ModelCodecs {
+
+    public static final int VERSION = 1;
+
+    // ---------- enum 사전 (순서 변경 금지, 추가만 허용) ----------
+    private static final EnumDictionary<ProductCategory> CATEGORIES = new EnumDictionary<>(ProductCategory.class,
+            List.of(ProductCategory.전자제품, ProductCategory.의류, ProductCategory.식품, ProductCategory.도서, ProductCategory.기타));
+    private static final EnumDictionary<OrderStatus> STATUSES = new EnumDictionary<>(OrderStatus.class,
+            List.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.SHIPPING, OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+    private static final EnumDictionary<Role> ROLES = new EnumDictionary<>(Role.class,
+            List.of(Role.USER, Role.ADMIN));
+
+    private static final int KIND_USER = 0;
+    private static final int KIND_ADMIN = 1;
+
+    private ModelCodecs() {
+    }
+
+    public static final BinaryCodec<Product> PRODUCT = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, Product value) throws IOException {
+            out.writeByte(VERSION);
+            writeProduct(out, value);
+        }
+
+        @Override
+        public Product read(DataInput in) throws IOException {
+            checkVersion(in);
+            return readProduct(in);
+        }
+    };
+
+    /** User와 Admin을 모두 다룸 (종류 태그로 구분) */
+    public static final BinaryCodec<User> USER = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, User value) throws IOException {
+            out.writeByte(VERSION);
+            writeUser(out, value);
+        }
+
+        @Override
+        public User read(DataInput in) throws IOException {
+            checkVersion(in);
+            return readUser(in);
+        }
+    };
+
+    public static final BinaryCodec<Admin> ADMIN = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, Admin value) throws IOException {
+            USER.write(out, value);
+        }
+
+        @Override
+        public Admin read(DataInput in) throws IOException {
+            User user = USER.read(in);
+            if (!(user instanceof Admin)) throw new IOException("관리자 레코드가 아닙니다: " + user.getId());
+            return (Admin) user;
+        }
+    };
+
+    public static final BinaryCodec<OrderItem> ORDER_ITEM = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, OrderItem value) throws IOException {
+            out.writeByte(VERSION);
+            writeOrderItem(out, value);
+        }
+
+        @Override
+        public OrderItem read(DataInput in) throws IOException {
+            checkVersion(in);
+            return readOrderItem(in);
+        }
+    };
+
+    public static final BinaryCodec<Order> ORDER = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, Order value) throws IOException {
+            out.writeByte(VERSION);
+            VarInts.writeString(out, value.getOrderId());
+            VarInts.writeString(out, value.getUserId());
+            List<OrderItem> items = value.getItems();
+            VarInts.writeUnsignedInt(out, items.size());
+            for (OrderItem item : items) {
+                writeOrderItem(out, item);
+            }
+            writeDateTime(out, value.getOrderDate());
+            STATUSES.write(out, value.getStatus());
+        }
+
+        @Override
+        public Order read(DataInput in) throws IOException {
+            checkVersion(in);
+            String orderId = VarInts.readString(in);
+            String userId = VarInts.readString(in);
+            int count = VarInts.readUnsignedInt(in);
+            List<OrderItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(readOrderItem(in));
+            }
+            LocalDateTime orderDate = readDateTime(in);
+            OrderStatus status = STATUSES.read(in);
+            return new Order(orderId, userId, items, orderDate, status);
+        }
+    };
+
+    public static final BinaryCodec<Cart> CART = new BinaryCodec<>() {
+        @Override
+        public void write(DataOutput out, Cart value) throws IOException {
+            out.writeByte(VERSION);
+            VarInts.writeString(out, value.getUserId());
+            VarInts.writeUnsignedInt(out, value.getItems().size());
+            for (CartItem item : value.getItems().values()) {
+                writeProduct(out, item.getProduct());
+                VarInts.writeSignedInt(out, item.getQuantity());
+            }
+        }
+
+        @Override
+        public Cart read(DataInput in) throws IOException {
+            checkVersion(in);
+            Cart cart = new Cart(VarInts.readString(in));
+            int count = VarInts.readUnsignedInt(in);
+            for (int i = 0; i < count; i++) {
+                Product product = readProduct(in);
+                cart.getItems().put(product.getId(), new CartItem(product, VarInts.readSignedInt(in)));
+            }
+            return cart;
+        }
+    };
+
+    /**
+     * 주문 상태의 사전 코드 (1부터, 한 바이트) - 상태 바이트만 제자리 갱신하는 저장소용
+     */
+    public static int statusCode(OrderStatus status) throws IOException {
+        return STATUSES.code(status);
+    }
+
+    public static OrderStatus statusOf(int code) throws IOException {
+        return STATUSES.entry(code);
+    }
+
+    // ---------- 필드 단위 인코딩 ----------
+
+    private static void writeProduct(DataOutput out, Product p) throws IOException {
+        VarInts.writeString(out, p.getId());
+        VarInts.writeString(out, p.getName());
+        CATEGORIES.write(out, p.getCategory());
+        out.writeDouble(p.getPrice());
+        VarInts.writeSignedInt(out, p.getStock());
+        VarInts.writeString(out, p.getDescription());
+        writeDateTime(out, p.getRegistrationDateTime());
+        VarInts.writeSignedInt(out, p.getSalesCount());
+    }
+
+    private static Product readProduct(DataInput in) throws IOException {
+        String id = VarInts.readString(in);
+        String name = VarInts.readString(in);
+        ProductCategory category = CATEGORIES.read(in);
+        double price = in.readDouble();
+        int stock = VarInts.readSignedInt(in);
+        String description = VarInts.readString(in);
+        Product p = new Product(id, name, category, price, stock, description);
+        p.setRegistrationDateTime(readDateTime(in));
+        p.setSalesCount(VarInts.readSignedInt(in));
+        return p;
+    }
+
+    private static void writeUser(DataOutput out, User u) throws IOException {
+        VarInts.writeUnsignedInt(out, (u instanceof Admin) ? KIND_ADMIN : KIND_USER);
+        VarInts.writeString(out, u.getId());
+        VarInts.writeString(out, u.getPassword());
+        VarInts.writeString(out, u.getEmail());
+        VarInts.writeString(out, u.getName());
+        ROLES.write(out, u.getRole());
+        out.writeDouble(u.getBalance());
+    }
+
+    private static User readUser(DataInput in) throws IOException {
+        int kind = VarInts.readUnsignedInt(in);
+        String id = VarInts.readString(in);
+        String password = VarInts.readString(in);
+        String email = VarInts.readString(in);
+        String name = VarInts.readString(in);
+        User u = (kind == KIND_ADMIN) ? new Admin(id, password, email, name) : new User(id, password, email, name);
+        u.setRole(ROLES.read(in));
+        u.setBalance(in.readDouble());
+        return u;
+    }
+
+    private static void writeOrderItem(DataOutput out, OrderItem item) throws IOException {
+        VarInts.writeString(out, item.getProductId());
+        VarInts.writeString(out, item.getProductName());
+        VarInts.writeSignedInt(out, item.getUnitPrice());
+        VarInts.writeSignedInt(out, item.getQuantity());
+    }
+
+    private static OrderItem readOrderItem(DataInput in) throws IOException {
+        String productId = VarInts.readString(in);
+        String productName = VarInts.readString(in);
+        int unitPrice = VarInts.readSignedInt(in);
+        int quantity = VarInts.readSignedInt(in);
+        return new OrderItem(productId, productName, unitPrice, quantity);
+    }
+
+    /** LocalDateTime: null 여부(1바이트) + epoch 초(zigzag varlong) + 나노초(varint) */
+    private static void writeDateTime(DataOutput out, LocalDateTime dt) throws IOException {
+        if (dt == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        VarInts.writeSignedLong(out, dt.toEpochSecond(ZoneOffset.UTC));
+        VarInts.writeUnsignedInt(out, dt.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) return null;
+        long epochSecond = VarInts.readSignedLong(in);
+        int nano = VarInts.readUnsignedInt(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static void checkVersion(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 코덱 버전입니다: " + version);
+        }
+    }
+
+    /**
+     * enum ↔ 사전 인덱스 변환 (0 = null, 1부터 사전 순서)
+     */
+    private static final class EnumDictionary<E extends Enum<E>> {
+        private final List<E> entries;
+        private final EnumMap<E, Integer> codes;
+
+        EnumDictionary(Class<E> type, List<E> entries) {
+            this.entries = List.copyOf(entries);
+            this.codes = new EnumMap<>(type);
+            for (int i = 0; i < this.entries.size(); i++) {
+                codes.put(this.entries.get(i), i + 1);
+            }
+        }
+
+        void write(DataOutput out, E value) throws IOException {
+            VarInts.writeUnsignedInt(out, code(value));
+        }
+
+        E read(DataInput in) throws IOException {
+            return entry(VarInts.readUnsignedInt(in));
+        }
+
+        int code(E value) throws IOException {
+            if (value == null) return 0;
+            Integer code = codes.get(value);
+            if (code == null) throw new IOException("사전에 없는 enum 값입니다: " + value);
+            return code;
+        }
+
+        E entry(int code) throws IOException {
+            if (code == 0) return null;
+            if (code < 0 || code > entries.size()) throw new IOException("알 수 없는 enum 코드: " + code);
+            return entries.get(code - 1);
+        }
+    }
+}
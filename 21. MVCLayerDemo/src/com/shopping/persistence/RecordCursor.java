@@ -0,0 +1,142 @@
+package com.shopping.persistence;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+
+/**
+ * 스냅샷 파일 레코드 커서
+ * - 레코드를 하나씩 읽어 필요할 때만 디코딩 (파일 전체를 메모리에 올리지 않음)
+ * - 중간에 멈춰도 되며, 끝까지 읽으면 스트림을 스스로 닫음 (그 전에 멈추면 close() 필요)
+ * - 체크섬 형식은 레코드마다 CRC를 검증하고, 마지막에 끝 표시의 레코드 수를 확인
+ * - 손상이 발견되면 UncheckedIOException (이미 반환된 레코드는 검증을 통과한 것)
+ */
+public final class RecordCursor<T> implements Iterator<T>, AutoCloseable {
+
+    static final int CHECKSUMMED = 0;   // [len][crc32c][record] ... [END][count]
+    static final int LEGACY_CODEC = 1;  // 레코드 수를 알고 있는 이전 코덱 형식
+    static final int ITERATOR = 2;      // 이전 자바 직렬화 목록 / 블록 압축 형식
+
+    private final DataInputStream in;
+    private final BinaryCodec<T> codec;
+    private final int mode;
+    private final Iterator<T> buffered;
+    private final AutoCloseable resource;  // ITERATOR 모드에서 함께 닫을 자원
+    private final CRC32C crc = new CRC32C();
+
+    private int remaining;   // LEGACY_CODEC: 남은 레코드 수
+    private int returned;    // 지금까지 읽은 레코드 수
+    private T next;
+    private boolean ready;   // next에 읽어 둔 레코드가 있음
+    private boolean done;
+
+    RecordCursor(DataInputStream in, BinaryCodec<T> codec, int mode, int remaining) {
+        this.in = in;
+        this.codec = codec;
+        this.mode = mode;
+        this.remaining = remaining;
+        this.buffered = null;
+        this.resource = null;
+    }
+
+    RecordCursor(Iterator<T> buffered) {
+        this(buffered, null);
+    }
+
+    RecordCursor(Iterator<T> buffered, AutoCloseable resource) {
+        this.in = null;
+        this.codec = null;
+        this.mode = ITERATOR;
+        this.buffered = buffered;
+        this.resource = resource;
+    }
+
+    /**
+     * 레코드가 없는 커서 (파일이 없을 때)
+     */
+    static <T> RecordCursor<T> empty() {
+        return new RecordCursor<>(Collections.<T>emptyIterator());
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready) return true;
+        if (done) return false;
+        try {
+            advance();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("스냅샷 레코드 읽기 실패 (레코드 " + returned + ")", e);
+        }
+        return ready;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        returned++;
+        T record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        try {
+            if (in != null) in.close();
+            if (resource != null) resource.close();
+        } catch (Exception ignored) {
+            // 닫기 실패는 무시
+        }
+    }
+
+    private void advance() throws IOException {
+        switch (mode) {
+            case CHECKSUMMED: {
+                int length = in.readInt();
+                if (length == SnapshotFile.END_MARKER) {
+                    int count = in.readInt();
+                    if (count != returned) {
+                        throw new IOException("레코드 수 불일치: " + count + " != " + returned);
+                    }
+                    close();
+                    return;
+                }
+                if (length < 0) throw new IOException("잘못된 블록 길이: " + length);
+                int expected = in.readInt();
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                crc.reset();
+                crc.update(bytes);
+                if ((int) crc.getValue() != expected) {
+                    throw new IOException("체크섬 불일치 (블록 " + returned + ")");
+                }
+                next = SnapshotFile.decodeRecord(bytes, codec);
+                ready = true;
+                return;
+            }
+            case LEGACY_CODEC:
+                if (remaining == 0) {
+                    close();
+                    return;
+                }
+                next = codec.read(in);
+                remaining--;
+                ready = true;
+                return;
+            default:
+                if (!buffered.hasNext()) {
+                    close();
+                    return;
+                }
+                next = buffered.next();
+                ready = true;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.shopping.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 키 해시로 레코드를 N개 조각(shard)에 나눠 담는 엔진
+ * - 조각마다 자기 파일과 잠금을 가진 엔진 하나 → 서로 다른 조각의 쓰기는 동시에 진행
+ *   (전체 스냅샷 엔진이면 쓰기 한 번에 다시 쓰는 양도 1/N)
+ * - 기본 키 조회/저장/삭제는 키가 속한 조각 하나만 사용
+ * - 유일 보조 인덱스(이메일 등)는 조각을 가로지르는 ConcurrentHashMap 하나로 관리 → 조회 시에도 조각 하나만 사용
+ * - 저장 전에 보조 키를 그 Map에 선점(putIfAbsent) → 다른 조각의 레코드가 쓰는 보조 키면 거부, 저장이 실패하면 선점을 되돌림
+ * - 기동 시 조각들을 동시에 읽음
+ *
+ * 주의
+ * - apply의 여러 건 반영은 조각 단위로만 한 번에 기록됨 (조각 사이에는 원자적이지 않음)
+ * - values()는 조각 순서로 이어 붙인 목록 (전체 저장 순서는 유지하지 않음)
+ * - 변경 알림은 각 조각의 잠금 안에서 호출되므로, 서로 다른 조각에서 동시에 올 수 있음
+ */
+public class ShardedStorageEngine<K, V> implements StorageEngine<K, V> {
+
+    private final Function<V, K> keyExtractor;
+    private final List<StorageEngine<K, V>> shards;
+    private final Map<String, ShardedIndex<K, V>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param shardFactory 조각 번호 → 조각 엔진 (조각들을 동시에 열므로 스레드 안전해야 함)
+     */
+    public ShardedStorageEngine(int shardCount, IntFunction<StorageEngine<K, V>> shardFactory,
+                                Function<V, K> keyExtractor) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shardCount <= 0");
+        this.keyExtractor = keyExtractor;
+        this.shards = openAll(shardCount, shardFactory);
+    }
+
+    private static <K, V> List<StorageEngine<K, V>> openAll(int shardCount,
+                                                           IntFunction<StorageEngine<K, V>> shardFactory) {
+        int threads = Math.min(shardCount, Runtime.getRuntime().availableProcessors());
+        ExecutorService loader = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "shard-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Callable<StorageEngine<K, V>>> tasks = new ArrayList<>(shardCount);
+            for (int i = 0; i < shardCount; i++) {
+                int shard = i;
+                tasks.add(() -> shardFactory.apply(shard));
+            }
+            List<StorageEngine<K, V>> opened = new ArrayList<>(shardCount);
+            for (Future<StorageEngine<K, V>> future : loader.invokeAll(tasks)) {
+                opened.add(future.get());
+            }
+            return opened;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("조각 로드가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("조각 로드 실패", cause);
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    private int shardIndex(K key) {
+        int h = (key == null) ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, shards.size());
+    }
+
+    private StorageEngine<K, V> shardOf(K key) {
+        return shards.get(shardIndex(key));
+    }
+
+    @Override
+    public V get(K key) {
+        return shardOf(key).get(key);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return shardOf(key).containsKey(key);
+    }
+
+    @Override
+    public List<V> values() {
+        List<V> all = new ArrayList<>();
+        for (StorageEngine<K, V> shard : shards) {
+            all.addAll(shard.values());
+        }
+        return all;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (StorageEngine<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void put(V value) {
+        List<Runnable> releases = claimIndexKeys(List.of(value), List.of());
+        try {
+            shardOf(keyExtractor.apply(value)).put(value);
+        } catch (RuntimeException e) {
+            releases.forEach(Runnable::run);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        return shardOf(key).remove(key);
+    }
+
+    @Override
+    public void apply(Collection<V> puts, Collection<K> deleteKeys) {
+        if (puts.isEmpty() && deleteKeys.isEmpty()) return;
+        List<List<V>> putsByShard = new ArrayList<>(shards.size());
+        List<List<K>> deletesByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            putsByShard.add(new ArrayList<>());
+            deletesByShard.add(new ArrayList<>());
+        }
+        for (V value : puts) {
+            putsByShard.get(shardIndex(keyExtractor.apply(value))).add(value);
+        }
+        for (K key : deleteKeys) {
+            deletesByShard.get(shardIndex(key)).add(key);
+        }
+        List<Runnable> releases = claimIndexKeys(puts, deleteKeys);
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                shards.get(i).apply(putsByShard.get(i), deletesByShard.get(i)); // 빈 조각은 엔진이 바로 반환
+            }
+        } catch (RuntimeException e) {
+            releases.forEach(Runnable::run); // 이미 반영된 조각의 보조 키는 그대로 둠
+            throw e;
+        }
+    }
+
+    /**
+     * 저장할 레코드의 보조 키를 모든 인덱스에 선점 (다른 레코드가 쓰고 있으면 IllegalArgumentException)
+     * - 같은 배치에서 삭제되거나 다시 저장되는 레코드의 보조 키는 비는 것으로 봄
+     * @return 새로 선점한 항목을 되돌리는 작업 (저장이 실패했을 때 실행)
+     */
+    private List<Runnable> claimIndexKeys(Collection<V> puts, Collection<K> deleteKeys) {
+        if (indexes.isEmpty() || puts.isEmpty()) return List.of();
+        Set<K> moving = new HashSet<>(deleteKeys);
+        for (V value : puts) moving.add(keyExtractor.apply(value));
+        List<Runnable> releases = new ArrayList<>();
+        try {
+            for (Map.Entry<String, ShardedIndex<K, V>> e : indexes.entrySet()) {
+                Map<Object, K> claimed = new HashMap<>();
+                for (V value : puts) {
+                    e.getValue().claim(e.getKey(), keyExtractor.apply(value), value, claimed, moving, releases);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            releases.forEach(Runnable::run);
+            throw e;
+        }
+        return releases;
+    }
+
+    @Override
+    public void clear() {
+        for (StorageEngine<K, V> shard : shards) {
+            shard.clear();
+        }
+    }
+
+    @Override
+    public void addUniqueIndex(String name, Function<V, ?> indexKeyExtractor) {
+        synchronized (indexes) {
+            if (indexes.containsKey(name)) return;
+            ShardedIndex<K, V> index = new ShardedIndex<>(indexKeyExtractor);
+            for (StorageEngine<K, V> shard : shards) {
+                shard.addListener(index); // 현재 레코드로 채운 뒤 이후 변경을 따라감
+            }
+            indexes.put(name, index);
+        }
+    }
+
+    @Override
+    public V getByIndex(String name, Object indexKey) {
+        ShardedIndex<K, V> index = indexes.get(name);
+        if (index == null) throw new IllegalArgumentException("등록되지 않은 인덱스입니다: " + name);
+        K key = (indexKey != null) ? index.keyOf.get(indexKey) : null;
+        if (key == null) return null;
+        V value = get(key);
+        // 인덱스 조회와 레코드 조회 사이에 보조 키가 바뀌었으면 없는 것으로 봄
+        return (value != null && indexKey.equals(index.indexKeyExtractor.apply(value))) ? value : null;
+    }
+
+    @Override
+    public void enableBloomFilter(int expectedRecords, double falsePositiveRate) {
+        int perShard = Math.max(1, (expectedRecords + shards.size() - 1) / shards.size());
+        for (StorageEngine<K, V> shard : shards) {
+            shard.enableBloomFilter(perShard, falsePositiveRate);
+        }
+    }
+
+    @Override
+    public void addListener(ChangeListener<K, V> listener) {
+        for (StorageEngine<K, V> shard : shards) {
+            shard.addListener(listener);
+        }
+    }
+
+    @Override
+    public void checkpoint() {
+        for (StorageEngine<K, V> shard : shards) {
+            shard.checkpoint();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (StorageEngine<K, V> shard : shards) {
+            shard.close();
+        }
+    }
+
+    /**
+     * 조각을 가로지르는 보조 키 → 기본 키 인덱스 (각 조각의 변경 알림으로 갱신)
+     * - 같은 기본 키는 항상 같은 조각(같은 잠금)에서 알림이 오므로 키별 갱신 순서는 보장됨
+     * - 다른 키끼리 같은 보조 키를 다툴 때는 조건부 삭제로 남의 항목을 지우지 않음 (저장 전 선점으로 거의 생기지 않음)
+     */
+    private static final class ShardedIndex<K, V> implements ChangeListener<K, V> {
+        private final Function<V, ?> indexKeyExtractor;
+        private final ConcurrentHashMap<Object, K> keyOf = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<K, Object> indexedKey = new ConcurrentHashMap<>();
+
+        ShardedIndex(Function<V, ?> indexKeyExtractor) {
+            this.indexKeyExtractor = indexKeyExtractor;
+        }
+
+        void claim(String name, K key, V value, Map<Object, K> claimed, Set<K> moving, List<Runnable> releases) {
+            Object indexKey = indexKeyExtractor.apply(value);
+            if (indexKey == null) return;
+            K other = claimed.put(indexKey, key);
+            if (other != null && !other.equals(key)) throw duplicate(name, indexKey);
+            K owner = keyOf.putIfAbsent(indexKey, key);
+            if (owner == null) {
+                // 저장에 실패했을 때만 실행: 그 사이 알림으로 이 키가 실제로 차지했으면 지우지 않음
+                releases.add(() -> {
+                    if (!indexKey.equals(indexedKey.get(key))) keyOf.remove(indexKey, key);
+                });
+            } else if (!owner.equals(key) && !moving.contains(owner)) {
+                throw duplicate(name, indexKey);
+            }
+        }
+
+        private static IllegalArgumentException duplicate(String name, Object indexKey) {
+            return new IllegalArgumentException("이미 사용 중인 " + name + " 값입니다: " + indexKey);
+        }
+
+        @Override
+        public void onPut(K key, V value) {
+            Object current = indexKeyExtractor.apply(value);
+            Object previous = (current != null) ? indexedKey.put(key, current) : indexedKey.remove(key);
+            if (previous != null && !previous.equals(current)) keyOf.remove(previous, key);
+            if (current != null) keyOf.put(current, key);
+        }
+
+        @Override
+        public void onRemove(K key) {
+            Object previous = indexedKey.remove(key);
+            if (previous != null) keyOf.remove(previous, key);
+        }
+    }
+}
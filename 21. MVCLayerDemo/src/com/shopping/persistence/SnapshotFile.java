@@ -0,0 +1,386 @@
+package com.shopping.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 체크섬이 붙은 스냅샷 파일 (모든 저장소 공통 형식)
+ *
+ * 형식: [magic(4)][version(1)][format(1)]
+ *       { [len(4)][crc32c(4)][record(len)] } * N
+ *       [END(-1)(4)][N(4)]
+ * - 레코드마다 길이와 CRC32C를 붙여 깨진 블록을 바로 찾아냄
+ * - 끝 표시(END + 레코드 수)가 없으면 쓰다 만 파일로 판단
+ *
+ * 블록 압축 형식(BlockCompressedFile)으로도 저장 가능하며, 읽을 때는 매직 넘버로 구분
+ *
+ * 쓰기: 임시 파일에 기록 + fsync → 기존 스냅샷을 .bak으로 보관 → 임시 파일을 원본으로 원자적 교체
+ * 읽기: 원본 검증 실패 시 .bak(마지막 정상 스냅샷)으로 복구, 둘 다 실패하면 예외 (빈 목록으로 덮어쓰지 않음)
+ *       손상된 원본은 .corrupt로 옮겨 둠
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x534D534E;               // "SMSN"
+    private static final int VERSION = 1;
+    private static final int LEGACY_CODEC_MAGIC = 0x534D4243;  // "SMBC": 체크섬 없는 이전 코덱 형식
+    static final int END_MARKER = -1;
+
+    private static final byte FORMAT_JAVA = 0;   // 레코드별 자바 직렬화
+    private static final byte FORMAT_CODEC = 1;  // 레코드별 BinaryCodec
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * 스냅샷 읽기 결과 (백업에서 복구했는지 여부 포함)
+     */
+    public static final class Recovered<T> {
+        private final List<T> records;
+        private final boolean fromBackup;
+
+        Recovered(List<T> records, boolean fromBackup) {
+            this.records = records;
+            this.fromBackup = fromBackup;
+        }
+
+        public List<T> getRecords() { return records; }
+        public boolean isFromBackup() { return fromBackup; }
+    }
+
+    /**
+     * 마지막 정상 스냅샷(.bak) 경로
+     */
+    public static File backupOf(File file) {
+        return new File(file.getPath() + ".bak");
+    }
+
+    /**
+     * 스냅샷을 원자적으로 저장 (기존 스냅샷은 .bak으로 보관)
+     */
+    public static <T> void write(File file, Collection<T> records, BinaryCodec<T> codec) throws IOException {
+        write(file, records, codec, null);
+    }
+
+    /**
+     * 스냅샷을 원자적으로 저장 - 쓰기 속도 제한 (백그라운드 압축용, throttle이 null이면 제한 없음)
+     */
+    public static <T> void write(File file, Collection<T> records, BinaryCodec<T> codec,
+                                 IoThrottle throttle) throws IOException {
+        replace(file, throttle, os -> {
+            DataOutputStream out = new DataOutputStream(os);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(codec != null ? FORMAT_CODEC : FORMAT_JAVA);
+            CRC32C crc = new CRC32C();
+            for (T record : records) {
+                byte[] bytes = encodeRecord(record, codec);
+                crc.reset();
+                crc.update(bytes);
+                out.writeInt(bytes.length);
+                out.writeInt((int) crc.getValue());
+                out.write(bytes);
+            }
+            out.writeInt(END_MARKER);
+            out.writeInt(records.size());
+            out.flush();
+        });
+    }
+
+    /**
+     * 스냅샷을 블록 압축 형식으로 원자적으로 저장 (기존 스냅샷은 .bak으로 보관)
+     */
+    public static <T> void writeCompressed(File file, Collection<T> records, BinaryCodec<T> codec,
+                                           int blockSize) throws IOException {
+        replace(file, null, os -> BlockCompressedFile.write(os, records, codec, blockSize));
+    }
+
+    /**
+     * 임시 파일에 기록 + fsync → 기존 파일을 .bak으로 보관 → 원본으로 교체
+     */
+    private static void replace(File file, IoThrottle throttle, SnapshotWriter writer) throws IOException {
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) parentDir.mkdirs();
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temp);
+             BufferedOutputStream out = new BufferedOutputStream(fos)) {
+            // 속도 제한 시 버퍼를 제한 스트림 위에 두어 바이트 단위가 아닌 묶음 단위로 허용을 받음
+            OutputStream target = (throttle != null) ? new BufferedOutputStream(throttle.wrap(out)) : out;
+            writer.writeTo(target);
+            target.flush();
+            fos.getFD().sync(); // 교체 전에 디스크까지 기록 보장
+        }
+
+        if (file.exists() && file.length() > 0) {
+            move(file, backupOf(file));
+        }
+        move(temp, file);
+    }
+
+    private interface SnapshotWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 스냅샷 읽기 + 검증, 실패 시 백업으로 복구
+     * - 원본이 없거나 비어 있으면 백업 확인, 백업도 없으면 빈 목록
+     * @throws IOException 원본/백업 모두 손상되어 복구할 수 없는 경우
+     */
+    public static <T> Recovered<T> read(File file, BinaryCodec<T> codec) throws IOException {
+        IOException failure = null;
+        if (file.exists() && file.length() > 0) {
+            try {
+                return new Recovered<>(readVerified(file, codec), false);
+            } catch (IOException e) {
+                failure = e;
+                System.err.println("[Snapshot] 스냅샷 검증 실패: " + file.getPath() + " (" + e.getMessage() + ")");
+            }
+        }
+
+        File backup = backupOf(file);
+        if (backup.exists()) {
+            try {
+                List<T> records = readVerified(backup, codec);
+                System.out.println("[Snapshot] 마지막 정상 스냅샷으로 복구: " + backup.getPath()
+                        + " (" + records.size() + "개 항목)");
+                if (failure != null) {
+                    // 손상된 원본은 격리 → 다음 저장 때 정상 백업을 덮어쓰지 않도록
+                    move(file, new File(file.getPath() + ".corrupt"));
+                }
+                return new Recovered<>(records, true);
+            } catch (IOException e) {
+                System.err.println("[Snapshot] 백업 스냅샷 검증 실패: " + backup.getPath() + " (" + e.getMessage() + ")");
+                if (failure == null) failure = e;
+            }
+        }
+
+        if (failure != null) {
+            throw new IOException("복구 가능한 스냅샷이 없습니다: " + file.getPath(), failure);
+        }
+        return new Recovered<>(new ArrayList<>(), false);
+    }
+
+    /**
+     * 스냅샷을 레코드 단위로 읽는 커서 열기 (검증은 읽어 나가면서 수행)
+     * - 원본이 없거나 비었거나 헤더가 깨졌으면 백업(.bak)으로, 둘 다 없으면 빈 커서
+     * - 원본을 읽는 도중 손상을 만나면 read()와 같이 백업을 사용
+     *   · 아직 레코드를 하나도 돌려주지 않았으면 백업으로 바꿔 계속 읽음
+     *   · 이미 돌려준 레코드가 있으면 두 파일을 섞을 수 없으므로, 손상된 원본을 .corrupt로 격리하고
+     *     UncheckedIOException → 호출자가 처음부터 다시 읽으면 백업을 읽게 됨
+     * @throws IOException 원본/백업 모두 헤더부터 읽을 수 없는 경우
+     */
+    public static <T> RecordCursor<T> openCursor(File file, BinaryCodec<T> codec) throws IOException {
+        IOException failure = null;
+        if (file.exists() && file.length() > 0) {
+            try {
+                RecordCursor<T> primary = openSingle(file, codec);
+                if (!backupOf(file).exists()) return primary;
+                BackupFallback<T> fallback = new BackupFallback<>(file, codec, primary);
+                return new RecordCursor<>(fallback, fallback);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        File backup = backupOf(file);
+        if (backup.exists()) {
+            return openSingle(backup, codec);
+        }
+        if (failure != null) throw failure;
+        return RecordCursor.empty();
+    }
+
+    // ---------- 레코드 인코딩 (WriteAheadLog와 공유) ----------
+
+    static <T> byte[] encodeRecord(T record, BinaryCodec<T> codec) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (codec != null) {
+            DataOutputStream dos = new DataOutputStream(bytes);
+            codec.write(dos, record);
+            dos.flush();
+        } else {
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T decodeRecord(byte[] bytes, BinaryCodec<T> codec) throws IOException {
+        // 자바 직렬화 스트림은 0xACED로 시작 → 그 외는 코덱 형식
+        boolean javaSerialized = bytes.length >= 2
+                && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED;
+        if (!javaSerialized) {
+            if (codec == null) throw new IOException("코덱 형식 레코드지만 코덱이 지정되지 않았습니다.");
+            return codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("클래스를 찾을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------- 내부 유틸 ----------
+
+    /**
+     * 파일 하나를 끝까지 읽으며 검증 (체크섬 형식 / 이전 코덱 형식 / 이전 자바 직렬화 형식)
+     */
+    private static <T> List<T> readVerified(File file, BinaryCodec<T> codec) throws IOException {
+        List<T> records = new ArrayList<>();
+        try (RecordCursor<T> cursor = openSingle(file, codec)) {
+            while (cursor.hasNext()) {
+                records.add(cursor.next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return records;
+    }
+
+    /**
+     * 파일 하나의 헤더를 확인하고 커서를 엶
+     */
+    private static <T> RecordCursor<T> openSingle(File file, BinaryCodec<T> codec) throws IOException {
+        if (file.length() == 0) throw new IOException("빈 스냅샷 파일");
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        int magic;
+        try {
+            magic = in.readInt();
+            if (magic == MAGIC) {
+                int version = in.readUnsignedByte();
+                if (version != VERSION) throw new IOException("지원하지 않는 스냅샷 버전입니다: " + version);
+                byte format = in.readByte();
+                if (format == FORMAT_CODEC && codec == null) throw new IOException("코덱 형식 스냅샷이지만 코덱이 지정되지 않았습니다.");
+                return new RecordCursor<>(in, codec, RecordCursor.CHECKSUMMED, -1);
+            }
+            if (magic == LEGACY_CODEC_MAGIC) {
+                if (codec == null) throw new IOException("코덱 형식 파일이지만 코덱이 지정되지 않았습니다.");
+                int version = in.readUnsignedByte();
+                if (version != 1) throw new IOException("지원하지 않는 파일 형식 버전입니다: " + version);
+                return new RecordCursor<>(in, codec, RecordCursor.LEGACY_CODEC, VarInts.readUnsignedInt(in));
+            }
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        in.close();
+        if (magic == BlockCompressedFile.MAGIC) {
+            BlockCompressedFile.Reader<T> reader = BlockCompressedFile.open(file, codec);
+            return new RecordCursor<>(reader.iterator(), reader);
+        }
+        List<T> records = readLegacyJava(file);
+        return new RecordCursor<>(records.iterator());
+    }
+
+    /**
+     * 체크섬 도입 이전의 자바 직렬화 파일 (List 또는 Map 전체를 한 번에 직렬화)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> readLegacyJava(File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Object obj = ois.readObject();
+            if (obj instanceof List) return new ArrayList<>((List<T>) obj);
+            if (obj instanceof Map) return new ArrayList<>(((Map<?, T>) obj).values());
+            throw new IOException("알 수 없는 스냅샷 내용: " + (obj == null ? "null" : obj.getClass().getName()));
+        } catch (ClassNotFoundException e) {
+            throw new IOException("클래스를 찾을 수 없습니다: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 원본 커서에서 손상을 만나면 백업으로 넘어가는 반복자 (openCursor 참고)
+     */
+    private static final class BackupFallback<T> implements Iterator<T>, AutoCloseable {
+        private final File file;
+        private final BinaryCodec<T> codec;
+        private RecordCursor<T> current;
+        private boolean onBackup;
+        private int returned;
+
+        BackupFallback(File file, BinaryCodec<T> codec, RecordCursor<T> primary) {
+            this.file = file;
+            this.codec = codec;
+            this.current = primary;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return current.hasNext();
+            } catch (UncheckedIOException e) {
+                if (onBackup) throw e;
+                current.close();
+                File backup = backupOf(file);
+                System.err.println("[Snapshot] 스트림 읽기 중 손상 발견: " + file.getPath() + " (" + e.getMessage() + ")");
+                quarantine();
+                if (returned > 0) {
+                    throw new UncheckedIOException("스냅샷 읽기 도중 손상 (레코드 " + returned
+                            + "개 반환 후), 원본을 격리했으니 다시 읽으면 백업을 사용합니다: " + file.getPath(), e.getCause());
+                }
+                try {
+                    current = openSingle(backup, codec);
+                } catch (IOException backupFailure) {
+                    throw new UncheckedIOException("백업 스냅샷도 읽을 수 없습니다: " + backup.getPath(), backupFailure);
+                }
+                onBackup = true;
+                System.out.println("[Snapshot] 마지막 정상 스냅샷으로 이어서 읽습니다: " + backup.getPath());
+                return current.hasNext();
+            }
+        }
+
+        @Override
+        public T next() {
+            T record = current.next();
+            returned++;
+            return record;
+        }
+
+        @Override
+        public void close() {
+            current.close();
+        }
+
+        // 손상된 원본은 격리 → 다음 읽기는 백업, 다음 저장 때 정상 백업을 덮어쓰지 않음 (read()와 동일)
+        private void quarantine() {
+            try {
+                move(file, new File(file.getPath() + ".corrupt"));
+            } catch (IOException moveFailure) {
+                System.err.println("[Snapshot] 손상된 스냅샷 격리 실패: " + file.getPath() + " (" + moveFailure.getMessage() + ")");
+            }
+        }
+    }
+
+    /**
+     * 원자적 파일 교체 (ATOMIC_MOVE를 지원하지 않는 파일 시스템이면 일반 교체)
+     */
+    public static void move(File from, File to) throws IOException {
+        try {
+            Files.move(from.toPath(), to.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
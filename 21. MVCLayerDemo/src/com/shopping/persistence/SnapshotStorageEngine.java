@@ -0,0 +1,41 @@
+package com.shopping.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 변경마다 전체 레코드를 스냅샷 파일로 다시 쓰는 엔진 (FileManager.readFromFile / SnapshotFile.write)
+ * - 파일 형식은 기존 그대로 (체크섬 스냅샷, 이전 코덱/자바 직렬화 파일도 읽음)
+ * - 쓰기 비용이 전체 레코드 수에 비례하므로 레코드가 적고 변경이 드문 데이터에 적합
+ * - 조회는 메모리에서 하므로 기록 실패는 UncheckedIOException으로 알림 (메모리와 디스크가 조용히 어긋나지 않도록)
+ */
+public class SnapshotStorageEngine<K, V> extends MapStorageEngine<K, V> {
+
+    private final String fileName;
+    private final BinaryCodec<V> codec; // null이면 자바 직렬화
+
+    public SnapshotStorageEngine(String fileName, Function<V, K> keyExtractor, BinaryCodec<V> codec) {
+        super(keyExtractor);
+        this.fileName = fileName;
+        this.codec = codec;
+        load(FileManager.readFromFile(fileName, codec));
+    }
+
+    @Override
+    protected void persist(Collection<V> puts, Collection<K> deleteKeys) {
+        persistAll(valuesAfter(puts, deleteKeys));
+    }
+
+    @Override
+    protected void persistAll(Collection<V> live) {
+        File file = new File(FileManager.normalizePath(fileName));
+        try {
+            SnapshotFile.write(file, live, codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 기록 실패: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shopping.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 저장소(Repository)가 사용하는 저장 엔진 SPI
+ * - 레코드는 키로 식별하고, 키는 엔진 생성 시 지정한 추출 함수로 레코드에서 얻음
+ * - 모든 엔진은 살아있는 레코드를 메모리에 들고 조회하며, 엔진마다 변경을 디스크에 남기는 방식만 다름
+ *
+ * 구현체
+ * - InMemoryStorageEngine      : 디스크에 쓰지 않음 (부하 테스트 / 단위 테스트용)
+ * - SnapshotStorageEngine      : 변경마다 전체 레코드를 스냅샷 파일로 다시 씀 (기존 FileManager 방식)
+ * - LogStructuredStorageEngine : 변경을 로그에 덧붙이고 백그라운드에서 압축 (WriteAheadLog)
+ * - DeltaStorageEngine         : 바뀐 레코드만 델타 파일에 쓰고 일정량이 쌓이면 전체 병합
+ * 엔진 선택은 StorageEngines 참고
+ */
+public interface StorageEngine<K, V> extends AutoCloseable {
+
+    // 키로 레코드 조회 (없으면 null)
+    V get(K key);
+
+    boolean containsKey(K key);
+
+    // 살아있는 레코드 전체 (복사본, 저장 순서 유지)
+    List<V> values();
+
+    int size();
+
+    // 레코드 저장 (같은 키가 있으면 교체, 다른 레코드가 쓰는 유일 보조 키면 IllegalArgumentException)
+    void put(V value);
+
+    // 레코드 삭제, 없던 키면 false
+    boolean remove(K key);
+
+    // 여러 건의 저장/삭제를 한 번에 반영 (엔진이 지원하면 한 번의 쓰기로 기록)
+    void apply(Collection<V> puts, Collection<K> deleteKeys);
+
+    // 전체 삭제
+    void clear();
+
+    // 유일 보조 인덱스 등록 (예: 이메일 → 사용자, 저장/apply 시 중복 거부), 같은 이름으로 다시 등록하면 기존 인덱스를 그대로 사용
+    void addUniqueIndex(String name, Function<V, ?> indexKeyExtractor);
+
+    // 보조 인덱스로 조회 (없으면 null) - 마지막으로 저장된 값 기준
+    V getByIndex(String name, Object indexKey);
+
+    // 기본 키와 보조 인덱스 앞에 블룸 필터를 둠: 없는 키 조회는 엔진 잠금 없이 바로 false/null
+    void enableBloomFilter(int expectedRecords, double falsePositiveRate);
+
+    // 변경 알림 등록 - 등록 시 현재 레코드를 onPut으로 한 번씩 전달한 뒤 이후 변경을 알림
+    void addListener(ChangeListener<K, V> listener);
+
+    // 쌓인 증분(로그/델타)을 전체 스냅샷으로 정리 (해당 없는 엔진은 아무것도 하지 않음)
+    void checkpoint();
+
+    // 열린 파일 정리 (닫은 뒤에도 다시 쓰면 필요한 파일을 다시 엶)
+    @Override
+    void close();
+
+    /**
+     * 레코드 변경 알림 (엔진 잠금 안에서 호출되므로 짧게 처리하고, 다른 엔진 잠금을 잡지 않음)
+     */
+    interface ChangeListener<K, V> {
+        void onPut(K key, V value);
+
+        void onRemove(K key);
+    }
+}
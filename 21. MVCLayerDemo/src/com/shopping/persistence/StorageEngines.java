@@ -0,0 +1,211 @@
+package com.shopping.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 저장 엔진 선택 + 파일별 공유
+ *
+ * 설정 (시스템 프로퍼티, 저장소별 설정이 우선)
+ * - -Dshopping.storage.engine=memory          : 모든 저장소를 메모리 엔진으로 (부하 테스트)
+ * - -Dshopping.storage.engine.users=log       : 사용자 저장소(users.dat)만 로그 엔진으로
+ * - 값: memory / snapshot / log / delta, 지정하지 않으면 저장소마다 정한 기본 엔진
+ * - -Dshopping.storage.shards.users=8         : 사용자 저장소를 8개 조각 파일로 나눔 (ShardedStorageEngine)
+ *   조각 파일은 users.dat.0-of-8 형식, 단일 파일(users.dat)만 있으면 처음 열 때 조각으로 옮기고 users.dat.migrated로 보관
+ *   조각 수를 바꾸면 이전 조각 파일은 읽지 않으므로, 단일 파일로 되돌린 뒤 바꿔야 함
+ *   (다른 조각 수의 파일이나 .migrated만 남아 있으면 빈 저장소로 열지 않고 IllegalStateException)
+ *
+ * 같은 파일을 여러 저장소 인스턴스가 열면(UserService, AdminService 등) 엔진 하나를 공유해야
+ * 메모리 상태가 서로 어긋나지 않으므로 shared()로 얻음
+ */
+public final class StorageEngines {
+
+    public static final String ENGINE_PROPERTY = "shopping.storage.engine";
+    public static final String SHARDS_PROPERTY = "shopping.storage.shards";
+
+    public enum Type {
+        MEMORY, SNAPSHOT, LOG, DELTA;
+
+        static Type parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("알 수 없는 저장 엔진입니다: " + value
+                        + " (memory / snapshot / log / delta)");
+            }
+        }
+    }
+
+    private static final Map<String, StorageEngine<String, ?>> shared = new HashMap<>();
+
+    private StorageEngines() {
+    }
+
+    /**
+     * 설정된 엔진 종류 (저장소별 설정 → 전체 설정 → 기본값 순)
+     * @param store 저장소 이름 (파일 이름에서 확장자를 뺀 것, 예: users)
+     */
+    public static Type configuredType(String store, Type defaultType) {
+        String value = System.getProperty(ENGINE_PROPERTY + "." + store, System.getProperty(ENGINE_PROPERTY));
+        return (value == null || value.isBlank()) ? defaultType : Type.parse(value);
+    }
+
+    /**
+     * 설정된 조각 수 (저장소별 설정 → 전체 설정 → 기본값 순)
+     */
+    public static int configuredShards(String store, int defaultShards) {
+        String value = System.getProperty(SHARDS_PROPERTY + "." + store, System.getProperty(SHARDS_PROPERTY));
+        if (value == null || value.isBlank()) return defaultShards;
+        try {
+            int shards = Integer.parseInt(value.trim());
+            if (shards > 0) return shards;
+        } catch (NumberFormatException ignored) {
+            // 아래에서 예외
+        }
+        throw new IllegalArgumentException("조각 수는 1 이상의 정수여야 합니다: " + value);
+    }
+
+    /**
+     * 설정에 따라 새 엔진 생성 (공유하지 않음)
+     * @param fileName 데이터 파일 (경로가 없으면 data 디렉토리 기준)
+     */
+    public static <V> StorageEngine<String, V> create(String fileName, Type defaultType,
+                                                      Function<V, String> keyExtractor, BinaryCodec<V> codec) {
+        Type type = configuredType(storeName(fileName), defaultType);
+        switch (type) {
+            case MEMORY:
+                return new InMemoryStorageEngine<>(keyExtractor);
+            case SNAPSHOT:
+                return new SnapshotStorageEngine<>(fileName, keyExtractor, codec);
+            case LOG:
+                return new LogStructuredStorageEngine<>(fileName, keyExtractor, codec);
+            case DELTA:
+                return new DeltaStorageEngine<>(new File(FileManager.normalizePath(fileName)), keyExtractor, codec,
+                        DeltaStorageEngine.DEFAULT_MERGE_THRESHOLD, false);
+            default:
+                throw new IllegalStateException("지원하지 않는 저장 엔진: " + type);
+        }
+    }
+
+    /**
+     * 파일별로 하나만 만들어 공유하는 엔진 (처음 연 저장소의 코덱/기본 엔진으로 생성)
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <V> StorageEngine<String, V> shared(String fileName, Type defaultType,
+                                                                   Function<V, String> keyExtractor,
+                                                                   BinaryCodec<V> codec) {
+        String key = new File(FileManager.normalizePath(fileName)).getAbsolutePath();
+        StorageEngine<String, ?> engine = shared.get(key);
+        if (engine == null) {
+            engine = create(fileName, defaultType, keyExtractor, codec);
+            shared.put(key, engine);
+        }
+        return (StorageEngine<String, V>) engine;
+    }
+
+    /**
+     * 조각 수 설정을 따르는 공유 엔진 - 조각 수가 1이면 shared()와 같음
+     * - 조각마다 설정된 종류의 엔진을 따로 열어 ShardedStorageEngine으로 묶음
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <V> StorageEngine<String, V> shared(String fileName, Type defaultType, int defaultShards,
+                                                                   Function<V, String> keyExtractor,
+                                                                   BinaryCodec<V> codec) {
+        int shardCount = configuredShards(storeName(fileName), defaultShards);
+        String key = new File(FileManager.normalizePath(fileName)).getAbsolutePath();
+        StorageEngine<String, ?> engine = shared.get(key);
+        if (engine != null) return (StorageEngine<String, V>) engine;
+
+        if (configuredType(storeName(fileName), defaultType) != Type.MEMORY) {
+            checkShardLayout(fileName, shardCount);
+        }
+        if (shardCount <= 1) return shared(fileName, defaultType, keyExtractor, codec);
+
+        ShardedStorageEngine<String, V> sharded = new ShardedStorageEngine<>(shardCount,
+                i -> create(shardFileName(fileName, i, shardCount), defaultType, keyExtractor, codec),
+                keyExtractor);
+        if (sharded.size() == 0) {
+            migrateToShards(fileName, defaultType, keyExtractor, codec, sharded);
+        }
+        shared.put(key, sharded);
+        return sharded;
+    }
+
+    /**
+     * 조각 파일 이름 (data/users.dat → data/users.dat.3-of-8)
+     */
+    public static String shardFileName(String fileName, int shard, int shardCount) {
+        return fileName + "." + shard + "-of-" + shardCount;
+    }
+
+    /**
+     * 디스크의 파일 배치가 설정된 조각 수와 맞는지 확인 - 맞지 않으면 빈 저장소로 열지 않고 예외
+     * - 다른 조각 수의 조각 파일이 있음: 조각 수를 바꾼 것 (이전 조각 파일은 읽지 않음)
+     * - 지금 조각 수의 파일은 없고 .migrated만 있음: 조각으로 옮긴 뒤 조각 파일을 지웠거나 단일 파일로 되돌린 것
+     */
+    private static void checkShardLayout(String fileName, int shardCount) {
+        File legacy = new File(FileManager.normalizePath(fileName));
+        String[] names = legacy.getAbsoluteFile().getParentFile().list();
+        if (names == null) return;
+
+        Pattern shardFile = Pattern.compile(Pattern.quote(legacy.getName()) + "\\.\\d+-of-(\\d+)(\\..*)?");
+        boolean current = shardCount <= 1 && (legacy.exists() || new File(legacy.getPath() + ".log").exists()
+                || new File(legacy.getPath() + ".delta").exists());
+        for (String name : names) {
+            Matcher matcher = shardFile.matcher(name);
+            if (!matcher.matches()) continue;
+            int found = Integer.parseInt(matcher.group(1));
+            if (found != shardCount) {
+                throw new IllegalStateException("조각 수가 맞지 않습니다: " + legacy.getPath() + "는 " + found
+                        + "개 조각으로 저장되어 있는데 " + shardCount + "개로 열려고 합니다 (-D" + SHARDS_PROPERTY + "."
+                        + storeName(fileName) + "=" + found + "로 열거나 단일 파일로 되돌린 뒤 바꾸세요)");
+            }
+            current = true;
+        }
+        if (!current && new File(legacy.getPath() + ".migrated").exists()) {
+            throw new IllegalStateException("조각으로 옮긴 저장소의 조각 파일이 없습니다: " + legacy.getPath()
+                    + ".migrated만 남아 있음 (조각 파일을 되살리거나 .migrated를 원래 이름으로 되돌리세요)");
+        }
+    }
+
+    /**
+     * 단일 파일 저장소를 조각으로 옮김 - 옮긴 뒤 원본 스냅샷은 .migrated로 보관 (다음 기동 때 다시 옮기지 않도록)
+     */
+    private static <V> void migrateToShards(String fileName, Type defaultType, Function<V, String> keyExtractor,
+                                            BinaryCodec<V> codec, StorageEngine<String, V> sharded) {
+        File legacy = new File(FileManager.normalizePath(fileName));
+        if (!legacy.exists() && !new File(legacy.getPath() + ".log").exists()) return;
+        if (configuredType(storeName(fileName), defaultType) == Type.MEMORY) return;
+
+        StorageEngine<String, V> single = create(fileName, defaultType, keyExtractor, codec);
+        List<V> records = single.values();
+        single.checkpoint(); // 로그/델타를 스냅샷으로 접어 넣은 뒤 보관
+        single.close();
+        if (!records.isEmpty()) {
+            sharded.apply(records, List.of());
+        }
+        try {
+            if (legacy.exists()) SnapshotFile.move(legacy, new File(legacy.getPath() + ".migrated"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("단일 파일 보관 실패: " + legacy, e);
+        }
+        System.out.println("[Storage] " + legacy.getPath() + " → 조각 파일로 이전 (" + records.size() + "건)");
+    }
+
+    /**
+     * 파일 이름에서 저장소 이름 추출 (data/users.dat → users)
+     */
+    public static String storeName(String fileName) {
+        String name = new File(fileName).getName();
+        int dot = name.indexOf('.');
+        return (dot > 0) ? name.substring(0, dot) : name;
+    }
+}
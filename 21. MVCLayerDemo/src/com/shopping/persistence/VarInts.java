@@ -0,0 +1,92 @@
+package com.shopping.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 가변 길이 정수(varint) 및 문자열 인코딩 유틸리티
+ * - 7비트씩 끊어 기록, 최상위 비트는 "다음 바이트 있음" 표시
+ * - 부호 있는 값은 zigzag 변환 후 기록 (작은 음수도 1~2바이트)
+ */
+public final class VarInts {
+
+    private VarInts() {
+    }
+
+    public static void writeUnsignedInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readUnsignedInt(DataInput in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("varint가 너무 깁니다.");
+    }
+
+    public static void writeUnsignedLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readUnsignedLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("varlong이 너무 깁니다.");
+    }
+
+    public static void writeSignedInt(DataOutput out, int value) throws IOException {
+        writeUnsignedInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int readSignedInt(DataInput in) throws IOException {
+        int raw = readUnsignedInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public static void writeSignedLong(DataOutput out, long value) throws IOException {
+        writeUnsignedLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    public static long readSignedLong(DataInput in) throws IOException {
+        long raw = readUnsignedLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * null 허용 문자열: 길이+1을 varint로 기록 (0이면 null), 이후 UTF-8 바이트
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeUnsignedInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int lengthPlusOne = readUnsignedInt(in);
+        if (lengthPlusOne == 0) return null;
+        byte[] bytes = new byte[lengthPlusOne - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,427 @@
+package com.shopping.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * 추가 전용(append-only) 로그 기반 저장 모드 (Write-Ahead Log)
+ * - save/delete 시 리스트 전체를 다시 쓰지 않고, 변경된 레코드 하나만 로그 끝에 덧붙임
+ * - 로그가 일정 건수 이상 쌓이면 체크포인트: 현재 상태 전체를 스냅샷(SnapshotFile)으로 저장 후 로그 교체
+ * - LogCompactor를 지정하면 체크포인트 대신 활성 로그를 세그먼트로 봉인하고 압축은 백그라운드에서 수행
+ * - 기동 시: 스냅샷 로드 → 로그 재생(replay) 순서로 복구
+ *
+ * 로그 파일 형식: [magic(4)][version(1)] + 레코드...
+ * 로그 레코드 형식: [op(1)][keyLen(2)][key(UTF-8)][payloadLen(4)][crc32c(4)][payload]
+ * - payload는 BinaryCodec이 지정되면 코덱 형식, 아니면 자바 직렬화 형식 (읽을 때는 둘 다 인식)
+ * - CRC는 op + key + payload에 대해 계산 → 어긋나는 레코드부터 꼬리로 보고 버림
+ * - 마지막 레코드가 중간에 잘린 경우(쓰기 도중 종료) 해당 꼬리는 버리고 잘라냄
+ *
+ * 로그 파일 구성 (예: products.dat)
+ * - products.dat.log           : 활성 로그 (쓰기는 항상 여기에 덧붙음)
+ * - products.dat.log.<n>       : 봉인된 세그먼트 (압축 대기)
+ * - products.dat.log.<n>.prev  : 직전 압축에 반영된 세그먼트 (스냅샷이 손상되어 .bak으로 복구할 때 필요)
+ * 복구 시 남아 있는 세그먼트를 번호 순으로 모두 재생 → 활성 로그 재생
+ * (스냅샷은 항상 남아 있는 세그먼트 구간 안의 한 시점이므로, 이미 반영된 구간을 다시 재생해도 결과가 같음)
+ */
+public class WriteAheadLog<T> {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    private static final int LOG_MAGIC = 0x53574C47;  // "SWLG"
+    private static final int LOG_VERSION = 1;
+    private static final int LOG_HEADER_SIZE = 5;
+
+    // 이 건수만큼 로그가 쌓이면 스냅샷으로 접어 넣음
+    public static final int DEFAULT_CHECKPOINT_THRESHOLD = 1000;
+
+    private final String snapshotFileName;       // 예: products.dat
+    private final File snapshotFile;             // 예: data/products.dat
+    private final File logFile;                  // 예: data/products.dat.log
+    private final File previousLogFile;          // 이전 형식의 직전 로그 (data/products.dat.log.prev)
+    private final Function<T, String> keyExtractor;
+    private final BinaryCodec<T> codec;          // null이면 자바 직렬화
+    private final int checkpointThreshold;
+    private final LogCompactor compactor;        // null이면 호출자가 직접 체크포인트
+    private final Object compactionLock = new Object(); // 스냅샷/세그먼트 교체는 한 번에 하나씩
+
+    private DataOutputStream out;
+    private int entriesSinceCheckpoint;          // 활성 로그의 레코드 수
+    private long nextSegment = -1;               // 다음 봉인 세그먼트 번호
+
+    public WriteAheadLog(String snapshotFileName, Function<T, String> keyExtractor) {
+        this(snapshotFileName, keyExtractor, null, DEFAULT_CHECKPOINT_THRESHOLD);
+    }
+
+    public WriteAheadLog(String snapshotFileName, Function<T, String> keyExtractor, int checkpointThreshold) {
+        this(snapshotFileName, keyExtractor, null, checkpointThreshold);
+    }
+
+    public WriteAheadLog(String snapshotFileName, Function<T, String> keyExtractor, BinaryCodec<T> codec) {
+        this(snapshotFileName, keyExtractor, codec, DEFAULT_CHECKPOINT_THRESHOLD);
+    }
+
+    public WriteAheadLog(String snapshotFileName, Function<T, String> keyExtractor,
+                         BinaryCodec<T> codec, int checkpointThreshold) {
+        this(snapshotFileName, keyExtractor, codec, checkpointThreshold, null);
+    }
+
+    /**
+     * 백그라운드 압축 모드: 활성 로그가 checkpointThreshold건에 도달하면 세그먼트로 봉인하고 compactor에 압축 요청
+     */
+    public WriteAheadLog(String snapshotFileName, Function<T, String> keyExtractor,
+                         BinaryCodec<T> codec, int checkpointThreshold, LogCompactor compactor) {
+        if (checkpointThreshold <= 0) throw new IllegalArgumentException("checkpointThreshold <= 0");
+        this.snapshotFileName = snapshotFileName;
+        this.snapshotFile = new File(FileManager.normalizePath(snapshotFileName));
+        this.logFile = new File(snapshotFile.getPath() + ".log");
+        this.previousLogFile = new File(logFile.getPath() + ".prev");
+        this.keyExtractor = keyExtractor;
+        this.codec = codec;
+        this.checkpointThreshold = checkpointThreshold;
+        this.compactor = compactor;
+    }
+
+    /**
+     * 스냅샷 + 세그먼트 + 활성 로그를 읽어 현재 상태를 복구
+     * - 스냅샷이 손상되어 직전 스냅샷(.bak)으로 복구했거나 체크섬 도입 이전 형식의 로그였다면
+     *   바로 체크포인트해서 새 스냅샷으로 확정
+     * @return key → 레코드 (스냅샷 순서 유지)
+     * @throws UncheckedIOException 스냅샷과 백업이 모두 손상된 경우
+     */
+    public synchronized Map<String, T> recover() {
+        SnapshotFile.Recovered<T> snapshot;
+        try {
+            snapshot = SnapshotFile.read(snapshotFile, codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 복구 실패: " + snapshotFileName, e);
+        }
+
+        Map<String, T> state = new LinkedHashMap<>();
+        for (T record : snapshot.getRecords()) {
+            state.put(keyExtractor.apply(record), record);
+        }
+        boolean legacyLog = isLegacyLog(logFile) || isLegacyLog(previousLogFile);
+        int applied = replay(previousLogFile, state);
+        List<Segment> segments = listSegments();
+        for (Segment segment : segments) {
+            applied += replay(segment.file, state);
+        }
+        entriesSinceCheckpoint = replay(logFile, state);
+        applied += entriesSinceCheckpoint;
+        System.out.println("로그 재생 완료: " + logFile.getPath() + " (" + applied + "건)");
+
+        if (legacyLog || snapshot.isFromBackup()) {
+            checkpoint(state.values()); // 복구 결과를 새 스냅샷으로 확정
+        } else if (compactor != null && segments.stream().anyMatch(s -> !s.compacted)) {
+            compactor.request(this); // 지난 실행에서 끝내지 못한 압축
+        }
+        return state;
+    }
+
+    /**
+     * 레코드 저장(신규/수정)을 로그에 기록
+     */
+    public synchronized void appendPut(T record) {
+        appendBatch(List.of(record), List.of());
+    }
+
+    /**
+     * 레코드 삭제를 로그에 기록
+     */
+    public synchronized void appendDelete(String key) {
+        appendBatch(List.of(), List.of(key));
+    }
+
+    /**
+     * 여러 건의 저장/삭제를 한 번의 flush로 기록 (group commit)
+     */
+    public synchronized void appendBatch(Collection<T> puts, Collection<String> deleteKeys) {
+        try {
+            DataOutputStream os = stream();
+            for (T record : puts) {
+                writeRecord(os, OP_PUT, keyExtractor.apply(record), SnapshotFile.encodeRecord(record, codec));
+            }
+            for (String key : deleteKeys) {
+                writeRecord(os, OP_DELETE, key, new byte[0]);
+            }
+            os.flush();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("로그 기록 실패: " + logFile, e);
+        }
+        if (compactor != null && entriesSinceCheckpoint >= checkpointThreshold) {
+            sealActiveLog();
+            compactor.request(this);
+        }
+    }
+
+    /**
+     * 체크포인트가 필요한 만큼 로그가 쌓였는지 여부
+     */
+    public synchronized boolean needsCheckpoint() {
+        return entriesSinceCheckpoint >= checkpointThreshold;
+    }
+
+    /**
+     * 현재 살아있는 레코드 전체를 스냅샷으로 저장하고 로그를 교체
+     * - 스냅샷 저장 후 로그를 교체하기 전에 종료되더라도, 재생은 멱등이므로 결과가 같음
+     * - 지금까지의 로그는 .prev 세그먼트로 보관 (직전 스냅샷 + 이 로그 = 새 스냅샷)
+     */
+    public synchronized void checkpoint(Collection<T> liveRecords) {
+        synchronized (compactionLock) {
+            sealActiveLog();
+            List<Segment> segments = listSegments();
+            try {
+                SnapshotFile.write(snapshotFile, new ArrayList<>(liveRecords), codec);
+                retire(segments);
+            } catch (IOException e) {
+                throw new UncheckedIOException("체크포인트 실패: " + snapshotFileName, e);
+            }
+        }
+    }
+
+    /**
+     * 봉인된 세그먼트를 스냅샷으로 압축 (LogCompactor 스레드에서 호출)
+     * - 쓰기 잠금을 잡지 않으므로 압축 중에도 활성 로그에 계속 기록 가능
+     * - 디스크에 있는 스냅샷과 세그먼트만으로 새 스냅샷을 만들고, 원자적 교체 후 세그먼트를 .prev로 전환
+     */
+    public void compact(IoThrottle throttle) {
+        synchronized (compactionLock) {
+            List<Segment> segments = listSegments();
+            if (segments.stream().allMatch(s -> s.compacted)) return;
+            try {
+                throttle.acquire(snapshotFile.length());
+                Map<String, T> state = new LinkedHashMap<>();
+                for (T record : SnapshotFile.read(snapshotFile, codec).getRecords()) {
+                    state.put(keyExtractor.apply(record), record);
+                }
+                replay(previousLogFile, state);
+                for (Segment segment : segments) {
+                    throttle.acquire(segment.file.length());
+                    replay(segment.file, state);
+                }
+                SnapshotFile.write(snapshotFile, state.values(), codec, throttle);
+                retire(segments);
+            } catch (IOException e) {
+                throw new UncheckedIOException("로그 압축 실패: " + snapshotFileName, e);
+            }
+        }
+    }
+
+    /**
+     * 로그 출력 스트림 닫기
+     */
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    // ---------- 내부 유틸 ----------
+
+    /**
+     * 활성 로그를 번호 붙은 세그먼트로 봉인 (이후 기록은 새 활성 로그로)
+     */
+    private synchronized void sealActiveLog() {
+        closeQuietly();
+        entriesSinceCheckpoint = 0;
+        if (!logFile.exists()) return;
+        if (logFile.length() <= LOG_HEADER_SIZE) {
+            logFile.delete();
+            return;
+        }
+        if (nextSegment < 0) {
+            nextSegment = listSegments().stream().mapToLong(s -> s.number + 1).max().orElse(0);
+        }
+        try {
+            SnapshotFile.move(logFile, new File(logFile.getPath() + "." + nextSegment++));
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 세그먼트 봉인 실패: " + logFile, e);
+        }
+    }
+
+    /**
+     * 새 스냅샷에 반영된 세그먼트 정리
+     * - 이전 .prev 세그먼트는 삭제 (직전 스냅샷 .bak보다 오래됨)
+     * - 이번에 반영된 세그먼트는 .prev로 전환 (.bak + .prev = 현재 스냅샷)
+     */
+    private void retire(List<Segment> segments) throws IOException {
+        previousLogFile.delete();
+        for (Segment segment : segments) {
+            if (segment.compacted) segment.file.delete();
+        }
+        for (Segment segment : segments) {
+            if (!segment.compacted) SnapshotFile.move(segment.file, new File(segment.file.getPath() + ".prev"));
+        }
+    }
+
+    /**
+     * 남아 있는 세그먼트 목록 (번호 순)
+     */
+    private List<Segment> listSegments() {
+        List<Segment> segments = new ArrayList<>();
+        File dir = logFile.getAbsoluteFile().getParentFile();
+        String prefix = logFile.getName() + ".";
+        File[] files = (dir != null) ? dir.listFiles() : null;
+        if (files == null) return segments;
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.startsWith(prefix)) continue;
+            String rest = name.substring(prefix.length());
+            boolean compacted = rest.endsWith(".prev");
+            String number = compacted ? rest.substring(0, rest.length() - ".prev".length()) : rest;
+            if (!number.matches("\\d+")) continue;
+            segments.add(new Segment(new File(logFile.getParentFile(), name), Long.parseLong(number), compacted));
+        }
+        segments.sort(Comparator.comparingLong(s -> s.number));
+        return segments;
+    }
+
+    private static final class Segment {
+        final File file;
+        final long number;
+        final boolean compacted;
+
+        Segment(File file, long number, boolean compacted) {
+            this.file = file;
+            this.number = number;
+            this.compacted = compacted;
+        }
+    }
+
+    private void writeRecord(DataOutputStream os, byte op, String key, byte[] payload) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        os.writeByte(op);
+        os.writeShort(keyBytes.length);
+        os.write(keyBytes);
+        os.writeInt(payload.length);
+        os.writeInt(checksum(op, keyBytes, payload));
+        os.write(payload);
+        entriesSinceCheckpoint++;
+    }
+
+    private static int checksum(byte op, byte[] keyBytes, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(op);
+        crc.update(keyBytes);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private DataOutputStream stream() throws IOException {
+        if (out == null) {
+            File parentDir = logFile.getParentFile();
+            if (parentDir != null && !parentDir.exists()) parentDir.mkdirs();
+            boolean fresh = !logFile.exists() || logFile.length() == 0;
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+            if (fresh) {
+                out.writeInt(LOG_MAGIC);
+                out.writeByte(LOG_VERSION);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 헤더 없는 이전 형식 로그(체크섬 없음)인지 확인
+     */
+    private static boolean isLegacyLog(File file) {
+        if (!file.exists() || file.length() == 0) return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return file.length() < 4 || in.readInt() != LOG_MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 로그를 처음부터 읽어 state에 반영, 온전한 레코드 수를 반환
+     * - 잘렸거나 체크섬이 맞지 않는 꼬리 레코드가 있으면 마지막 온전한 위치까지 파일을 잘라냄
+     */
+    private int replay(File file, Map<String, T> state) {
+        if (!file.exists() || file.length() == 0) return 0;
+
+        boolean legacy = isLegacyLog(file);
+        int applied = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (!legacy) {
+                in.readInt();
+                int version = in.readUnsignedByte();
+                if (version != LOG_VERSION) throw new IOException("지원하지 않는 로그 버전입니다: " + version);
+                validLength = LOG_HEADER_SIZE;
+            }
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    break; // 정상 종료
+                }
+                byte[] keyBytes = new byte[in.readUnsignedShort()];
+                in.readFully(keyBytes);
+                int payloadLength = in.readInt();
+                if (payloadLength < 0) throw new IOException("잘못된 레코드 길이: " + payloadLength);
+                int expected = legacy ? 0 : in.readInt();
+                byte[] payload = new byte[payloadLength];
+                in.readFully(payload);
+                if (!legacy && checksum(op, keyBytes, payload) != expected) {
+                    throw new IOException("체크섬 불일치 (레코드 " + applied + ")");
+                }
+
+                String key = new String(keyBytes, StandardCharsets.UTF_8);
+                if (op == OP_PUT) {
+                    state.put(key, SnapshotFile.decodeRecord(payload, codec));
+                } else if (op == OP_DELETE) {
+                    state.remove(key);
+                } else {
+                    throw new IOException("알 수 없는 로그 레코드 유형: " + op);
+                }
+                validLength += 1 + 2 + keyBytes.length + 4 + (legacy ? 0 : 4) + payload.length;
+                applied++;
+            }
+        } catch (EOFException e) {
+            System.err.println("[WAL] 잘린 로그 꼬리를 버립니다: " + file + " (" + validLength + " bytes 유지)");
+        } catch (IOException e) {
+            System.err.println("[WAL] 로그 재생 중 오류, 이후 레코드를 버립니다: " + e.getMessage());
+        }
+
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            } catch (IOException e) {
+                throw new UncheckedIOException("로그 꼬리 정리 실패: " + file, e);
+            }
+        }
+        return applied;
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // 닫기 실패는 무시
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.shopping.persistence;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 쓰기 지연(write-behind) 플러셔
+ * - 변경된 키를 메모리에 모아 두었다가(중복 제거) 주기적으로 또는 일정 개수가 쌓이면 한 번에 커밋(group commit)
+ * - 같은 상품을 여러 번 수정해도 커밋은 한 번만 일어남
+ * - flush()로 즉시 반영 가능, JVM 종료 시 셧다운 훅이 남은 변경을 반영
+ * - 모든 플러셔가 데몬 스레드 하나와 셧다운 훅 하나를 함께 사용 (인스턴스마다 스레드/훅을 만들지 않음)
+ *   → 커밋은 스레드 하나에서 차례로 실행되므로 commitAction은 짧게 유지할 것
+ * - 다 쓴 플러셔는 shutdown()으로 닫아야 주기 작업과 종료 시 반영 대상에서 빠짐
+ * - commitAction은 플러셔 스레드에서 실행되므로, 키로 읽는 값은 다른 스레드가 고치지 않는 보관본이어야 함
+ */
+public class WriteBehindFlusher<K> {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 200;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "write-behind-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final Set<WriteBehindFlusher<?>> OPEN = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (WriteBehindFlusher<?> flusher : OPEN) {
+                flusher.flushQuietly();
+            }
+        }, "write-behind-shutdown-flush"));
+    }
+
+    private final String name;
+    private final Consumer<Set<K>> commitAction;   // 모인 키를 한 번에 커밋
+    private final int batchSize;
+    private final ScheduledFuture<?> periodicFlush;
+    private final Object flushLock = new Object();  // 커밋은 한 번에 하나씩
+
+    private Set<K> dirty = new LinkedHashSet<>();
+    private boolean closed;
+
+    public WriteBehindFlusher(String name, long intervalMillis, int batchSize, Consumer<Set<K>> commitAction) {
+        if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis <= 0");
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize <= 0");
+        this.name = name;
+        this.commitAction = commitAction;
+        this.batchSize = batchSize;
+        OPEN.add(this);
+        this.periodicFlush = SCHEDULER.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 변경된 키 등록 - 배치 크기에 도달하면 백그라운드에서 바로 커밋
+     */
+    public void markDirty(K key) {
+        boolean full;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("이미 종료된 플러셔입니다.");
+            dirty.add(key);
+            full = dirty.size() >= batchSize;
+        }
+        if (full) {
+            SCHEDULER.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 즉시 커밋 (호출한 스레드에서 수행)
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Set<K> batch;
+            synchronized (this) {
+                if (dirty.isEmpty()) return;
+                batch = dirty;
+                dirty = new LinkedHashSet<>();
+            }
+            try {
+                commitAction.accept(batch);
+            } catch (RuntimeException e) {
+                // 실패한 배치는 다음 커밋에서 다시 시도
+                synchronized (this) {
+                    batch.addAll(dirty);
+                    dirty = batch;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 커밋 대기 중인 키 개수
+     */
+    public synchronized int pendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * 주기 작업 해제 + 남은 변경 커밋 (공유 스레드는 다른 플러셔가 계속 사용)
+     * 이미 실행 중인 주기 커밋이 있으면 flushLock에서 끝나기를 기다린 뒤 남은 변경을 커밋
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        periodicFlush.cancel(false);
+        OPEN.remove(this);
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("[WriteBehind] " + name + " 커밋 실패, 다음 주기에 재시도합니다: " + e.getMessage());
+        }
+    }
+}
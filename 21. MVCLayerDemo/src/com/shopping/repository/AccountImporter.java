@@ -0,0 +1,86 @@
+package com.shopping.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.shopping.persistence.StorageEngine;
+
+/**
+ * 사용자/관리자 일괄 등록 공통 처리 (FileUserRepository, FileAdminRepository)
+ * - 이메일 중복은 메모리에서 검사 (저장된 계정은 이메일 인덱스, 같은 배치 안은 배치용 Map)
+ * - 통과한 레코드는 배치마다 엔진에 한 번만 반영 → 전체 비용이 건수에 비례
+ */
+final class AccountImporter<T> {
+
+    private final StorageEngine<String, T> engine;
+    private final String emailIndex;
+    private final Function<T, String> idOf;
+    private final Function<T, String> emailOf;
+    private final boolean allowOwnEmail; // 사용자: 자기 ID의 기존 이메일 재사용 허용 / 관리자: 기존 이메일이면 거부 (save와 동일)
+
+    AccountImporter(StorageEngine<String, T> engine, String emailIndex,
+                    Function<T, String> idOf, Function<T, String> emailOf, boolean allowOwnEmail) {
+        this.engine = engine;
+        this.emailIndex = emailIndex;
+        this.idOf = idOf;
+        this.emailOf = emailOf;
+        this.allowOwnEmail = allowOwnEmail;
+    }
+
+    /**
+     * 입력을 batchSize건씩 검증 후 반영 (입력 전체를 메모리에 올리지 않음)
+     */
+    BulkImportResult importAll(Iterator<T> records, int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batchSize <= 0");
+        BulkImportResult result = new BulkImportResult();
+        long position = 0;
+        while (records.hasNext()) {
+            Map<String, T> batch = new LinkedHashMap<>();       // ID → 레코드 (같은 ID는 나중 것이 이김)
+            Map<String, String> batchEmails = new HashMap<>();  // 이메일 → 이 배치에서 쓰는 ID
+            while (records.hasNext() && batch.size() < batchSize) {
+                T record = records.next();
+                String reason = validate(record, batch, batchEmails);
+                if (reason != null) {
+                    result.addFailure(position, record != null ? idOf.apply(record) : null, reason);
+                } else {
+                    T previous = batch.put(idOf.apply(record), record);
+                    if (previous != null) batchEmails.remove(emailOf.apply(previous));
+                    batchEmails.put(emailOf.apply(record), idOf.apply(record));
+                }
+                position++;
+            }
+            if (!batch.isEmpty()) {
+                engine.apply(new ArrayList<>(batch.values()), List.of());
+                result.addImported(batch.size());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 실패 사유 (통과하면 null)
+     */
+    private String validate(T record, Map<String, T> batch, Map<String, String> batchEmails) {
+        if (record == null) return "레코드가 없습니다.";
+        String id = idOf.apply(record);
+        String email = emailOf.apply(record);
+        if (id == null || id.isBlank()) return "ID가 없습니다.";
+        if (email == null || email.isBlank()) return "이메일이 없습니다.";
+
+        String owner = batchEmails.get(email);
+        if (owner == null) {
+            T existing = engine.getByIndex(emailIndex, email);
+            // 저장된 계정이 이 배치에서 다른 이메일로 바뀌면 그 이메일은 비게 됨
+            if (existing != null && !batch.containsKey(idOf.apply(existing))) owner = idOf.apply(existing);
+        }
+        if (owner != null && !(allowOwnEmail && owner.equals(id))) {
+            return "이미 존재하는 이메일입니다: " + email;
+        }
+        return null;
+    }
+}
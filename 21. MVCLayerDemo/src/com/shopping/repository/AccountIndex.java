@@ -0,0 +1,120 @@
+package com.shopping.repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.shopping.model.Admin;
+import com.shopping.model.Role;
+import com.shopping.model.User;
+import com.shopping.persistence.StorageEngine;
+
+/**
+ * 사용자 + 관리자 통합 계정 인덱스: 이메일 → (역할, ID)
+ * - 로그인 시 역할과 관계없이 해시 조회 한 번으로 계정 위치를 찾음 (사용자 → 관리자 순차 검색 없음)
+ * - 두 저장소 엔진의 변경 알림으로 갱신되므로 다른 저장소 인스턴스에서 저장/삭제해도 항상 최신
+ * - 같은 이메일은 회원가입 검증(AuthService)에서 역할을 넘어 막으므로, 충돌 시에는 나중에 저장된 계정 기준
+ * - 잠금 없는 ConcurrentHashMap: 조각 엔진은 여러 조각에서 동시에 변경을 알리고, 로그인 조회도 막지 않음
+ *   같은 계정의 변경은 항상 같은 엔진(조각) 잠금 안에서 순서대로 오므로 계정별로는 순서가 보장됨
+ * - 엔진 쌍마다 인덱스 하나만 만들어 공유 (엔진에서 리스너를 뗄 수 없으므로, 컨트롤러를 만들 때마다
+ *   리스너와 인덱스 사본이 쌓이지 않도록) - 엔진은 약한 참조로 기억해 메모리 엔진은 다 쓰면 함께 수거됨
+ */
+public class AccountIndex {
+
+    /**
+     * 계정 위치: 역할 + 해당 저장소의 ID
+     */
+    public static final class Entry {
+        private final Role role;
+        private final String id;
+
+        Entry(Role role, String id) {
+            this.role = role;
+            this.id = id;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    // 사용자 엔진 → 관리자 엔진 → 인덱스 (엔진은 equals를 재정의하지 않으므로 객체 동일성 기준)
+    private static final Map<StorageEngine<?, ?>, Map<StorageEngine<?, ?>, AccountIndex>> SHARED = new WeakHashMap<>();
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<Role, Map<String, String>> emailById = new EnumMap<>(Role.class); // 삭제/이메일 변경 처리용
+
+    private AccountIndex() {
+        for (Role role : Role.values()) {
+            emailById.put(role, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 두 저장소를 묶은 인덱스 (현재 계정으로 채운 뒤 이후 변경을 따라감)
+     * - 같은 엔진 쌍이면 이미 만든 인덱스를 돌려줌 → 리스너는 엔진 쌍마다 한 번만 등록
+     */
+    public static AccountIndex of(FileUserRepository userRepository, FileAdminRepository adminRepository) {
+        StorageEngine<String, User> users = userRepository.engine();
+        StorageEngine<String, Admin> admins = adminRepository.engine();
+        synchronized (SHARED) {
+            Map<StorageEngine<?, ?>, AccountIndex> byAdminEngine = SHARED.computeIfAbsent(users, k -> new WeakHashMap<>());
+            AccountIndex index = byAdminEngine.get(admins);
+            if (index == null) {
+                index = new AccountIndex();
+                index.follow(users, Role.USER, User::getEmail);
+                index.follow(admins, Role.ADMIN, Admin::getEmail);
+                byAdminEngine.put(admins, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 이메일로 계정 위치 조회 (없으면 null)
+     */
+    public Entry find(String email) {
+        return (email != null) ? byEmail.get(email) : null;
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    private <V> void follow(StorageEngine<String, V> engine, Role role,
+                            Function<V, String> emailOf) {
+        engine.addListener(new StorageEngine.ChangeListener<String, V>() {
+            @Override
+            public void onPut(String id, V value) {
+                put(role, id, emailOf.apply(value));
+            }
+
+            @Override
+            public void onRemove(String id) {
+                remove(role, id);
+            }
+        });
+    }
+
+    private void put(Role role, String id, String email) {
+        remove(role, id);
+        if (email == null) return;
+        byEmail.put(email, new Entry(role, id));
+        emailById.get(role).put(id, email);
+    }
+
+    private void remove(Role role, String id) {
+        String previous = emailById.get(role).remove(id);
+        if (previous == null) return;
+        Entry entry = byEmail.get(previous);
+        if (entry != null && entry.role == role && entry.id.equals(id)) {
+            byEmail.remove(previous, entry); // 그 사이 다른 계정이 차지했으면 지우지 않음
+        }
+    }
+}
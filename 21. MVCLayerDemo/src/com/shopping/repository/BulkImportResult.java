@@ -0,0 +1,72 @@
+package com.shopping.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 일괄 등록(importAll) 결과: 등록 건수 + 실패한 레코드별 사유
+ * - 등록된 레코드 자체는 들고 있지 않음 (스트리밍 등록 시 입력 전체를 메모리에 남기지 않도록)
+ */
+public class BulkImportResult {
+
+    /**
+     * 실패한 레코드: 입력에서의 위치(0부터) + ID + 사유
+     */
+    public static final class Failure {
+        private final long position;
+        private final String id;
+        private final String reason;
+
+        Failure(long position, String id, String reason) {
+            this.position = position;
+            this.id = id;
+            this.reason = reason;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + position + " (" + id + "): " + reason;
+        }
+    }
+
+    private long importedCount;
+    private final List<Failure> failures = new ArrayList<>();
+
+    void addImported(int count) {
+        importedCount += count;
+    }
+
+    void addFailure(long position, String id, String reason) {
+        failures.add(new Failure(position, id, reason));
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "등록 " + importedCount + "건, 실패 " + failures.size() + "건";
+    }
+}
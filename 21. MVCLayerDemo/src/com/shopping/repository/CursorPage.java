@@ -0,0 +1,39 @@
+package com.shopping.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 키셋(keyset) 커서 기반 페이지: 이번 페이지 항목 + 다음 페이지를 읽을 커서
+ * - 커서는 이번 페이지 마지막 항목의 정렬 키 → 다음 조회는 "커서보다 큰 키부터"
+ * - 오프셋 방식과 달리 앞 페이지를 건너뛰며 세지 않고, 페이지 사이에 추가/삭제가 있어도 중복·누락 없이 이어짐
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * 다음 페이지 커서 (마지막 페이지면 null)
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -1,7 +1,14 @@
 package com.shopping.repository;
 
+import com.shopping.model.Order;
+import com.shopping.persistence.BinaryCodec;
+
 public class DefaultFileOrderRepository extends FileOrderRepository {
     public DefaultFileOrderRepository(String filePath) {
         super(filePath);
     }
+
+    public DefaultFileOrderRepository(String filePath, BinaryCodec<Order> codec) {
+        super(filePath, codec);
+    }
 }
@@ -2,54 +2,96 @@ package com.shopping.repository;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
 import com.shopping.model.Admin;
-import com.shopping.persistence.FileManager;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
 import com.shopping.util.Constants;
 
+/**
+ * Admin 저장소 - 저장 방식은 StorageEngine이 담당 (기본: 변경마다 전체 스냅샷 기록)
+ * - 기동 시 한 번만 읽고 이후 조회는 메모리에서: ID는 엔진의 기본 키, 이메일은 보조 HashMap 인덱스로 O(1)
+ * - ID/이메일 앞에 블룸 필터: 새 가입자처럼 없는 키의 중복 검사는 엔진 잠금 없이 바로 false
+ * - 같은 파일을 쓰는 저장소 인스턴스들은 엔진(과 인덱스, 필터) 하나를 공유 (StorageEngines.shared)
+ */
 public class FileAdminRepository implements AdminRepository {
     
     private static final String FILE_NAME = Constants.ADMIN_DATA_FILE;
+    private static final String EMAIL_INDEX = "email";
+    private static final int EXPECTED_ACCOUNTS = 10_000;          // 넘으면 엔진이 필터를 다시 만듦
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01; // "있을 수도 있음" 중 실제로 없는 비율
+    private final StorageEngine<String, Admin> engine;
+
+    public FileAdminRepository() {
+        this(ModelCodecs.ADMIN);
+    }
+
+    // 저장 형식(코덱) 지정 생성자 - 기존 자바 직렬화 파일도 그대로 읽음
+    public FileAdminRepository(BinaryCodec<Admin> codec) {
+        this(StorageEngines.shared(FILE_NAME, StorageEngines.Type.SNAPSHOT, Admin::getId, codec));
+    }
+
+    // 저장 엔진 직접 지정 (부하 테스트 등에서 메모리 엔진 사용)
+    public FileAdminRepository(StorageEngine<String, Admin> engine) {
+        this.engine = engine;
+        engine.addUniqueIndex(EMAIL_INDEX, Admin::getEmail);
+        engine.enableBloomFilter(EXPECTED_ACCOUNTS, BLOOM_FALSE_POSITIVE_RATE);
+    }
+
+    // 통합 계정 인덱스(AccountIndex)가 변경 알림을 받기 위한 엔진 접근
+    StorageEngine<String, Admin> engine() {
+        return engine;
+    }
 
     @Override
     public Admin save(Admin admin) {
-    	List<Admin> admins = FileManager.readFromFile(FILE_NAME);
-        
     	if (existsByEmail(admin.getEmail())) {
             throw new IllegalArgumentException("이미 존재하는 이메일입니다: " + admin.getEmail());
         }
-        
-        boolean updated = false;
-        for (int i = 0; i < admins.size(); i++) {
-            if (admins.get(i).getId().equals(admin.getId())) {
-            	admins.set(i, admin);
-                updated = true;
-                break;
-            }
-        }
-        if (!updated) {
-        	admins.add(admin);
-        }
-        FileManager.writeToFile(FILE_NAME, admins);
+        engine.put(admin); // 같은 ID가 있으면 교체
         return admin;
     }
 
+    // 일괄 저장 - 한 번만 기록하고, 실패한 레코드는 건너뜀 (importAll 참고)
     @Override
     public List<Admin> saveAll(List<Admin> adminList) {
+        BulkImportResult result = importAll(adminList);
+        Set<Long> failed = new HashSet<>();
+        for (BulkImportResult.Failure failure : result.getFailures()) {
+            System.err.println("저장 실패: " + failure.getReason());
+            failed.add(failure.getPosition());
+        }
         List<Admin> savedAdmins = new ArrayList<>();
-        for (Admin admin : adminList) {
-            try {
-                savedAdmins.add(save(admin));
-            } catch (IllegalArgumentException e) {
-                System.err.println("저장 실패: " + e.getMessage());
-            }
+        for (int i = 0; i < adminList.size(); i++) {
+            if (!failed.contains((long) i)) savedAdmins.add(adminList.get(i));
         }
         return savedAdmins;
     }
 
+    /**
+     * 일괄 등록: 이메일 중복을 메모리에서 검사하고 통과한 레코드를 한 번에 기록
+     * - save를 반복하는 것과 결과는 같지만 파일 쓰기는 한 번
+     */
+    public BulkImportResult importAll(List<Admin> adminList) {
+        return importAll(adminList.iterator(), Math.max(1, adminList.size()));
+    }
+
+    /**
+     * 스트리밍 일괄 등록: 입력을 batchSize건씩 읽어 검증/기록 (입력 전체를 메모리에 올리지 않음)
+     * - 배치마다 한 번 기록하므로, 전체 스냅샷 엔진에서는 batchSize를 크게 잡을수록 쓰기가 줄어듦
+     */
+    public BulkImportResult importAll(Iterator<Admin> admins, int batchSize) {
+        return new AccountImporter<>(engine, EMAIL_INDEX, Admin::getId, Admin::getEmail, false).importAll(admins, batchSize);
+    }
+
     @Override
     public boolean existsById(String id) {
-        return findById(id) != null;
+        return engine.containsKey(id);
     }
 
     @Override
@@ -59,59 +101,40 @@ public class FileAdminRepository implements AdminRepository {
 
     @Override
     public Admin findById(String id) {
-        return FileManager.readFromFile(FILE_NAME).stream()
-                .filter(obj -> obj instanceof Admin)   
-                .map(obj -> (Admin) obj)              
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return engine.get(id);
     }
 
 
     @Override
     public Admin findByEmail(String email) {
-        return (Admin) FileManager.readFromFile(FILE_NAME).stream()
-        		.filter(obj -> obj instanceof Admin)   
-                .map(obj -> (Admin) obj)               
-                .filter(u -> u.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        return engine.getByIndex(EMAIL_INDEX, email);
     }
 
     @Override
     public List<Admin> findAll() {
-        return FileManager.readFromFile(FILE_NAME);
+        return engine.values();
     }
 
     @Override
     public boolean deleteById(String id) {
-        List<Admin> admins = FileManager.readFromFile(FILE_NAME);
-        boolean removed = admins.removeIf(u -> u.getId().equals(id));
-        if (removed) {
-            FileManager.writeToFile(FILE_NAME, admins);
-        }
-        return removed;
+        return engine.remove(id);
     }
 
     @Override
     public long count() {
-        return findAll().size();
+        return engine.size();
     }
 
     @Override
     public void deleteAll() {
-        FileManager.writeToFile(FILE_NAME, new ArrayList<>());
+        engine.clear();
     }
 
     @Override
     public Admin update(Admin admin) {
-        List<Admin> admins = FileManager.readFromFile(FILE_NAME);
-        for (int i = 0; i < admins.size(); i++) {
-            if (admins.get(i).getId().equals(admin.getId())) {
-            	admins.set(i, admin);
-                FileManager.writeToFile(FILE_NAME, admins);
-                return admin;
-            }
+        if (engine.containsKey(admin.getId())) {
+            engine.put(admin);
+            return admin;
         }
         throw new IllegalArgumentException("업데이트할 사용자를 찾을 수 없습니다: " + admin.getId());
     }
@@ -1,64 +1,51 @@
 package com.shopping.repository;
 
 import com.shopping.model.Cart;
-import com.shopping.persistence.FileManager;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
 import com.shopping.util.Constants;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 public class FileCartRepository implements CartRepository {
 
     // 모든 사용자의 장바구니 정보를 담을 파일 이름
     private static final String FILE_NAME = Constants.CART_DATA_FILE;
-    private Map<String, Cart> database;
+    private final StorageEngine<String, Cart> engine; // 기본: 로그 엔진 (변경된 장바구니만 로그에 추가)
 
     
     public FileCartRepository() {
-        loadData();
+        this(ModelCodecs.CART);
+    }
+
+    // 저장 형식(코덱) 지정 생성자 - null이면 자바 직렬화
+    public FileCartRepository(BinaryCodec<Cart> codec) {
+        this(StorageEngines.shared(FILE_NAME, StorageEngines.Type.LOG, Cart::getUserId, codec));
+    }
+
+    // 저장 엔진 직접 지정 (부하 테스트 등에서 메모리 엔진 사용)
+    public FileCartRepository(StorageEngine<String, Cart> engine) {
+        this.engine = engine;
     }
 
 
     //옵셔널을 이용한 유저아이디로 카트찾는 메서드
     @Override
     public Optional<Cart> findByUserId(String userId) {
-        return Optional.ofNullable(database.get(userId));
+        return Optional.ofNullable(engine.get(userId));
     }
 
     @Override
     public void save(Cart cart) {
-        database.put(cart.getUserId(), cart);
-        saveData();
+        engine.put(cart);
     }
 
 
     //특정아이디의 카트 삭제
     @Override
     public void deleteByUserId(String userId) {
-        database.remove(userId);
-        saveData();
-    }
-
-    // --- FileManager를 사용하는 private 헬퍼 메서드 ---
-    private void saveData() {
-        List<Cart> cartList = new ArrayList<>(database.values());
-        FileManager.writeToFile(FILE_NAME, cartList);
-    }
-
-    /**
-     * 파일에서 데이터를 불러와 메모리의 Map을 초기화합니다.
-     */
-    private void loadData() {
-        // FileManager를 통해 파일에서 Cart 리스트를 불러옵니다.
-        List<Cart> cartList = FileManager.readFromFile(FILE_NAME);
-        
-        // 불러온 List를 userId를 key로 하는 Map으로 변환하여 database를 구성합니다.
-        this.database = new HashMap<>();
-        for (Cart cart : cartList) {
-            this.database.put(cart.getUserId(), cart);
-        }
+        engine.remove(userId);
     }
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package com.shopping.repository;
 
 import com.shopping.model.Order;
 import com.shopping.model.OrderStatus;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.DeltaStorageEngine;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
+import com.shopping.util.Constants;
 import com.shopping.repository.OrderRepository;
 
-import java.io.*;
-import java.nio.file.*;
+import java.io.File;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -14,26 +19,70 @@ import java.util.stream.Collectors;
  * FileOrderRepository
  * --------------------
  * OrderRepository 인터페이스를 파일 기반으로 구현한 클래스.
- * - 주문 데이터를 자바 직렬화 방식으로 파일에 저장/조회/삭제/갱신
+ * - 주문 데이터를 파일에 저장/조회/삭제/갱신 (BinaryCodec 지정 시 코덱 형식, 아니면 자바 직렬화)
+ * - 파일은 체크섬 스냅샷 형식(SnapshotFile): 손상 시 직전 스냅샷(.bak)으로 복구
  * - 애플리케이션이 꺼져도 주문 정보가 유지됨(영속성 보장)
- * - 내부적으로 Map<String, Order> 형태로 캐시를 두고 관리
+ * - 저장 방식은 StorageEngine이 담당, 조회는 엔진의 메모리 상태 사용
+ *
+ * 기본 엔진: 증분(delta) 스냅샷 (DeltaStorageEngine)
+ * - 저장/삭제/상태 변경 시 전체 주문을 다시 쓰지 않고, 이번에 바뀐 주문만 델타 파일(.delta) 끝에 덧붙임
+ * - 바뀐 주문 수가 mergeThreshold에 도달하면 전체 스냅샷으로 병합 → 쓰기 비용은 주문 이력 크기가 아닌 변경량에 비례
+ * - 전체 스냅샷은 블록 압축 형식(BlockCompressedFile)으로 저장할 수 있음 (Constants.COMPRESS_ORDER_SNAPSHOT)
+ * - -Dshopping.storage.engine(.orders)로 다른 엔진 선택 가능 (StorageEngines)
  */
 public abstract class FileOrderRepository implements OrderRepository {
 
-    private final Path storePath;   // 실제 주문 데이터가 저장될 파일 경로 (예: data/orders.dat)
-    private final Path tempPath;    // 임시 파일 경로 (쓰기 도중 실패 시 안전성 확보용)
-    private Map<String, Order> cache; // 메모리 캐시: 프로그램 기동 시 파일에서 로딩됨
+    public static final int DEFAULT_MERGE_THRESHOLD = DeltaStorageEngine.DEFAULT_MERGE_THRESHOLD; // 이만큼 주문이 바뀌면 전체 스냅샷으로 병합
+
+    private final StorageEngine<String, Order> engine;
 
     /**
      * 생성자: 파일 경로를 받아 초기화
-     * - 파일이 없으면 빈 맵을 직렬화해서 새로 생성
-     * - 기존 파일이 있으면 loadAll()로 로드
+     * - 파일이 없으면 빈 스냅샷을 새로 생성
+     * - 기존 파일이 있으면 전체 스냅샷 + 델타를 로드
      */
     public FileOrderRepository(String filePath) {
-        this.storePath = Paths.get(filePath);
-        this.tempPath = Paths.get(filePath + ".tmp");
-        ensureFile();       // 파일 존재 보장
-        this.cache = loadAll(); // 캐시에 전체 주문 로드
+        this(filePath, ModelCodecs.ORDER);
+    }
+
+    /**
+     * 생성자: 파일 경로 + 저장 코덱 지정 (null이면 자바 직렬화)
+     * - 기존 자바 직렬화 파일도 읽을 수 있으며, 다음 저장부터 코덱 형식으로 기록됨
+     */
+    public FileOrderRepository(String filePath, BinaryCodec<Order> codec) {
+        this(filePath, codec, DEFAULT_MERGE_THRESHOLD);
+    }
+
+    /**
+     * 생성자: 파일 경로 + 저장 코덱 + 전체 병합 기준(변경된 주문 수)
+     */
+    public FileOrderRepository(String filePath, BinaryCodec<Order> codec, int mergeThreshold) {
+        this(filePath, codec, mergeThreshold, Constants.COMPRESS_ORDER_SNAPSHOT);
+    }
+
+    /**
+     * 생성자: 파일 경로 + 저장 코덱 + 전체 병합 기준 + 전체 스냅샷 블록 압축 여부
+     * - 읽을 때는 압축 여부와 관계없이 파일 형식을 보고 판단
+     */
+    public FileOrderRepository(String filePath, BinaryCodec<Order> codec, int mergeThreshold, boolean compressed) {
+        this(openEngine(filePath, codec, mergeThreshold, compressed));
+    }
+
+    /**
+     * 생성자: 저장 엔진 직접 지정 (부하 테스트 등에서 메모리 엔진 사용)
+     */
+    public FileOrderRepository(StorageEngine<String, Order> engine) {
+        this.engine = engine;
+    }
+
+    private static StorageEngine<String, Order> openEngine(String filePath, BinaryCodec<Order> codec,
+                                                           int mergeThreshold, boolean compressed) {
+        StorageEngines.Type type = StorageEngines.configuredType(
+                StorageEngines.storeName(filePath), StorageEngines.Type.DELTA);
+        if (type == StorageEngines.Type.DELTA) {
+            return new DeltaStorageEngine<>(new File(filePath), Order::getOrderId, codec, mergeThreshold, compressed);
+        }
+        return StorageEngines.create(filePath, type, Order::getOrderId, codec);
     }
 
     // ---------- 인터페이스 구현 ----------
@@ -41,7 +90,7 @@ public abstract class FileOrderRepository implements OrderRepository {
     /**
      * 주문 저장 (Create/Update)
      * - orderId가 없으면 nextId()로 새 ID 부여
-     * - 캐시에 put() 후, 전체를 파일에 직렬화 저장
+     * - 엔진에 저장 (기본 엔진은 변경분만 델타 파일에 기록)
      */
     @Override
     public synchronized void save(Order order) {
@@ -51,8 +100,7 @@ public abstract class FileOrderRepository implements OrderRepository {
         if (order.getOrderId() == null || order.getOrderId().isBlank()) {
             order.setOrderId(nextId());
         }
-        cache.put(order.getOrderId(), order);
-        persist(cache);
+        engine.put(order);
     }
 
     /**
@@ -60,7 +108,7 @@ public abstract class FileOrderRepository implements OrderRepository {
      */
     @Override
     public synchronized Optional<Order> findById(String orderId) {
-        return Optional.ofNullable(cache.get(orderId));
+        return Optional.ofNullable(engine.get(orderId));
     }
 
     /**
@@ -68,14 +116,14 @@ public abstract class FileOrderRepository implements OrderRepository {
      */
     @Override
     public synchronized List<Order> findAll() {
-        return new ArrayList<>(cache.values());
+        return engine.values();
     }
 
     // 페이징 지원 버전 (현재는 주석 처리)
     // 인터페이스에 메서드가 없으면 @Override 제거 후 구현체 전용으로 둘 수 있음
    public synchronized List<Order> findAll(int page, int size) {
        if (page < 0 || size <= 0) throw new IllegalArgumentException("invalid page/size");
-       List<Order> all = new ArrayList<>(cache.values());
+       List<Order> all = engine.values();
        int from = page * size;
        if (from >= all.size()) return Collections.emptyList();
        int to = Math.min(from + size, all.size());
@@ -87,11 +135,7 @@ public abstract class FileOrderRepository implements OrderRepository {
      */
     @Override
     public synchronized boolean delete(String orderId) {
-        if (cache.remove(orderId) != null) {
-            persist(cache);
-            return true;
-        }
-        return false;
+        return engine.remove(orderId);
     }
 
     /**
@@ -99,11 +143,11 @@ public abstract class FileOrderRepository implements OrderRepository {
      * - 상태 전이(valid transition)는 Order.changeStatus()에서 검증
      */
     public synchronized boolean updateStatus(String orderId, OrderStatus newStatus) {
-        Order o = cache.get(orderId);
+        Order o = engine.get(orderId);
         if (o == null) return false;
         // 상태 전이 검증은 Order.changeStatus가 수행
         o.changeStatus(newStatus);
-        persist(cache);
+        engine.put(o);
         return true;
     }
 
@@ -112,7 +156,7 @@ public abstract class FileOrderRepository implements OrderRepository {
      */
     @Override
     public synchronized List<Order> findByUserId(String userId) {
-        return cache.values().stream()
+        return engine.values().stream()
                 .filter(o -> Objects.equals(o.getUserId(), userId))
                 .collect(Collectors.toList());
     }
@@ -121,7 +165,7 @@ public abstract class FileOrderRepository implements OrderRepository {
      * 특정 상태(Status)에 해당하는 모든 주문 조회
      */
     public synchronized List<Order> findByStatus(OrderStatus status) {
-        return cache.values().stream()
+        return engine.values().stream()
                 .filter(o -> o.getStatus() == status)
                 .collect(Collectors.toList());
     }
@@ -131,7 +175,7 @@ public abstract class FileOrderRepository implements OrderRepository {
      */
     @Override
     public synchronized List<Order> findByDateRange(LocalDate from, LocalDate to) {
-        return cache.values().stream()
+        return engine.values().stream()
                 .filter(o -> {
                     LocalDate d = o.getOrderDate().toLocalDate();
                     return (from == null || !d.isBefore(from))
@@ -142,12 +186,13 @@ public abstract class FileOrderRepository implements OrderRepository {
 
     /**
      * 주문 ID 자동 생성기
-     * - 현재 캐시에 있는 주문 ID 중 가장 큰 번호 찾아서 +1
+     * - 현재 저장된 주문 ID 중 가장 큰 번호 찾아서 +1
      * - 결과: O1, O2, O3 ...
      */
     @Override
     public synchronized String nextId() {
-        long max = cache.keySet().stream()
+        long max = engine.values().stream()
+                .map(Order::getOrderId)
                 .filter(k -> k.startsWith("O"))   // O로 시작하는 것만
                 .map(k -> k.substring(1))        // 숫자 부분만 추출
                 .filter(s -> s.matches("\\d+"))  // 숫자인 경우만
@@ -156,58 +201,17 @@ public abstract class FileOrderRepository implements OrderRepository {
         return "O" + (max + 1);
     }
 
-    // ---------- 내부 유틸 ----------
-
     /**
-     * 저장 파일 존재 보장
-     * - 없으면 빈 맵을 직렬화해서 새로 생성
+     * 델타를 전체 스냅샷으로 병합 (델타 엔진이 아니면 엔진의 checkpoint 동작)
      */
-    private void ensureFile() {
-        try {
-            if (storePath.getParent() != null) Files.createDirectories(storePath.getParent());
-            if (Files.notExists(storePath)) persist(new HashMap<>());
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    public synchronized void mergeDeltas() {
+        engine.checkpoint();
     }
 
     /**
-     * 파일에서 Map<String, Order> 전체를 역직렬화해서 캐시에 로드
+     * 마지막 병합 이후 바뀐 주문 수 (델타 엔진이 아니면 0)
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Order> loadAll() {
-        if (Files.notExists(storePath)) return new HashMap<>();
-        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(storePath))) {
-            Object obj = ois.readObject();
-            if (obj instanceof Map) return (Map<String, Order>) obj;
-            return new HashMap<>();
-        } catch (EOFException e) { // 파일은 있으나 내용이 비어 있을 때
-            return new HashMap<>();
-        } catch (IOException | ClassNotFoundException e) {
-            throw new RuntimeException("Failed to load orders: " + storePath, e);
-        }
-    }
-
-    /**
-     * 캐시에 담긴 주문 전체를 파일에 직렬화하여 저장
-     * - 임시 파일에 먼저 기록 후 원본으로 교체 → 원자적 저장(atomic move)
-     */
-    private void persist(Map<String, Order> data) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(
-                tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
-            oos.writeObject(data);
-            oos.flush();
-            try {
-                // 원자적 이동 지원 시 → 깨끗하게 교체
-                Files.move(tempPath, storePath,
-                        StandardCopyOption.REPLACE_EXISTING,
-                        StandardCopyOption.ATOMIC_MOVE);
-            } catch (AtomicMoveNotSupportedException e) {
-                // 파일 시스템이 ATOMIC_MOVE 지원 안하면 그냥 교체
-                Files.move(tempPath, storePath, StandardCopyOption.REPLACE_EXISTING);
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    public synchronized int pendingDeltaCount() {
+        return (engine instanceof DeltaStorageEngine) ? ((DeltaStorageEngine<Order>) engine).pendingChanges() : 0;
     }
-}
\ No newline at end of file
+}
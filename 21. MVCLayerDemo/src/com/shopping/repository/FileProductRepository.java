@@ -1,46 +1,315 @@
 package com.shopping.repository;
 
 import com.shopping.model.Product;
-import com.shopping.persistence.FileManager;
+import com.shopping.model.ProductCategory;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
+import com.shopping.persistence.WriteBehindFlusher;
+import com.shopping.util.ChoseongIndex;
+import com.shopping.util.NGramIndex;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 
 /**
  * 상품 데이터의 영속성을 관리하는 저장소 클래스.
- * FileManager를 사용하여 파일에서 데이터를 읽고 쓰는 역할을 담당합니다.
+ * 저장 방식은 StorageEngine이 담당합니다 (기본: 변경된 상품만 로그에 추가하는 로그 엔진).
+ * 변경 사항은 WriteBehindFlusher가 모아서 백그라운드에서 한 번에 기록합니다(group commit).
+ * 상품 보관본은 엔진에만 두고 조회도 엔진에서 읽습니다. 저장소는 아직 기록되지 않은 변경(pending)과 색인만 가지며,
+ * 조회는 pending을 먼저 보고 없으면 엔진을 봅니다 (기록이 끝난 변경만 pending에서 빠지므로 방금 바꾼 값도 보임).
+ * 보관본에는 저장 시점의 복사본을 두고 조회 결과도 복사본으로 돌려주므로,
+ * 호출자가 상품을 고치다 검증에 실패해도 보관본과 색인은 바뀌지 않습니다 (save를 거쳐야만 반영).
+ * 상품명 부분 검색은 N-gram 역색인(NGramIndex)으로 후보만 확인합니다 (save / deleteById 때 함께 갱신).
+ * 검색어에 초성이 들어 있으면("ㄴㅌㅂ", "노ㅌ북") 미리 만든 초성 키 색인(ChoseongIndex)으로 찾습니다.
+ * 카테고리 조회는 카테고리별로 미리 나눠 둔 ID 집합(EnumMap)만 읽으므로 해당 카테고리 상품 수에 비례합니다.
+ * 가격대 조회는 (가격, ID) 순으로 정렬된 가격 색인의 구간만 읽습니다 (O(log n + k), 이미 가격순).
+ * 베스트셀러는 (판매량 내림차순, ID) 순위 색인의 앞 K개만 읽고(O(K)), 판매·취소 시 해당 상품만 다시 넣습니다(O(log n)).
+ * 같은 엔진을 쓰는 저장소 인스턴스들은 pending, 색인, ID 순번, 플러셔를 함께 씁니다 (FileUserRepository의 엔진별 색인과 같은 방식).
  * ProductRepository 인터페이스의 파일 기반 구현체입니다.
  */
 public class FileProductRepository implements ProductRepository {
 
-    private final Map<String, Product> productStore = new HashMap<>();
     private static final String DATA_FILE_NAME = "products.dat";
-    private long sequence = 0L;
+    private final StorageEngine<String, Product> engine;
+    private final Shared shared; // 같은 엔진을 쓰는 저장소 인스턴스끼리 공유하는 pending/색인/ID 순번 (변경 시 잠금 대상)
+    private boolean closed;
+    // 아래 필드는 모두 shared의 것을 가리킴
+    // 아직 엔진에 기록되지 않은 변경: 상품 ID → 새 보관본 또는 DELETED (플러셔 스레드와 함께 접근, 값은 넣은 뒤 고치지 않음)
+    private final Map<String, Product> pending;
+    private final WriteBehindFlusher<String> flusher; // null이면 매 변경마다 즉시 기록
+    private final NGramIndex<String> nameIndex;
+    private final ChoseongIndex<String> choseongIndex;
+    // 카테고리 → 상품 ID (ID 순), 카테고리가 바뀌면 이전 칸에서 빼야 하므로 상품별로 색인된 카테고리도 기억
+    private final Map<ProductCategory, Set<String>> categoryPartitions;
+    private final Map<String, ProductCategory> indexedCategory;
+    // (가격, ID) 정렬 색인, 가격도 객체를 고쳐 저장할 수 있으므로 상품별로 색인된 키를 기억
+    private final ConcurrentSkipListSet<PriceKey> priceIndex;
+    private final Map<String, PriceKey> indexedPrice;
+    // (판매량 내림차순, ID) 순위 색인
+    private final ConcurrentSkipListSet<SalesKey> salesRanking;
+    private final Map<String, SalesKey> indexedSales;
+
+    // pending의 삭제 표시 (참조로만 비교)
+    private static final Product DELETED = new Product(null, "", null, 0, 0, null);
+
+    // 엔진별 공유 상태 (열린 저장소가 모두 닫히면 제거 → 다음에 열 때 엔진에서 다시 읽음)
+    private static final Map<StorageEngine<String, Product>, Shared> SHARED = new WeakHashMap<>();
+
+    /**
+     * 엔진 하나에 딸린 미기록 변경과 색인 - 인스턴스마다 따로 두면 서로의 변경을 못 보고 ID가 겹치며,
+     * 한 인스턴스의 플러시가 다른 인스턴스의 재고/판매량 변경을 덮어씀
+     */
+    private static final class Shared {
+        final Map<String, Product> pending = new ConcurrentHashMap<>();
+        final NGramIndex<String> names = new NGramIndex<>();
+        final ChoseongIndex<String> choseong = new ChoseongIndex<>();
+        final Map<ProductCategory, Set<String>> categoryPartitions = newCategoryPartitions();
+        final Map<String, ProductCategory> indexedCategory = new ConcurrentHashMap<>();
+        final ConcurrentSkipListSet<PriceKey> priceIndex = new ConcurrentSkipListSet<>();
+        final Map<String, PriceKey> indexedPrice = new ConcurrentHashMap<>();
+        final ConcurrentSkipListSet<SalesKey> salesRanking = new ConcurrentSkipListSet<>();
+        final Map<String, SalesKey> indexedSales = new ConcurrentHashMap<>();
+        WriteBehindFlusher<String> flusher;
+        long sequence;
+        int openCount;
+        boolean loaded;
+    }
 
     public FileProductRepository() {
-        loadDataFromFile();
+        this(ModelCodecs.PRODUCT);
+    }
+
+    /**
+     * 저장 형식(코덱)을 지정하는 생성자. null이면 자바 직렬화를 사용합니다.
+     */
+    public FileProductRepository(BinaryCodec<Product> codec) {
+        this(codec, WriteBehindFlusher.DEFAULT_INTERVAL_MILLIS, WriteBehindFlusher.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 저장 형식과 쓰기 지연 설정을 지정하는 생성자.
+     * @param codec 저장 코덱 (null이면 자바 직렬화)
+     * @param flushIntervalMillis 변경 사항을 모아 기록하는 주기 (0 이하이면 매 변경마다 즉시 기록)
+     * @param flushBatchSize 이 개수만큼 변경이 쌓이면 주기를 기다리지 않고 기록
+     */
+    public FileProductRepository(BinaryCodec<Product> codec, long flushIntervalMillis, int flushBatchSize) {
+        this(StorageEngines.shared(DATA_FILE_NAME, StorageEngines.Type.LOG, Product::getId, codec),
+                flushIntervalMillis, flushBatchSize);
+    }
+
+    /**
+     * 저장 엔진을 직접 지정하는 생성자 (부하 테스트 등에서 메모리 엔진 사용).
+     * 같은 엔진으로 이미 열린 저장소가 있으면 그 pending/색인/플러셔를 함께 사용합니다 (쓰기 지연 설정도 처음 것을 따름).
+     */
+    public FileProductRepository(StorageEngine<String, Product> engine, long flushIntervalMillis, int flushBatchSize) {
+        this.engine = engine;
+        synchronized (SHARED) {
+            Shared existing = SHARED.get(engine);
+            this.shared = (existing != null) ? existing : new Shared();
+            shared.openCount++;
+            SHARED.put(engine, shared);
+        }
+        this.pending = shared.pending;
+        this.nameIndex = shared.names;
+        this.choseongIndex = shared.choseong;
+        this.categoryPartitions = shared.categoryPartitions;
+        this.indexedCategory = shared.indexedCategory;
+        this.priceIndex = shared.priceIndex;
+        this.indexedPrice = shared.indexedPrice;
+        this.salesRanking = shared.salesRanking;
+        this.indexedSales = shared.indexedSales;
+        synchronized (shared) {
+            if (!shared.loaded) {
+                shared.flusher = (flushIntervalMillis > 0)
+                        ? new WriteBehindFlusher<>("products", flushIntervalMillis, flushBatchSize, this::commit)
+                        : null;
+                loadDataFromFile();
+                shared.loaded = true;
+            }
+            this.flusher = shared.flusher;
+        }
     }
 
     private void loadDataFromFile() {
-        List<Product> products = FileManager.readFromFile(DATA_FILE_NAME);
+        List<Product> products = engine.values();
         for (Product product : products) {
-            productStore.put(product.getId(), product);
+            nameIndex.put(product.getId(), product.getName());
+            choseongIndex.put(product.getId(), product.getName());
+            indexCategory(product);
+            indexPrice(product);
+            indexSales(product);
         }
-        this.sequence = productStore.keySet().stream()
-                .map(id -> id.substring(1))
+        shared.sequence = products.stream()
+                .map(product -> product.getId().substring(1))
                 .mapToLong(Long::parseLong)
                 .max()
                 .orElse(0L);
     }
 
-    private void saveDataToFile() {
-        FileManager.writeToFile(DATA_FILE_NAME, new ArrayList<>(productStore.values()));
+    private static Map<ProductCategory, Set<String>> newCategoryPartitions() {
+        // 칸은 처음에 모두 만들어 두고 이후 Map 구조는 바꾸지 않음 → 조회는 잠금 없이 각 칸(동시성 Set)만 읽음
+        Map<ProductCategory, Set<String>> partitions = new EnumMap<>(ProductCategory.class);
+        for (ProductCategory category : ProductCategory.values()) {
+            partitions.put(category, new ConcurrentSkipListSet<>());
+        }
+        return partitions;
+    }
+
+    /**
+     * 상품을 현재 카테고리 칸으로 옮깁니다 (카테고리가 바뀌었으면 이전 칸에서 제거).
+     */
+    private void indexCategory(Product product) {
+        String id = product.getId();
+        ProductCategory current = product.getCategory();
+        ProductCategory previous = (current != null) ? indexedCategory.put(id, current) : indexedCategory.remove(id);
+        if (previous != null && previous != current) categoryPartitions.get(previous).remove(id);
+        if (current != null) categoryPartitions.get(current).add(id);
+    }
+
+    private void unindexCategory(String productId) {
+        ProductCategory previous = indexedCategory.remove(productId);
+        if (previous != null) categoryPartitions.get(previous).remove(productId);
+    }
+
+    /**
+     * 가격 색인의 키를 현재 가격으로 바꿉니다 (가격이 같으면 그대로).
+     */
+    private void indexPrice(Product product) {
+        PriceKey current = new PriceKey(product.getPrice(), product.getId());
+        PriceKey previous = indexedPrice.put(product.getId(), current);
+        if (current.equals(previous)) return;
+        if (previous != null) priceIndex.remove(previous);
+        priceIndex.add(current);
+    }
+
+    private void unindexPrice(String productId) {
+        PriceKey previous = indexedPrice.remove(productId);
+        if (previous != null) priceIndex.remove(previous);
+    }
+
+    /**
+     * 판매량 순위 색인의 키를 현재 판매량으로 바꿉니다 (판매량이 같으면 그대로).
+     */
+    private void indexSales(Product product) {
+        SalesKey current = new SalesKey(product.getSalesCount(), product.getId());
+        SalesKey previous = indexedSales.put(product.getId(), current);
+        if (current.equals(previous)) return;
+        if (previous != null) salesRanking.remove(previous);
+        salesRanking.add(current);
+    }
+
+    private void unindexSales(String productId) {
+        SalesKey previous = indexedSales.remove(productId);
+        if (previous != null) salesRanking.remove(previous);
+    }
+
+    /**
+     * 변경된 상품 ID를 기록 대상으로 등록합니다. 쓰기 지연을 끈 경우 바로 기록합니다.
+     */
+    private void markDirty(String productId) {
+        if (flusher != null) {
+            flusher.markDirty(productId);
+        } else {
+            commit(Set.of(productId));
+        }
+    }
+
+    /**
+     * 모인 변경을 pending의 최신 값 기준으로 엔진에 한 번에 기록하고, 기록한 값은 pending에서 뺍니다.
+     * 보관본은 교체만 되고 고쳐지지 않으므로 플러셔 스레드가 잠금 없이 직렬화해도 변경 도중의 상태를 쓰지 않습니다.
+     * 기록하는 사이 다시 바뀐 상품은 pending에 남겨 둡니다 (다음 커밋 대상).
+     */
+    private void commit(Set<String> productIds) {
+        Map<String, Product> batch = new HashMap<>();
+        List<Product> puts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (String id : productIds) {
+            Product product = pending.get(id);
+            if (product == null) continue; // 이미 기록됨
+            batch.put(id, product);
+            if (product == DELETED) {
+                deletes.add(id);
+            } else {
+                puts.add(product);
+            }
+        }
+        engine.apply(puts, deletes); // 로그 엔진: 로그가 충분히 쌓이면 세그먼트로 봉인되어 백그라운드에서 압축
+        for (Map.Entry<String, Product> entry : batch.entrySet()) {
+            pending.remove(entry.getKey(), entry.getValue()); // 엔진에 들어간 뒤에 빼야 조회가 빈틈없이 이어짐
+        }
+    }
+
+    /**
+     * 상품의 현재 보관본 (기록 전 변경이 있으면 그것, 없으면 엔진의 값)
+     * @return 없거나 삭제되었으면 null
+     */
+    private Product current(String productId) {
+        Product product = pending.get(productId);
+        if (product == null) product = engine.get(productId);
+        return (product == DELETED) ? null : product;
+    }
+
+    /**
+     * 전체 상품의 현재 보관본 (엔진 전체 + 기록 전 변경)
+     * pending을 먼저 복사해야 그 사이 기록되어 pending에서 빠진 변경도 엔진 쪽에서 보임
+     */
+    private Collection<Product> currentProducts() {
+        Map<String, Product> unflushed = new HashMap<>(pending);
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : engine.values()) {
+            products.put(product.getId(), product);
+        }
+        for (Map.Entry<String, Product> entry : unflushed.entrySet()) {
+            if (entry.getValue() == DELETED) {
+                products.remove(entry.getKey());
+            } else {
+                products.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return products.values();
+    }
+
+    /**
+     * 아직 기록되지 않은 변경 사항을 즉시 파일에 반영합니다.
+     */
+    public void flush() {
+        if (flusher != null) {
+            flusher.flush();
+        }
+    }
+
+    /**
+     * 남은 변경을 기록합니다. 같은 엔진을 쓰는 마지막 저장소였으면 백그라운드 플러셔와 저장 엔진도 닫습니다.
+     */
+    public void close() {
+        synchronized (SHARED) {
+            if (closed) return;
+            closed = true;
+            if (--shared.openCount > 0) {
+                flush();
+                return;
+            }
+            // 남은 변경을 다 기록한 뒤에 빼야 곧바로 다시 여는 저장소가 엔진에서 최신 상태를 읽음
+            if (flusher != null) {
+                flusher.shutdown();
+            }
+            engine.close();
+            SHARED.remove(engine);
+        }
     }
 
     /*
@@ -48,14 +317,28 @@ public class FileProductRepository implements ProductRepository {
      */
     @Override
     public Product save(Product product) {
-        if (product.getId() == null || product.getId().isBlank()) {
-            String newId = generateId();
-            product.setId(newId);
-            product.setRegistrationDateTime(LocalDateTime.now());
+        synchronized (shared) {
+            if (product.getId() == null || product.getId().isBlank()) {
+                String newId = generateId();
+                product.setId(newId);
+                product.setRegistrationDateTime(LocalDateTime.now());
+            }
+            store(new Product(product));
+            return product;
         }
-        productStore.put(product.getId(), product);
-        saveDataToFile();
-        return product;
+    }
+
+    /**
+     * 보관본을 바꾸고 모든 색인을 갱신합니다 (보관본은 이후 고치지 않음).
+     */
+    private void store(Product stored) {
+        pending.put(stored.getId(), stored);
+        nameIndex.put(stored.getId(), stored.getName());
+        choseongIndex.put(stored.getId(), stored.getName());
+        indexCategory(stored);
+        indexPrice(stored);
+        indexSales(stored);
+        markDirty(stored.getId());
     }
 
     @Override
@@ -66,7 +349,8 @@ public class FileProductRepository implements ProductRepository {
 
     @Override
     public Optional<Product> findById(String productId) {
-        return Optional.ofNullable(productStore.get(productId));
+        Product product = current(productId);
+        return (product != null) ? Optional.of(new Product(product)) : Optional.empty();
     }
 
     @Override
@@ -74,10 +358,35 @@ public class FileProductRepository implements ProductRepository {
         if (name == null || name.isBlank()) {
             return new ArrayList<>();
         }
+        if (ChoseongIndex.hasChoseong(name)) {
+            return toProducts(choseongIndex.search(name));
+        }
         String lowerCaseName = name.toLowerCase();
-        return productStore.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(lowerCaseName))
-                .collect(Collectors.toList());
+        List<String> candidates = nameIndex.candidates(name);
+        if (candidates == null) {
+            // 1글자 등 색인으로 좁힐 수 없는 검색어는 전체 검사
+            return currentProducts().stream()
+                    .filter(p -> p.getName().toLowerCase().contains(lowerCaseName))
+                    .map(Product::new)
+                    .collect(Collectors.toList());
+        }
+        List<Product> result = new ArrayList<>(candidates.size());
+        for (String id : candidates) {
+            Product product = current(id);
+            if (product != null && product.getName().toLowerCase().contains(lowerCaseName)) {
+                result.add(new Product(product));
+            }
+        }
+        return result;
+    }
+
+    private List<Product> toProducts(Collection<String> ids) {
+        List<Product> products = new ArrayList<>();
+        for (String id : ids) {
+            Product product = current(id);
+            if (product != null) products.add(new Product(product));
+        }
+        return products;
     }
 
     @Override
@@ -85,33 +394,52 @@ public class FileProductRepository implements ProductRepository {
         if (category == null || category.isBlank()) {
             return new ArrayList<>();
         }
-        return productStore.values().stream()
-                .filter(p -> p.getCategory().name().equalsIgnoreCase(category))
-                .collect(Collectors.toList());
+        for (ProductCategory candidate : ProductCategory.values()) {
+            if (!candidate.name().equalsIgnoreCase(category)) continue;
+            List<Product> result = new ArrayList<>();
+            for (String id : categoryPartitions.get(candidate)) {
+                Product product = current(id);
+                // 보관본 교체와 칸 이동 사이에 읽었으면 칸과 카테고리가 잠시 다를 수 있음 → 보관본 기준으로 확인
+                if (product != null && product.getCategory() == candidate) result.add(new Product(product));
+            }
+            return result;
+        }
+        return new ArrayList<>();
     }
 
     @Override
     public List<Product> findAll() {
-        return productStore.values().stream()
+        return currentProducts().stream()
                 .sorted(Comparator.comparing(Product::getId))
+                .map(Product::new)
                 .collect(Collectors.toList());
     }
 
     @Override
     public boolean deleteById(String productId) {
-        if (productStore.remove(productId) != null) {
-            saveDataToFile();
-            return true;
+        synchronized (shared) {
+            if (current(productId) != null) {
+                pending.put(productId, DELETED);
+                nameIndex.remove(productId);
+                choseongIndex.remove(productId);
+                unindexCategory(productId);
+                unindexPrice(productId);
+                unindexSales(productId);
+                markDirty(productId);
+                return true;
+            }
+            return false;
         }
-        return false;
     }
 
     /**
      * "P001" 형식의 새로운 상품 ID를 생성하여 반환합니다.
      */
     public String generateId() {
-        this.sequence++;
-        return String.format("P%03d", this.sequence);
+        synchronized (shared) {
+            shared.sequence++;
+            return String.format("P%03d", shared.sequence);
+        }
     }
 
     // =================================================================
@@ -120,39 +448,183 @@ public class FileProductRepository implements ProductRepository {
 
     @Override
     public List<Product> findAll(int page, int pageSize) {
-        return productStore.values().stream()
+        return currentProducts().stream()
                 .sorted(Comparator.comparing(Product::getId))
                 .skip((long) (page - 1) * pageSize)
                 .limit(pageSize)
+                .map(Product::new)
                 .collect(Collectors.toList());
     }
 
     @Override
     public long countAll() {
-        return productStore.size();
+        return indexedPrice.size(); // 가격 색인에는 모든 상품이 한 번씩 들어 있음
     }
 
     @Override
     public List<Product> findBestSellers(int limit) {
-        return productStore.values().stream()
-                .sorted(Comparator.comparingInt(Product::getSalesCount).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<Product> result = new ArrayList<>(Math.max(0, limit));
+        for (SalesKey key : salesRanking) {
+            if (result.size() >= limit) break;
+            Product product = current(key.id);
+            if (product != null) result.add(new Product(product));
+        }
+        return result;
+    }
+
+    /**
+     * 재고를 delta만큼 늘리거나 줄이되 0 ~ maxStock을 벗어나지 않게 합니다 (확인과 변경을 한 잠금 안에서 처리).
+     * @return 상품이 없거나 결과가 0 ~ maxStock을 벗어나면 false
+     */
+    @Override
+    public boolean adjustStock(String productId, int delta, int maxStock) {
+        synchronized (shared) {
+            Product product = current(productId);
+            if (product == null) return false;
+            long stock = (long) product.getStock() + delta;
+            if (stock < 0 || stock > maxStock) return false;
+            Product updated = new Product(product);
+            updated.setStock((int) stock);
+            store(updated);
+            return true;
+        }
+    }
+
+    /**
+     * 주문 확정: 모든 상품의 재고를 먼저 확인한 뒤 한 잠금 안에서 재고 차감과 판매량 누적을 함께 반영합니다.
+     * 중간에 재고가 모자라 일부 상품만 차감된 채 남는 일이 없습니다.
+     * @param quantities 상품 ID → 판매 수량 (1 이상)
+     * @return 없는 상품이 있거나 재고가 모자라면 아무것도 바꾸지 않고 false
+     */
+    @Override
+    public boolean sell(Map<String, Integer> quantities) {
+        synchronized (shared) {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                if (entry.getValue() <= 0) throw new IllegalArgumentException("판매 수량은 1 이상이어야 합니다.");
+                Product product = current(entry.getKey());
+                if (product == null || product.getStock() < entry.getValue()) return false;
+            }
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                Product product = current(entry.getKey());
+                Product updated = new Product(product);
+                updated.setStock(product.getStock() - entry.getValue());
+                updated.setSalesCount(product.getSalesCount() + entry.getValue());
+                store(updated);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 주문 취소: sell로 반영했던 재고를 되돌리고 판매량을 빼서 순위 색인을 다시 맞춥니다 (한 잠금 안에서 처리).
+     * 판매량은 0 아래로 내려가지 않으며, 그 사이 삭제된 상품은 건너뜁니다.
+     * @param quantities 상품 ID → 취소 수량 (1 이상)
+     */
+    @Override
+    public void cancelSale(Map<String, Integer> quantities) {
+        synchronized (shared) {
+            for (Integer quantity : quantities.values()) {
+                if (quantity <= 0) throw new IllegalArgumentException("취소 수량은 1 이상이어야 합니다.");
+            }
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                Product product = current(entry.getKey());
+                if (product == null) continue;
+                Product updated = new Product(product);
+                updated.setStock(product.getStock() + entry.getValue());
+                updated.setSalesCount(Math.max(0, product.getSalesCount() - entry.getValue()));
+                store(updated);
+            }
+        }
     }
 
     @Override
     public List<Product> findNewArrivals(int limit) {
-        return productStore.values().stream()
+        return currentProducts().stream()
                 .sorted(Comparator.comparing(Product::getRegistrationDateTime).reversed())
                 .limit(limit)
+                .map(Product::new)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Product> findByPriceRange(double minPrice, double maxPrice) {
-        return productStore.values().stream()
-                .filter(p -> p.getPrice() >= minPrice && (maxPrice == -1 || p.getPrice() < maxPrice))
-                .sorted(Comparator.comparing(Product::getPrice))
-                .collect(Collectors.toList());
+        // ID ""는 같은 가격의 어떤 상품보다 앞 → 하한 포함(>= minPrice), 상한 제외(< maxPrice)
+        PriceKey from = new PriceKey(minPrice, "");
+        Set<PriceKey> range;
+        if (maxPrice == -1) {
+            range = priceIndex.tailSet(from, true);
+        } else if (maxPrice <= minPrice) {
+            return new ArrayList<>();
+        } else {
+            range = priceIndex.subSet(from, true, new PriceKey(maxPrice, ""), false);
+        }
+        List<Product> result = new ArrayList<>();
+        for (PriceKey key : range) {
+            Product product = current(key.id);
+            if (product != null) result.add(new Product(product));
+        }
+        return result;
+    }
+
+    /**
+     * 판매량 순위 키 (판매량 내림차순 → ID 순)
+     */
+    private static final class SalesKey implements Comparable<SalesKey> {
+        final int salesCount;
+        final String id;
+
+        SalesKey(int salesCount, String id) {
+            this.salesCount = salesCount;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(SalesKey other) {
+            int bySales = Integer.compare(other.salesCount, salesCount);
+            return (bySales != 0) ? bySales : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SalesKey)) return false;
+            SalesKey other = (SalesKey) o;
+            return salesCount == other.salesCount && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * salesCount + id.hashCode();
+        }
+    }
+
+    /**
+     * 가격 색인 키 (가격 → ID 순)
+     */
+    private static final class PriceKey implements Comparable<PriceKey> {
+        final double price;
+        final String id;
+
+        PriceKey(double price, String id) {
+            this.price = price;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Double.compare(price, other.price);
+            return (byPrice != 0) ? byPrice : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PriceKey)) return false;
+            PriceKey other = (PriceKey) o;
+            return Double.compare(price, other.price) == 0 && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(price) + id.hashCode();
+        }
     }
 }
\ No newline at end of file
@@ -2,14 +2,113 @@ package com.shopping.repository;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
+import com.shopping.model.Admin;
 import com.shopping.model.User;
-import com.shopping.persistence.FileManager;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
 import com.shopping.util.Constants;
+import com.shopping.util.NGramIndex;
 
+/**
+ * User 저장소 - 저장 방식은 StorageEngine이 담당 (기본: 변경마다 전체 스냅샷 기록)
+ * - 기동 시 한 번만 읽고 이후 조회는 메모리에서: ID는 엔진의 기본 키, 이메일은 보조 HashMap 인덱스로 O(1)
+ * - 이름 부분 검색은 N-gram 역색인(NGramIndex)으로 후보만 확인
+ * - 전체 목록은 정렬된 ID 색인(ConcurrentSkipListSet)으로 커서 페이지 조회 → 한 페이지 분량만 꺼냄
+ * - ID/이메일 앞에 블룸 필터: 새 가입자처럼 없는 키의 중복 검사는 엔진 잠금 없이 바로 false
+ * - 같은 파일을 쓰는 저장소 인스턴스들은 엔진(과 인덱스, 필터) 하나를 공유 (StorageEngines.shared)
+ * - 엔진에는 저장 시점의 복사본을 두고 조회 결과도 복사본으로 돌려줌: 호출자가 고치다 저장에 실패해도
+ *   보관본과 이메일/이름 색인은 그대로 (save를 거쳐야만 반영)
+ * - 이메일 중복은 엔진이 잠금 안에서 한 번 더 검사 → 동시 가입이 같은 이메일을 둘 다 차지하지 못함
+ * - 사용자 ID 해시로 여러 조각 파일에 나눠 저장 가능: 다른 조각의 사용자 쓰기는 동시에, 쓰기마다 다시 쓰는 양은 1/N
+ *   (기본은 예전처럼 users.dat 하나, -Dshopping.storage.shards.users=N으로 켬)
+ */
 public class FileUserRepository implements UserRepository {
     
     private static final String FILE_NAME = Constants.USER_DATA_FILE;
+    private static final String EMAIL_INDEX = "email";
+    private static final int EXPECTED_ACCOUNTS = 10_000;          // 넘으면 엔진이 필터를 다시 만듦
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01; // "있을 수도 있음" 중 실제로 없는 비율
+    private static final int DEFAULT_SHARDS = 1;                  // 조각 나누기는 설정으로 켬
+    private final StorageEngine<String, User> engine;
+    private final NGramIndex<String> nameIndex;
+    private final ConcurrentSkipListSet<String> sortedIds;
+
+    // 엔진별 이름/ID 색인 (같은 엔진을 쓰는 저장소 인스턴스끼리 공유)
+    private static final Map<StorageEngine<String, User>, SecondaryIndexes> INDEXES = new WeakHashMap<>();
+
+    /**
+     * 엔진 하나에 딸린 보조 색인 - 엔진 변경 알림 하나로 함께 갱신
+     */
+    private static final class SecondaryIndexes {
+        final NGramIndex<String> names = new NGramIndex<>();
+        final ConcurrentSkipListSet<String> ids = new ConcurrentSkipListSet<>(); // 조각 엔진은 동시에 알림
+    }
+
+    public FileUserRepository() {
+        this(ModelCodecs.USER);
+    }
+
+    // 저장 형식(코덱) 지정 생성자 - 기존 자바 직렬화 파일도 그대로 읽음
+    public FileUserRepository(BinaryCodec<User> codec) {
+        this(StorageEngines.shared(FILE_NAME, StorageEngines.Type.SNAPSHOT, DEFAULT_SHARDS, User::getId, codec));
+    }
+
+    // 저장 엔진 직접 지정 (부하 테스트 등에서 메모리 엔진 사용)
+    public FileUserRepository(StorageEngine<String, User> engine) {
+        this.engine = engine;
+        engine.addUniqueIndex(EMAIL_INDEX, User::getEmail);
+        engine.enableBloomFilter(EXPECTED_ACCOUNTS, BLOOM_FALSE_POSITIVE_RATE);
+        SecondaryIndexes indexes = indexesFor(engine);
+        this.nameIndex = indexes.names;
+        this.sortedIds = indexes.ids;
+    }
+
+    /**
+     * 엔진의 보조 색인 - 처음 요청 시 만들고 엔진 변경 알림으로 저장/삭제마다 갱신
+     */
+    private static SecondaryIndexes indexesFor(StorageEngine<String, User> engine) {
+        synchronized (INDEXES) {
+            SecondaryIndexes indexes = INDEXES.get(engine);
+            if (indexes == null) {
+                SecondaryIndexes created = new SecondaryIndexes();
+                engine.addListener(new StorageEngine.ChangeListener<String, User>() {
+                    @Override
+                    public void onPut(String id, User user) {
+                        created.names.put(id, user.getName());
+                        created.ids.add(id);
+                    }
+
+                    @Override
+                    public void onRemove(String id) {
+                        created.names.remove(id);
+                        created.ids.remove(id);
+                    }
+                });
+                INDEXES.put(engine, created);
+                indexes = created;
+            }
+            return indexes;
+        }
+    }
+
+    // 통합 계정 인덱스(AccountIndex)가 변경 알림을 받기 위한 엔진 접근
+    StorageEngine<String, User> engine() {
+        return engine;
+    }
+
+    // 보관본은 넣은 뒤 고치지 않음 - 호출자에게는 항상 복사본을 줌 (관리자 계정은 Admin 그대로)
+    private static User copyOf(User user) {
+        return (user instanceof Admin admin) ? new Admin(admin) : new User(user);
+    }
 
     @Override
     public User save(User user) {
@@ -17,40 +116,57 @@ public class FileUserRepository implements UserRepository {
     	if (existing != null && !existing.getId().equals(user.getId())) {
     	    throw new IllegalArgumentException("이미 존재하는 이메일입니다: " + user.getEmail());
     	}
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-
-        boolean updated = false;
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getId().equals(user.getId())) {
-                users.set(i, user);
-                updated = true;
-                break;
-            }
-        }
-        if (!updated) {
-            users.add(user);
-        }
-        FileManager.writeToFile(FILE_NAME, users);
+        engine.put(copyOf(user)); // 같은 ID가 있으면 교체, 그 사이 다른 계정이 이메일을 차지했으면 엔진이 거부
         return user;
     }
 
+    // 일괄 저장 - 한 번만 기록하고, 실패한 레코드는 건너뜀 (importAll 참고)
     @Override
     public List<User> saveAll(List<User> userList) {
+        BulkImportResult result = importAll(userList);
+        Set<Long> failed = new HashSet<>();
+        for (BulkImportResult.Failure failure : result.getFailures()) {
+            System.err.println("저장 실패: " + failure.getReason());
+            failed.add(failure.getPosition());
+        }
         List<User> savedUsers = new ArrayList<>();
-        for (User user : userList) {
-            try {
-                savedUsers.add(save(user));
-            } catch (IllegalArgumentException e) {
-                System.err.println("저장 실패: " + e.getMessage());
-            }
+        for (int i = 0; i < userList.size(); i++) {
+            if (!failed.contains((long) i)) savedUsers.add(userList.get(i));
         }
         return savedUsers;
     }
 
+    /**
+     * 일괄 등록: 이메일 중복을 메모리에서 검사하고 통과한 레코드를 한 번에 기록
+     * - save를 반복하는 것과 결과는 같지만 파일 쓰기는 한 번
+     */
+    public BulkImportResult importAll(List<User> userList) {
+        return importAll(userList.iterator(), Math.max(1, userList.size()));
+    }
+
+    /**
+     * 스트리밍 일괄 등록: 입력을 batchSize건씩 읽어 검증/기록 (입력 전체를 메모리에 올리지 않음)
+     * - 배치마다 한 번 기록하므로, 전체 스냅샷 엔진에서는 batchSize를 크게 잡을수록 쓰기가 줄어듦
+     */
+    public BulkImportResult importAll(Iterator<User> users, int batchSize) {
+        Iterator<User> copies = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return users.hasNext();
+            }
+
+            @Override
+            public User next() {
+                User user = users.next();
+                return (user != null) ? copyOf(user) : null;
+            }
+        };
+        return new AccountImporter<>(engine, EMAIL_INDEX, User::getId, User::getEmail, true).importAll(copies, batchSize);
+    }
+
     @Override
     public boolean existsById(String id) {
-    	
-        return findById(id) != null;
+        return engine.containsKey(id);
     }
 
     @Override
@@ -60,70 +176,84 @@ public class FileUserRepository implements UserRepository {
 
     @Override
     public User findById(String id) {
-        return FileManager.readFromFile(FILE_NAME).stream()
-                .filter(obj -> obj instanceof User)   // User인 것만
-                .map(obj -> (User) obj)               // 캐스팅
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        User user = engine.get(id);
+        return (user != null) ? copyOf(user) : null;
     }
 
 
     @Override
     public User findByEmail(String email) {
-        return (User) FileManager.readFromFile(FILE_NAME).stream()
-        		.filter(obj -> obj instanceof User)   // User인 것만
-                .map(obj -> (User) obj)               // 캐스팅
-                .filter(u -> u.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        User user = engine.getByIndex(EMAIL_INDEX, email);
+        return (user != null) ? copyOf(user) : null;
     }
     
     // 이름 일부 포함 검색 (부분 일치)
     @Override
     public List<User> findByNameContaining(String keyword) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-        return users.stream()
-                .filter(obj -> obj instanceof User)
-                .map(obj -> (User) obj)
-                .filter(u -> u.getName() != null && u.getName().contains(keyword))
-                .toList();
+        List<String> candidates = nameIndex.candidates(keyword);
+        if (candidates == null) {
+            // 1글자 등 색인으로 좁힐 수 없는 검색어는 전체 검사
+            return engine.values().stream()
+                    .filter(u -> u.getName() != null && u.getName().contains(keyword))
+                    .map(FileUserRepository::copyOf)
+                    .toList();
+        }
+        List<User> result = new ArrayList<>();
+        for (String id : candidates) {
+            User user = engine.get(id);
+            if (user != null && user.getName() != null && user.getName().contains(keyword)) {
+                result.add(copyOf(user));
+            }
+        }
+        return result;
     }
 
     @Override
     public List<User> findAll() {
-        return FileManager.readFromFile(FILE_NAME);
+        List<User> users = engine.values();
+        users.replaceAll(FileUserRepository::copyOf); // values()는 엔진이 새로 만든 목록
+        return users;
     }
 
+    /**
+     * 커서 페이지 조회: 정렬된 ID 색인에서 afterId 다음부터 limit건만 꺼냄 (전체 목록을 만들지 않음)
+     */
     @Override
-    public boolean deleteById(String id) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-        boolean removed = users.removeIf(u -> u.getId().equals(id));
-        if (removed) {
-            FileManager.writeToFile(FILE_NAME, users);
+    public CursorPage<User> findPageAfter(String afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit <= 0");
+        List<User> page = new ArrayList<>(limit);
+        Iterator<String> ids = (afterId == null) ? sortedIds.iterator() : sortedIds.tailSet(afterId, false).iterator();
+        String lastId = null;
+        while (ids.hasNext() && page.size() < limit) {
+            String id = ids.next();
+            User user = engine.get(id);
+            if (user == null) continue; // 색인을 읽는 사이 삭제됨
+            page.add(copyOf(user));
+            lastId = id;
         }
-        return removed;
+        return new CursorPage<>(page, ids.hasNext() ? lastId : null);
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return engine.remove(id);
     }
 
     @Override
     public long count() {
-        return findAll().size();
+        return engine.size();
     }
 
     @Override
     public void deleteAll() {
-        FileManager.writeToFile(FILE_NAME, new ArrayList<>());
+        engine.clear();
     }
 
     @Override
     public User update(User user) {
-        List<User> users = FileManager.readFromFile(FILE_NAME);
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getId().equals(user.getId())) {
-                users.set(i, user);
-                FileManager.writeToFile(FILE_NAME, users);
-                return user;
-            }
+        if (engine.containsKey(user.getId())) {
+            engine.put(copyOf(user));
+            return user;
         }
         throw new IllegalArgumentException("업데이트할 사용자를 찾을 수 없습니다: " + user.getId());
     }
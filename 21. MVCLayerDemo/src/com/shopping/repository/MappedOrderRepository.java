@@ -0,0 +1,288 @@
+package com.shopping.repository;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderStatus;
+import com.shopping.persistence.ModelCodecs;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * MappedOrderRepository
+ * ---------------------
+ * FileChannel.map 기반 주문 저장소 (OrderRepository 구현체)
+ * - 파일을 고정 크기 세그먼트로 나누고, 세그먼트마다 메모리 매핑
+ * - 주문 ID → 레코드 위치(offset) 인덱스를 메모리에 유지
+ * - 상태 변경은 레코드의 상태 바이트 1개만 제자리(in-place) 갱신 → 주문 전체 재기록 없음
+ *
+ * 레코드 형식: [payloadLen(4)][flags(1)][status(1)][payload(ModelCodecs.ORDER, 상태는 PENDING 고정)]
+ * - payloadLen이 0이면 해당 세그먼트의 데이터 끝 (길이는 마지막에 기록 → 쓰다 만 레코드는 무시됨)
+ * - 레코드는 세그먼트 경계를 넘지 않음 (공간이 부족하면 다음 세그먼트에서 시작)
+ */
+public class MappedOrderRepository implements OrderRepository {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20; // 1 MiB
+
+    private static final int HEADER_SIZE = 6;
+    private static final int FLAGS_OFFSET = 4;
+    private static final int STATUS_OFFSET = 5;
+    private static final byte FLAG_DELETED = 0;
+    private static final byte FLAG_LIVE = 1;
+
+    private final Path storePath;
+    private final int segmentSize;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private final Map<String, Long> offsets = new HashMap<>();      // 주문 ID → 레코드 위치
+    private final Map<String, Order> cache = new LinkedHashMap<>(); // 조회용 캐시
+    private long writePosition;                                     // 다음 레코드를 쓸 위치
+
+    public MappedOrderRepository(String filePath) {
+        this(filePath, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedOrderRepository(String filePath, int segmentSize) {
+        if (segmentSize <= HEADER_SIZE) throw new IllegalArgumentException("segmentSize too small");
+        this.storePath = Paths.get(filePath);
+        this.segmentSize = segmentSize;
+        try {
+            if (storePath.getParent() != null) Files.createDirectories(storePath.getParent());
+            this.channel = FileChannel.open(storePath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order segments: " + storePath, e);
+        }
+    }
+
+    // ---------- 인터페이스 구현 ----------
+
+    /**
+     * 주문 저장 (Create/Update)
+     * - 상태 외에 바뀐 것이 없으면 상태 바이트만 갱신
+     * - 내용이 바뀌었으면 기존 레코드를 삭제 표시하고 새 레코드를 뒤에 추가
+     */
+    @Override
+    public synchronized void save(Order order) {
+        if (order == null) throw new IllegalArgumentException("order is null");
+        if (order.getOrderId() == null || order.getOrderId().isBlank()) {
+            order.setOrderId(nextId());
+        }
+
+        byte[] payload = encode(order);
+        Long existing = offsets.get(order.getOrderId());
+        if (existing != null && samePayload(existing, payload)) {
+            writeStatus(existing, order.getStatus());
+        } else {
+            if (existing != null) markDeleted(existing);
+            offsets.put(order.getOrderId(), append(payload, order.getStatus()));
+        }
+        cache.put(order.getOrderId(), order);
+    }
+
+    @Override
+    public synchronized Optional<Order> findById(String orderId) {
+        return Optional.ofNullable(cache.get(orderId));
+    }
+
+    @Override
+    public synchronized List<Order> findAll() {
+        return new ArrayList<>(cache.values());
+    }
+
+    @Override
+    public synchronized List<Order> findByUserId(String userId) {
+        return cache.values().stream()
+                .filter(o -> Objects.equals(o.getUserId(), userId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<Order> findByStatus(OrderStatus status) {
+        return cache.values().stream()
+                .filter(o -> o.getStatus() == status)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<Order> findByDateRange(LocalDate from, LocalDate to) {
+        return cache.values().stream()
+                .filter(o -> {
+                    LocalDate d = o.getOrderDate().toLocalDate();
+                    return (from == null || !d.isBefore(from))
+                        && (to == null   || !d.isAfter(to));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 주문 상태 업데이트: 매핑된 페이지의 상태 바이트 1개만 기록
+     * - 상태 전이 검증은 Order.changeStatus가 수행
+     */
+    @Override
+    public synchronized boolean updateStatus(String orderId, OrderStatus newStatus) {
+        Order o = cache.get(orderId);
+        if (o == null) return false;
+        o.changeStatus(newStatus);
+        writeStatus(offsets.get(orderId), newStatus);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(String orderId) {
+        Long offset = offsets.remove(orderId);
+        if (offset == null) return false;
+        markDeleted(offset);
+        cache.remove(orderId);
+        return true;
+    }
+
+    /**
+     * 주문 ID 자동 생성기 (O1, O2, O3 ...)
+     */
+    @Override
+    public synchronized String nextId() {
+        long max = cache.keySet().stream()
+                .filter(k -> k.startsWith("O"))
+                .map(k -> k.substring(1))
+                .filter(s -> s.matches("\\d+"))
+                .mapToLong(Long::parseLong)
+                .max().orElse(0L);
+        return "O" + (max + 1);
+    }
+
+    /**
+     * 매핑된 변경 내용을 디스크에 강제 기록
+     */
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- 내부 유틸 ----------
+
+    /**
+     * 세그먼트를 처음부터 훑어 인덱스/캐시 구성
+     * - 같은 ID가 여러 번 나오면 뒤의 레코드가 최신
+     */
+    private void loadAll() throws IOException {
+        int segmentCount = (int) ((channel.size() + segmentSize - 1) / segmentSize);
+        writePosition = 0;
+        for (int s = 0; s < segmentCount; s++) {
+            MappedByteBuffer segment = segment(s);
+            int pos = 0;
+            while (pos + HEADER_SIZE <= segmentSize) {
+                int length = segment.getInt(pos);
+                if (length <= 0 || pos + HEADER_SIZE + length > segmentSize) break;
+
+                if (segment.get(pos + FLAGS_OFFSET) == FLAG_LIVE) {
+                    byte[] payload = new byte[length];
+                    segment.get(pos + HEADER_SIZE, payload);
+                    Order stored = ModelCodecs.ORDER.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                    OrderStatus status = ModelCodecs.statusOf(segment.get(pos + STATUS_OFFSET));
+                    Order order = new Order(stored.getOrderId(), stored.getUserId(), stored.getItems(),
+                            stored.getOrderDate(), status);
+                    Long previous = offsets.put(order.getOrderId(), (long) s * segmentSize + pos);
+                    if (previous != null) markDeleted(previous);
+                    cache.put(order.getOrderId(), order);
+                }
+                pos += HEADER_SIZE + length;
+                writePosition = (long) s * segmentSize + pos;
+            }
+        }
+    }
+
+    /**
+     * 상태를 제외한 주문 내용 인코딩 (상태는 레코드 헤더의 상태 바이트가 담당)
+     */
+    private byte[] encode(Order order) {
+        Order body = new Order(order.getOrderId(), order.getUserId(), order.getItems(),
+                order.getOrderDate(), OrderStatus.PENDING);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ModelCodecs.ORDER.write(new DataOutputStream(bytes), body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (bytes.size() + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("주문 레코드가 세그먼트 크기를 초과합니다: " + order.getOrderId());
+        }
+        return bytes.toByteArray();
+    }
+
+    private long append(byte[] payload, OrderStatus status) {
+        int need = HEADER_SIZE + payload.length;
+        long offset = writePosition;
+        if (offsetInSegment(offset) + need > segmentSize) {
+            offset = (offset / segmentSize + 1) * segmentSize; // 다음 세그먼트 시작
+        }
+        MappedByteBuffer segment = segment((int) (offset / segmentSize));
+        int pos = offsetInSegment(offset);
+        segment.put(pos + FLAGS_OFFSET, FLAG_LIVE);
+        segment.put(pos + STATUS_OFFSET, statusByte(status));
+        segment.put(pos + HEADER_SIZE, payload);
+        segment.putInt(pos, payload.length); // 길이를 마지막에 기록 → 레코드 완성
+        writePosition = offset + need;
+        return offset;
+    }
+
+    private boolean samePayload(long offset, byte[] payload) {
+        MappedByteBuffer segment = segment((int) (offset / segmentSize));
+        int pos = offsetInSegment(offset);
+        if (segment.getInt(pos) != payload.length) return false;
+        byte[] stored = new byte[payload.length];
+        segment.get(pos + HEADER_SIZE, stored);
+        return Arrays.equals(stored, payload);
+    }
+
+    private void writeStatus(long offset, OrderStatus status) {
+        segment((int) (offset / segmentSize)).put(offsetInSegment(offset) + STATUS_OFFSET, statusByte(status));
+    }
+
+    private void markDeleted(long offset) {
+        segment((int) (offset / segmentSize)).put(offsetInSegment(offset) + FLAGS_OFFSET, FLAG_DELETED);
+    }
+
+    private byte statusByte(OrderStatus status) {
+        try {
+            return (byte) ModelCodecs.statusCode(status);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private int offsetInSegment(long offset) {
+        return (int) (offset % segmentSize);
+    }
+
+    /**
+     * index번째 세그먼트 매핑 (필요하면 파일을 늘려 새로 매핑)
+     */
+    private MappedByteBuffer segment(int index) {
+        try {
+            while (segments.size() <= index) {
+                long start = (long) segments.size() * segmentSize;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, segmentSize));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map order segment: " + storePath, e);
+        }
+        return segments.get(index);
+    }
+}
@@ -1,6 +1,7 @@
 package com.shopping.repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import com.shopping.model.Product;
 
@@ -31,6 +32,12 @@ public interface ProductRepository {
 
     List<Product> findBestSellers(int limit); // 베스트셀러 상품 조회
 
+    boolean adjustStock(String productId, int delta, int maxStock); // 재고 증감 (입고 시, 0~maxStock을 벗어나면 false)
+
+    boolean sell(Map<String, Integer> quantities); // 주문 확정: 재고 차감 + 판매량 누적을 한꺼번에 (하나라도 모자라면 아무것도 바꾸지 않고 false)
+
+    void cancelSale(Map<String, Integer> quantities); // 주문 취소: 재고 복구 + 판매량 되돌림 (판매량은 0 아래로 내려가지 않음, 삭제된 상품은 건너뜀)
+
     List<Product> findNewArrivals(int limit); // 신상품 조회
 
     List<Product> findByPriceRange(double minPrice, double maxPrice); // 가격대별 상품 조회
@@ -15,6 +15,9 @@ public interface UserRepository {
     List<User> findByNameContaining(String keyword);
     List<User> findAll();
 
+    // ID 오름차순 페이지 조회 - afterId보다 큰 ID부터 최대 limit건 (afterId가 null이면 처음부터)
+    CursorPage<User> findPageAfter(String afterId, int limit);
+
     boolean deleteById(String id);
     long count();
     void deleteAll();
@@ -1,11 +1,16 @@
 package com.shopping.service;
 
+import com.shopping.Auth.SessionRegistry;
 import com.shopping.model.Admin;
 import com.shopping.model.User;
 import com.shopping.model.Role;
+import com.shopping.repository.AccountIndex;
 import com.shopping.repository.AdminRepository;
 import com.shopping.repository.UserRepository;
 import com.shopping.util.PasswordEncoder;
+import com.shopping.util.PasswordVerifier;
+
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * User와 Admin 계정을 모두 인증하는 서비스
@@ -15,16 +20,56 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
+    private final AccountIndex accountIndex; // null이면 사용자 → 관리자 순서로 이메일 검색
+    private final PasswordVerifier passwordVerifier; // null이면 호출한 스레드에서 바로 확인
+    private final SessionRegistry sessionRegistry;   // 토큰 기반 동시 세션
     
-    private Object loggedInUser; // 현재 로그인한 객체
+    private volatile String currentToken; // 이 콘솔의 현재 세션 토큰 (로그인 정보는 세션 저장소에만 보관)
     
+    /**
+     * 현재 로그인한 객체 (세션 저장소에서 조회, 로그아웃했거나 유휴 만료되었으면 null)
+     */
     public Object getLoggedInUser() {
-        return loggedInUser;
+        SessionRegistry.Entry session = currentSession();
+        return (session != null) ? session.getAccount() : null;
+    }
+
+    /**
+     * 이 콘솔의 현재 세션 토큰 (로그인하지 않았으면 null)
+     */
+    public String getCurrentToken() {
+        return currentToken;
     }
 
     public AuthService(UserRepository userRepo, AdminRepository adminRepo) {
+        this(userRepo, adminRepo, null);
+    }
+
+    /**
+     * 통합 계정 인덱스 사용 - 로그인 시 이메일 해시 조회 한 번 + 비밀번호 확인 한 번
+     */
+    public AuthService(UserRepository userRepo, AdminRepository adminRepo, AccountIndex accountIndex) {
+        this(userRepo, adminRepo, accountIndex, null);
+    }
+
+    /**
+     * 비밀번호 확인 풀 사용 - 로그인 비밀번호 확인을 크기 제한된 작업 풀에서 실행, 과부하 시 바로 거절
+     */
+    public AuthService(UserRepository userRepo, AdminRepository adminRepo, AccountIndex accountIndex,
+                       PasswordVerifier passwordVerifier) {
+        this(userRepo, adminRepo, accountIndex, passwordVerifier, new SessionRegistry());
+    }
+
+    /**
+     * 세션 저장소 지정 - 여러 서비스가 같은 세션을 공유할 때 (null이면 새 저장소)
+     */
+    public AuthService(UserRepository userRepo, AdminRepository adminRepo, AccountIndex accountIndex,
+                       PasswordVerifier passwordVerifier, SessionRegistry sessionRegistry) {
         this.userRepository = userRepo;
         this.adminRepository = adminRepo;
+        this.accountIndex = accountIndex;
+        this.passwordVerifier = passwordVerifier;
+        this.sessionRegistry = (sessionRegistry != null) ? sessionRegistry : new SessionRegistry();
         ensureDefaultAdmin(); // 기본 관리자 계정 생성 보장
         ensureDefaultUser();
     }
@@ -68,71 +113,158 @@ public class AuthService {
 
     /**
      * 로그인 (User 또는 Admin) - Role 반환
+     * 세션 저장소에 세션을 열고 그 토큰을 이 콘솔의 현재 토큰으로 둠 (이전 세션은 닫음)
      * @param email 이메일
      * @param password 비밀번호
      * @return 로그인한 사용자의 Role (USER 또는 ADMIN)
      * @throws Exception 로그인 실패 시
      */
     public Role login(String email, String password) throws Exception {
+        Object account = authenticate(email, password);
+        String previous = currentToken;
+        currentToken = open(account);
+        sessionRegistry.close(previous);
+        return roleOf(account);
+    }
+
+    /**
+     * 토큰 세션으로 로그인 - 이 콘솔의 현재 토큰은 건드리지 않으므로 여러 사용자가 동시에 사용 가능
+     * @return 세션 토큰 (이후 AuthorizationService의 토큰 권한 확인에 사용)
+     * @throws Exception 로그인 실패 시
+     */
+    public String openSession(String email, String password) throws Exception {
+        return open(authenticate(email, password));
+    }
+
+    private String open(Object account) {
+        return sessionRegistry.open(((User) account).getId(), roleOf(account), account); // Admin도 User를 상속
+    }
+
+    /**
+     * 토큰 세션 로그아웃
+     */
+    public void closeSession(String token) {
+        sessionRegistry.close(token);
+    }
+
+    public SessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+
+    /**
+     * 이메일/비밀번호 확인 후 계정(User 또는 Admin) 반환
+     */
+    private Object authenticate(String email, String password) throws Exception {
+        if (accountIndex != null) {
+            return authenticateWithIndex(email, password);
+        }
+
         // User 먼저 검색
         User user = userRepository.findByEmail(email);
-        if (user != null && PasswordEncoder.matches(password, user.getPassword())) {
-            loggedInUser = user;
+        if (user != null && passwordMatches(password, user.getPassword())) {
             System.out.println("사용자 로그인 성공: " + email);
-            return Role.USER;
+            return user;
         }
 
         // Admin 검색
         Admin admin = adminRepository.findByEmail(email);
-        if (admin != null && PasswordEncoder.matches(password, admin.getPassword())) {
-            loggedInUser = admin;
+        if (admin != null && passwordMatches(password, admin.getPassword())) {
             System.out.println("관리자 로그인 성공: " + email);
-            return Role.ADMIN;
+            return admin;
         }
 
         throw new Exception("이메일 또는 비밀번호가 잘못되었습니다.");
     }
 
     /**
-     * 로그아웃
+     * 통합 인덱스로 확인: 이메일 → (역할, ID) 한 번 조회 후 해당 저장소에서 ID로 꺼내 비밀번호 확인
+     */
+    private Object authenticateWithIndex(String email, String password) throws Exception {
+        AccountIndex.Entry entry = accountIndex.find(email);
+        if (entry != null && entry.getRole() == Role.ADMIN) {
+            Admin admin = adminRepository.findById(entry.getId());
+            if (admin != null && passwordMatches(password, admin.getPassword())) {
+                System.out.println("관리자 로그인 성공: " + email);
+                return admin;
+            }
+        } else if (entry != null) {
+            User user = userRepository.findById(entry.getId());
+            if (user != null && passwordMatches(password, user.getPassword())) {
+                System.out.println("사용자 로그인 성공: " + email);
+                return user;
+            }
+        }
+        throw new Exception("이메일 또는 비밀번호가 잘못되었습니다.");
+    }
+
+    private static Role roleOf(Object account) {
+        return (account instanceof Admin) ? Role.ADMIN : Role.USER;
+    }
+
+    /**
+     * 로그인 비밀번호 확인 (확인 풀이 있으면 풀에서 실행)
+     * @throws Exception 확인 풀 과부하로 거절된 경우
+     */
+    private boolean passwordMatches(String password, String hashedPassword) throws Exception {
+        if (passwordVerifier == null) {
+            return PasswordEncoder.matches(password, hashedPassword);
+        }
+        try {
+            return passwordVerifier.verify(password, hashedPassword);
+        } catch (RejectedExecutionException e) {
+            throw new Exception("로그인 요청이 많습니다. 잠시 후 다시 시도해 주세요.", e);
+        }
+    }
+
+    /**
+     * 로그아웃 - 현재 토큰의 세션을 닫음
      */
     public void logout() {
-        if (loggedInUser != null) {
-            String userInfo = getCurrentUserInfo();
-            loggedInUser = null;
+        String token = currentToken;
+        if (token == null) {
+            return;
+        }
+        String userInfo = getCurrentUserInfo();
+        currentToken = null;
+        if (sessionRegistry.close(token)) {
             System.out.println("로그아웃: " + userInfo);
         }
     }
 
     /**
-     * 로그인 상태 확인
+     * 로그인 상태 확인 (세션이 유휴 만료되었으면 false)
      */
     public boolean isLoggedIn() {
-        return loggedInUser != null;
+        return currentSession() != null;
     }
 
     /**
      * 현재 로그인한 사용자의 Role 반환
      */
     public Role getCurrentUserRole() {
-        if (loggedInUser == null) {
-            return null;
-        }
-        return (loggedInUser instanceof Admin) ? Role.ADMIN : Role.USER;
+        SessionRegistry.Entry session = currentSession();
+        return (session != null) ? session.getRole() : null;
     }
 
     /**
      * 현재 사용자가 관리자인지 확인
      */
     public boolean isCurrentUserAdmin() {
-        return loggedInUser instanceof Admin;
+        return getCurrentUserRole() == Role.ADMIN;
     }
 
     /**
      * 현재 사용자가 일반 사용자인지 확인
      */
     public boolean isCurrentUserUser() {
-        return loggedInUser instanceof User;
+        return getLoggedInUser() instanceof User;
+    }
+
+    /**
+     * 현재 토큰의 세션 (조회 시 접근 시각 갱신)
+     */
+    private SessionRegistry.Entry currentSession() {
+        return sessionRegistry.find(currentToken);
     }
 
     /**
@@ -177,16 +309,17 @@ public class AuthService {
      * 현재 사용자 정보 문자열 반환 (로깅용)
      */
     private String getCurrentUserInfo() {
-        if (loggedInUser == null) {
+        Object current = getLoggedInUser();
+        if (current == null) {
             return "없음";
         }
-        if (loggedInUser instanceof User) {
-            User user = (User) loggedInUser;
+        if (current instanceof User) {
+            User user = (User) current;
             return "User(" + user.getId() + ", " + user.getEmail() + ")";
-        } else if (loggedInUser instanceof Admin) {
-            Admin admin = (Admin) loggedInUser;
+        } else if (current instanceof Admin) {
+            Admin admin = (Admin) current;
             return "Admin(" + admin.getId() + ", " + admin.getEmail() + ")";
         }
-        return loggedInUser.toString();
+        return current.toString();
     }
 }
\ No newline at end of file
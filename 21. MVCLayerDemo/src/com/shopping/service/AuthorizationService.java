@@ -1,5 +1,6 @@
 package com.shopping.service;
 
+import com.shopping.Auth.SessionRegistry;
 import com.shopping.model.Role;
 import com.shopping.exception.UnauthorizedException;
 
@@ -40,6 +41,35 @@ public class AuthorizationService {
         }
     }
     
+    /**
+     * 토큰 세션의 로그인 여부 확인 (세션 저장소 조회만, 잠금 없음)
+     * @param token AuthService.openSession이 돌려준 토큰 또는 콘솔의 현재 토큰(getCurrentToken)
+     * @return 세션 정보
+     * @throws UnauthorizedException 세션이 없거나 만료된 경우
+     */
+    public SessionRegistry.Entry assertLoggedIn(String token) throws UnauthorizedException {
+        SessionRegistry.Entry session = authService.getSessionRegistry().find(token);
+        if (session == null) {
+            throw new UnauthorizedException("로그인이 필요합니다.");
+        }
+        return session;
+    }
+    
+    /**
+     * 토큰 세션이 특정 역할로 로그인했는지 확인
+     * @param token AuthService.openSession이 돌려준 토큰 또는 콘솔의 현재 토큰(getCurrentToken)
+     * @param requiredRole 필요한 역할
+     * @return 세션 정보
+     * @throws UnauthorizedException 세션이 없거나 해당 역할이 아닌 경우
+     */
+    public SessionRegistry.Entry assertLoggedIn(String token, Role requiredRole) throws UnauthorizedException {
+        SessionRegistry.Entry session = assertLoggedIn(token);
+        if (session.getRole() != requiredRole) {
+            throw new UnauthorizedException("접근 권한이 없습니다. 필요한 권한: " + requiredRole);
+        }
+        return session;
+    }
+    
     /**
      * 관리자 권한 확인
      * @throws UnauthorizedException 관리자가 아닌 경우
@@ -176,6 +206,16 @@ public class AuthorizationService {
         }
     }
     
+    /**
+     * 토큰 세션이 특정 역할을 가지고 있는지 확인 (예외 발생 없음)
+     * @param token 세션 토큰
+     * @param role 확인할 역할
+     * @return 해당 역할을 가지고 있으면 true
+     */
+    public boolean hasRole(String token, Role role) {
+        return role != null && authService.getSessionRegistry().roleOf(token) == role;
+    }
+    
     /**
      * 현재 사용자가 관리자인지 확인 (예외 발생 없음)
      * @return 관리자면 true
@@ -0,0 +1,32 @@
+package com.shopping.service;
+
+import java.util.Map;
+
+/**
+ * OrderService가 쓰는 상품 재고/판매량 연산을 ProductService로 연결하는 어댑터
+ * - 주문 확정 시 재고 차감과 판매량 누적(베스트셀러 순위)이 상품 저장소에 한꺼번에 반영됨
+ * - 확정된 주문의 취소 시 차감했던 재고와 누적했던 판매량을 함께 되돌림
+ */
+public class OrderProductAdapter implements OrderService.ProductRepository {
+
+    private final ProductService productService;
+
+    public OrderProductAdapter(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Override
+    public boolean hasStock(String productId, int qty) {
+        return productService.hasStock(productId, qty);
+    }
+
+    @Override
+    public void sell(Map<String, Integer> quantities) {
+        productService.sell(quantities);
+    }
+
+    @Override
+    public void cancelSale(Map<String, Integer> quantities) {
+        productService.cancelSale(quantities);
+    }
+}
@@ -2,11 +2,12 @@ package com.shopping.service;
 
 import com.shopping.Auth.Session;
 import com.shopping.model.*;
-import com.shopping.repository.FileOrderRepository;
 import com.shopping.repository.OrderRepository;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -35,7 +36,7 @@ public class OrderService {
 
     private final OrderRepository orderRepo;
     private final ProductRepository productRepo;
-    private final FileOrderRepository orderRepository;
+    private final OrderRepository orderRepository;
     private OrderService orderService;
 
 
@@ -45,7 +46,7 @@ public class OrderService {
 //        this.productRepo = Objects.requireNonNull(productRepo);
 //    }
     
-    public OrderService(OrderRepository orderRepo, ProductRepository productRepo, FileOrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepo, ProductRepository productRepo, OrderRepository orderRepository) {
         this.orderRepo = orderRepo;
         this.productRepo = productRepo;
         this.orderRepository = orderRepository;
@@ -133,9 +134,8 @@ public class OrderService {
                 throw new IllegalStateException("재고 부족: " + it.getProductId());
             }
         }
-        for (OrderItem it : order.getItems()) {
-            productRepo.decreaseStock(it.getProductId(), it.getQuantity());
-        }
+        // 위 확인은 안내용 - 실제 확인과 차감/판매량 누적은 한 번에 (그 사이 재고가 줄었으면 아무것도 바꾸지 않고 예외)
+        productRepo.sell(quantitiesOf(order));
 
         order.changeStatus(OrderStatus.CONFIRMED);
         orderRepo.save(order);
@@ -188,9 +188,7 @@ public class OrderService {
         orderRepo.save(order);
 
         if (needRestock) {
-            for (OrderItem it : order.getItems()) {
-                productRepo.increaseStock(it.getProductId(), it.getQuantity());
-            }
+            productRepo.cancelSale(quantitiesOf(order)); // 재고 복구 + 확정 때 누적한 판매량 되돌림
         }
     }
 
@@ -218,6 +216,15 @@ public class OrderService {
     // =========================
     // 헬퍼
     // =========================
+    // 상품별 주문 수량 (같은 상품이 여러 줄이면 합침)
+    private static Map<String, Integer> quantitiesOf(Order order) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem it : order.getItems()) {
+            quantities.merge(it.getProductId(), it.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
     private void authorizeOwnership(Order order, String actorUserId, Role role) {
         if (role == Role.ADMIN) return;
         if (!Objects.equals(order.getUserId(), actorUserId)) {
@@ -244,7 +251,7 @@ public class OrderService {
     // =========================
     public interface ProductRepository {
         boolean hasStock(String productId, int qty);
-        void decreaseStock(String productId, int qty);
-        void increaseStock(String productId, int qty);
+        void sell(Map<String, Integer> quantities); // 재고 차감 + 판매량 누적, 모자라면 아무것도 바꾸지 않고 IllegalStateException
+        void cancelSale(Map<String, Integer> quantities); // sell 되돌리기 (재고 복구 + 판매량 차감)
     }
 }
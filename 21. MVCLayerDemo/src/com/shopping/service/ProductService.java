@@ -4,6 +4,7 @@ import com.shopping.model.Product;
 import com.shopping.model.ProductCategory;
 import com.shopping.repository.FileProductRepository;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -12,6 +13,8 @@ import java.util.Optional;
  */
 public class ProductService {
 
+    private static final int MAX_STOCK = 9999;
+
     private final FileProductRepository productRepository;
 
     public ProductService(FileProductRepository productRepository) {
@@ -59,15 +62,44 @@ public class ProductService {
         if (quantity <= 0) {
             throw new IllegalArgumentException("추가할 재고는 0보다 커야 합니다.");
         }
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("오류: ID " + id + "에 해당하는 상품을 찾을 수 없습니다."));
-        
-        int newStock = product.getStock() + quantity;
-        if (newStock > 9999) {
-            throw new IllegalArgumentException("오류: 재고는 9999개를 초과할 수 없습니다.");
+        // 확인과 변경을 저장소 잠금 안에서 처리 (그 사이의 주문 확정/취소로 바뀐 재고를 덮어쓰지 않음)
+        if (productRepository.adjustStock(id, quantity, MAX_STOCK)) {
+            return;
+        }
+        // 실패 이유는 실패한 뒤에 확인 (잠금 밖에서 미리 조회하면 그 사이 삭제된 상품도 한도 초과로 보고됨)
+        if (productRepository.findById(id).isEmpty()) {
+            throw new IllegalArgumentException("오류: ID " + id + "에 해당하는 상품을 찾을 수 없습니다.");
         }
-        product.setStock(newStock);
-        productRepository.save(product);
+        throw new IllegalArgumentException("오류: 재고는 " + MAX_STOCK + "개를 초과할 수 없습니다.");
+    }
+
+    /**
+     * 주문 수량만큼 재고가 있는지 확인합니다.
+     * @param id 상품 ID
+     * @param quantity 주문 수량
+     * @return 상품이 있고 재고가 충분하면 true
+     */
+    public boolean hasStock(String id, int quantity) {
+        return productRepository.findById(id).map(product -> product.getStock() >= quantity).orElse(false);
+    }
+
+    /**
+     * 주문 확정으로 여러 상품의 재고를 차감하고 판매량을 누적합니다. 모두 반영되거나 하나도 반영되지 않습니다.
+     * @param quantities 상품 ID → 판매 수량
+     * @throws IllegalStateException 없는 상품이 있거나 재고가 모자란 경우 (재고/판매량은 그대로)
+     */
+    public void sell(Map<String, Integer> quantities) {
+        if (!productRepository.sell(quantities)) {
+            throw new IllegalStateException("재고 부족: " + quantities.keySet());
+        }
+    }
+
+    /**
+     * 확정됐던 주문의 취소로 재고를 되돌리고 판매량을 뺍니다 (베스트셀러 순위도 함께 갱신).
+     * @param quantities 상품 ID → 취소 수량
+     */
+    public void cancelSale(Map<String, Integer> quantities) {
+        productRepository.cancelSale(quantities);
     }
 
     /**
@@ -159,8 +191,8 @@ public class ProductService {
         if (product.getPrice() < 0 || product.getPrice() > 10_000_000) {
             throw new IllegalArgumentException("오류: 상품 가격은 0원 이상 10,000,000원 이하이어야 합니다.");
         }
-        if (product.getStock() < 0 || product.getStock() > 9999) {
-            throw new IllegalArgumentException("오류: 재고 수량은 0개 이상 9999개 이하이어야 합니다.");
+        if (product.getStock() < 0 || product.getStock() > MAX_STOCK) {
+            throw new IllegalArgumentException("오류: 재고 수량은 0개 이상 " + MAX_STOCK + "개 이하이어야 합니다.");
         }
         if (product.getDescription() != null && product.getDescription().length() > 500) {
             throw new IllegalArgumentException("오류: 상품 설명은 500자를 초과할 수 없습니다.");
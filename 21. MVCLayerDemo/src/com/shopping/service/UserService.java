@@ -3,6 +3,7 @@ package com.shopping.service;
 import java.util.List;
 
 import com.shopping.model.User;
+import com.shopping.repository.CursorPage;
 import com.shopping.repository.FileUserRepository;
 import com.shopping.util.PasswordEncoder;
 
@@ -83,6 +84,19 @@ public class UserService {
     public List<User> getAllUsers() {
         return fileUserRepository.findAll();
     }
+
+    /**
+     * 회원 목록 한 페이지 (ID 오름차순)
+     * @param afterCursor 이전 페이지의 다음 커서 (첫 페이지면 null)
+     * @param pageSize 페이지 크기
+     */
+    public CursorPage<User> getUsersPage(String afterCursor, int pageSize) {
+        return fileUserRepository.findPageAfter(afterCursor, pageSize);
+    }
+
+    public long getUserCount() {
+        return fileUserRepository.count();
+    }
     
     
 
@@ -0,0 +1,139 @@
+package com.shopping.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.repository.DefaultFileOrderRepository;
+import com.shopping.repository.FileOrderRepository;
+
+/**
+ * FileOrderRepository 증분 스냅샷 단위 테스트
+ */
+class FileOrderRepositoryTest {
+
+    private static final String TEST_FILE = "test_data/orders_delta.dat";
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        for (String suffix : new String[] {"", ".bak", ".delta", ".delta.bak", ".delta.prev"}) {
+            new File(TEST_FILE + suffix).delete();
+        }
+    }
+
+    private FileOrderRepository open(int mergeThreshold) {
+        return new FileOrderRepository(TEST_FILE, ModelCodecs.ORDER, mergeThreshold) { };
+    }
+
+    private Order newOrder(String userId) {
+        return new Order(null, userId, List.of(new OrderItem("P1", "노트북", 1000, 1)), null, null);
+    }
+
+    @Test
+    @DisplayName("병합 전에는 전체 스냅샷을 다시 쓰지 않고 델타만 기록한다")
+    void writes_only_delta_until_merge() {
+        FileOrderRepository repo = open(100);
+        for (int i = 0; i < 50; i++) repo.save(newOrder("user" + i));
+        repo.mergeDeltas();
+        long fullSize = new File(TEST_FILE).length();
+
+        repo.updateStatus("O1", OrderStatus.CONFIRMED);
+        repo.delete("O2");
+
+        assertEquals(fullSize, new File(TEST_FILE).length());
+        assertEquals(2, repo.pendingDeltaCount());
+        assertTrue(new File(TEST_FILE + ".delta").length() < fullSize);
+    }
+
+    @Test
+    @DisplayName("다시 열면 전체 스냅샷 + 델타가 복구되고, 기준에 도달하면 병합된다")
+    void reload_applies_delta_and_merges() {
+        FileOrderRepository repo = open(5);
+        for (int i = 0; i < 3; i++) repo.save(newOrder("user" + i));
+        repo.updateStatus("O1", OrderStatus.CONFIRMED);
+        repo.delete("O3");
+
+        repo = new DefaultFileOrderRepository(TEST_FILE);
+        assertEquals(2, repo.findAll().size());
+        assertEquals(OrderStatus.CONFIRMED, repo.findById("O1").get().getStatus());
+        assertFalse(repo.findById("O3").isPresent());
+
+        repo = open(5);
+        repo.save(newOrder("user7"));
+        repo.save(newOrder("user8"));
+        assertEquals(4, repo.pendingDeltaCount());
+        repo.save(newOrder("user9")); // 바뀐 주문 5개 → 전체 병합
+        assertEquals(0, repo.pendingDeltaCount());
+        assertFalse(new File(TEST_FILE + ".delta").exists());
+        assertEquals(5, open(5).findAll().size());
+    }
+
+    @Test
+    @DisplayName("델타는 이번 변경만 덧붙이므로 쓰기 한 번의 비용이 쌓인 델타 크기와 무관하다")
+    void delta_write_appends_only_the_change() {
+        FileOrderRepository repo = open(100);
+        repo.save(newOrder("user0"));
+        long first = new File(TEST_FILE + ".delta").length();
+        for (int i = 1; i < 60; i++) repo.save(newOrder("user" + i));
+        long before = new File(TEST_FILE + ".delta").length();
+        repo.save(newOrder("user60"));
+        long growth = new File(TEST_FILE + ".delta").length() - before;
+
+        assertTrue(growth < first, "쓰기 한 번에 " + growth + " bytes 증가");
+        assertEquals(61, open(100).findAll().size());
+    }
+
+    @Test
+    @DisplayName("잘린 델타 꼬리는 버리고 그 앞의 변경은 복구한다")
+    void torn_delta_tail_is_dropped() throws IOException {
+        FileOrderRepository repo = open(100);
+        for (int i = 0; i < 3; i++) repo.save(newOrder("user" + i));
+        long intact = new File(TEST_FILE + ".delta").length();
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE + ".delta", "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(100); // 길이만 쓰고 종료된 레코드
+            raf.write(new byte[] {1, 2, 3});
+        }
+
+        assertEquals(3, open(100).findAll().size());
+        assertEquals(intact, new File(TEST_FILE + ".delta").length());
+    }
+
+    @Test
+    @DisplayName("델타 중간 레코드가 손상되면 변경을 잃은 채 기동하지 않고 예외를 던진다")
+    void corrupt_delta_middle_refuses_to_load() throws IOException {
+        FileOrderRepository repo = open(100);
+        for (int i = 0; i < 3; i++) repo.save(newOrder("user" + i));
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE + ".delta", "rw")) {
+            long offset = 5 + 8 + 2; // 헤더 + 첫 레코드 길이/체크섬 다음 payload
+            raf.seek(offset);
+            int b = raf.read();
+            raf.seek(offset);
+            raf.write(b ^ 0xFF);
+        }
+
+        assertThrows(UncheckedIOException.class, () -> open(100));
+    }
+}
@@ -0,0 +1,367 @@
+package com.shopping.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.model.Role;
+import com.shopping.persistence.InMemoryStorageEngine;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.repository.FileOrderRepository;
+import com.shopping.repository.FileProductRepository;
+import com.shopping.service.OrderProductAdapter;
+import com.shopping.service.OrderService;
+import com.shopping.service.ProductService;
+
+/**
+ * FileProductRepository 조회 색인 단위 테스트 (메모리 엔진, 즉시 기록)
+ */
+class FileProductRepositoryTest {
+
+    private FileProductRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        repo = new FileProductRepository(new InMemoryStorageEngine<>(Product::getId), 0, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repo.close();
+    }
+
+    private Product save(String name, ProductCategory category, double price) {
+        return repo.save(new Product(null, name, category, price, 10, "설명"));
+    }
+
+    private List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).sorted().toList();
+    }
+
+    // 정렬하지 않은 이름 목록 (결과 순서 확인용)
+    private List<String> namesInOrder(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+
+    @Test
+    @DisplayName("상품명 검색은 색인 후보만 확인하고, 수정/삭제가 바로 반영된다")
+    void name_search_follows_save_and_delete() {
+        Product laptop = save("Gaming Laptop", ProductCategory.전자제품, 1500);
+        save("게이밍 마우스", ProductCategory.전자제품, 50);
+        save("무선 마우스", ProductCategory.전자제품, 30);
+
+        assertEquals(List.of("게이밍 마우스", "무선 마우스"), names(repo.findBynameContains("마우스")));
+        assertEquals(List.of("Gaming Laptop"), names(repo.findBynameContains("LAPTOP"))); // 대소문자 무시
+        assertEquals(List.of("Gaming Laptop"), names(repo.findBynameContains("o")));      // 1글자는 전체 검사
+        assertTrue(repo.findBynameContains("키보드").isEmpty());
+
+        laptop.setName("Office Notebook");
+        repo.save(laptop);
+        assertTrue(repo.findBynameContains("laptop").isEmpty());
+        assertEquals(List.of("Office Notebook"), names(repo.findBynameContains("note")));
+
+        repo.deleteById(laptop.getId());
+        assertTrue(repo.findBynameContains("note").isEmpty());
+        assertEquals(List.of("게이밍 마우스"), names(repo.findBynameContains("게이밍")));
+    }
+
+    @Test
+    @DisplayName("조회한 상품의 이름을 고친 뒤 검증에 실패하면 이름 색인은 이전 이름 그대로다")
+    void failed_rename_keeps_name_index() {
+        Product laptop = save("Office Notebook", ProductCategory.전자제품, 900);
+        ProductService service = new ProductService(repo);
+
+        Product edited = repo.findById(laptop.getId()).orElseThrow();
+        edited.setName("Gaming Laptop");
+        edited.setPrice(20_000_000); // 검증 실패 → 이름 변경도 반영되지 않아야 함
+        assertThrows(IllegalArgumentException.class, () -> service.updateProduct(edited));
+
+        assertEquals(List.of("Office Notebook"), names(repo.findBynameContains("notebook")));
+        assertTrue(repo.findBynameContains("laptop").isEmpty());
+
+        edited.setPrice(1000);
+        service.updateProduct(edited); // 검증을 통과한 저장은 색인까지 반영
+        assertEquals(List.of("Gaming Laptop"), names(repo.findBynameContains("laptop")));
+        assertTrue(repo.findBynameContains("notebook").isEmpty());
+    }
+
+    @Test
+    @DisplayName("카테고리 조회는 카테고리 칸만 읽고, 카테고리 변경/삭제를 따라간다")
+    void category_partitions_follow_changes() {
+        Product shirt = save("셔츠", ProductCategory.의류, 30);
+        Product phone = save("휴대폰", ProductCategory.전자제품, 900);
+        save("바지", ProductCategory.의류, 40);
+
+        assertEquals(List.of("바지", "셔츠"), names(repo.findByCategory("의류")));
+        assertEquals(List.of("휴대폰"), names(repo.findByCategory("전자제품")));
+        assertTrue(repo.findByCategory("도서").isEmpty());
+        assertTrue(repo.findByCategory("없는카테고리").isEmpty());
+
+        shirt.setCategory(ProductCategory.기타); // 같은 객체를 고쳐 저장해도 이전 칸에서 빠져야 함
+        repo.save(shirt);
+        assertEquals(List.of("바지"), names(repo.findByCategory("의류")));
+        assertEquals(List.of("셔츠"), names(repo.findByCategory("기타")));
+
+        repo.deleteById(phone.getId());
+        assertTrue(repo.findByCategory("전자제품").isEmpty());
+    }
+
+    @Test
+    @DisplayName("조회한 상품의 카테고리를 고친 뒤 검증에 실패하면 이전 카테고리에만 나온다")
+    void failed_update_keeps_category_partition() {
+        Product shirt = save("셔츠", ProductCategory.의류, 30);
+        ProductService service = new ProductService(repo);
+
+        Product edited = repo.findById(shirt.getId()).orElseThrow();
+        edited.setCategory(ProductCategory.기타);
+        edited.setStock(10_000); // 재고 상한 초과 → 검증 실패
+        assertThrows(IllegalArgumentException.class, () -> service.updateProduct(edited));
+
+        List<Product> clothes = repo.findByCategory("의류");
+        assertEquals(List.of("셔츠"), names(clothes));
+        assertEquals(ProductCategory.의류, clothes.get(0).getCategory());
+        assertTrue(repo.findByCategory("기타").isEmpty());
+    }
+
+    @Test
+    @DisplayName("가격대 조회는 하한 포함·상한 제외로 가격순 결과를 주고, 가격 변경/삭제를 따라간다")
+    void price_range_uses_sorted_index() {
+        save("C", ProductCategory.기타, 300);
+        Product b = save("B", ProductCategory.기타, 200);
+        save("A", ProductCategory.기타, 100);
+        save("A2", ProductCategory.기타, 100);
+
+        assertEquals(List.of("A", "A2", "B"), namesInOrder(repo.findByPriceRange(100, 300)));
+        assertEquals(List.of("B", "C"), namesInOrder(repo.findByPriceRange(150, -1))); // 상한 없음
+        assertTrue(repo.findByPriceRange(400, -1).isEmpty());
+        assertTrue(repo.findByPriceRange(200, 200).isEmpty());
+
+        b.setPrice(500);
+        repo.save(b);
+        assertEquals(List.of("C", "B"), namesInOrder(repo.findByPriceRange(150, -1)));
+
+        repo.deleteById(b.getId());
+        assertEquals(List.of("C"), namesInOrder(repo.findByPriceRange(150, -1)));
+    }
+
+    @Test
+    @DisplayName("조회한 상품의 가격을 고친 뒤 검증에 실패하면 보관본과 가격 색인은 그대로다")
+    void failed_update_does_not_drift_price_index() {
+        Product laptop = save("Office Notebook", ProductCategory.전자제품, 900);
+        ProductService service = new ProductService(repo);
+
+        Product edited = repo.findById(laptop.getId()).orElseThrow();
+        edited.setPrice(20_000_000); // 가격 상한 초과 → 검증 실패
+        assertThrows(IllegalArgumentException.class, () -> service.updateProduct(edited));
+
+        List<Product> hits = repo.findByPriceRange(0, 1000);
+        assertEquals(List.of("Office Notebook"), namesInOrder(hits));
+        assertEquals(900.0, hits.get(0).getPrice());
+        assertTrue(repo.findByPriceRange(1000, -1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("베스트셀러는 판매마다 순위가 갱신되고 상위 K개만 판매량순으로 준다")
+    void best_sellers_follow_sales() {
+        Product a = save("A", ProductCategory.기타, 10);
+        Product b = save("B", ProductCategory.기타, 10);
+        Product c = save("C", ProductCategory.기타, 10);
+
+        assertTrue(repo.sell(Map.of(b.getId(), 5)));
+        assertTrue(repo.sell(Map.of(c.getId(), 3)));
+        assertEquals(List.of("B", "C"), namesInOrder(repo.findBestSellers(2)));
+
+        repo.sell(Map.of(a.getId(), 4, c.getId(), 4)); // C: 3 → 7
+        assertEquals(List.of("C", "B", "A"), namesInOrder(repo.findBestSellers(10)));
+        assertEquals(7, repo.findById(c.getId()).orElseThrow().getSalesCount());
+
+        repo.cancelSale(Map.of(c.getId(), 3)); // C: 7 → 4, A와 동률이면 ID순
+        assertEquals(List.of("B", "A", "C"), namesInOrder(repo.findBestSellers(10)));
+
+        repo.deleteById(c.getId());
+        assertEquals(List.of("B"), namesInOrder(repo.findBestSellers(1)));
+        assertFalse(repo.sell(Map.of(c.getId(), 1)));
+        assertThrows(IllegalArgumentException.class, () -> repo.sell(Map.of(a.getId(), 0)));
+    }
+
+    @Test
+    @DisplayName("주문 어댑터는 재고 확인, 판매, 판매 취소를 상품 저장소에 반영한다")
+    void order_adapter_updates_stock_and_ranking() {
+        Product a = save("A", ProductCategory.기타, 10); // 재고 10
+        Product b = save("B", ProductCategory.기타, 10);
+        OrderService.ProductRepository products = new OrderProductAdapter(new ProductService(repo));
+
+        assertTrue(products.hasStock(a.getId(), 10));
+        assertFalse(products.hasStock(a.getId(), 11));
+        assertFalse(products.hasStock("없는 상품", 1));
+
+        products.sell(Map.of(a.getId(), 7));
+        assertEquals(3, repo.findById(a.getId()).orElseThrow().getStock());
+        assertEquals(List.of("A", "B"), namesInOrder(repo.findBestSellers(10)));
+        assertThrows(IllegalStateException.class, () -> products.sell(Map.of(a.getId(), 4)));
+        assertEquals(3, repo.findById(a.getId()).orElseThrow().getStock());
+
+        products.cancelSale(Map.of(a.getId(), 7));
+        assertEquals(10, repo.findById(a.getId()).orElseThrow().getStock());
+        assertEquals(0, repo.findById(a.getId()).orElseThrow().getSalesCount());
+        assertEquals(10, repo.findById(b.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @DisplayName("주문 확정은 모든 상품의 재고가 있을 때만 차감하고, 하나라도 모자라면 아무것도 바꾸지 않는다")
+    void sell_is_all_or_nothing() {
+        Product a = save("A", ProductCategory.기타, 10); // 재고 10
+        Product b = save("B", ProductCategory.기타, 10);
+
+        assertFalse(repo.sell(Map.of(a.getId(), 3, b.getId(), 11)));
+        assertFalse(repo.sell(Map.of(a.getId(), 3, "없는 상품", 1)));
+        assertEquals(10, repo.findById(a.getId()).orElseThrow().getStock());
+        assertEquals(0, repo.findById(a.getId()).orElseThrow().getSalesCount());
+        assertTrue(repo.findBestSellers(10).stream().allMatch(p -> p.getSalesCount() == 0));
+
+        assertTrue(repo.sell(Map.of(a.getId(), 3, b.getId(), 10)));
+        assertEquals(7, repo.findById(a.getId()).orElseThrow().getStock());
+        assertEquals(0, repo.findById(b.getId()).orElseThrow().getStock());
+        assertEquals(List.of("B", "A"), namesInOrder(repo.findBestSellers(2)));
+    }
+
+    @Test
+    @DisplayName("확정된 주문을 취소하면 재고와 판매량이 되돌아가 베스트셀러 순위에서도 빠진다")
+    void cancelling_confirmed_order_reverses_sale() {
+        Product a = save("A", ProductCategory.기타, 10); // 재고 10
+        Product b = save("B", ProductCategory.기타, 10);
+        assertTrue(repo.sell(Map.of(b.getId(), 2)));
+        String ordersFile = "test_data/orders_cancel_sale.dat";
+        FileOrderRepository orders = new FileOrderRepository(ordersFile, ModelCodecs.ORDER, 100) { };
+        try {
+            OrderService service = new OrderService(orders, new OrderProductAdapter(new ProductService(repo)), orders);
+            Order order = service.placeOrder("user1",
+                    List.of(new OrderItem(a.getId(), "A", 10, 3), new OrderItem(b.getId(), "B", 10, 1)), Role.USER);
+
+            service.confirmOrder(order.getOrderId(), "user1", Role.USER, null);
+            assertEquals(List.of("A", "B"), namesInOrder(repo.findBestSellers(2))); // A 3개, B 2+1개 → 같으면 ID 순
+            assertEquals(7, repo.findById(a.getId()).orElseThrow().getStock());
+
+            service.cancelOrder(order.getOrderId(), "admin", Role.ADMIN);
+            assertEquals(OrderStatus.CANCELLED, orders.findById(order.getOrderId()).orElseThrow().getStatus());
+            assertEquals(10, repo.findById(a.getId()).orElseThrow().getStock());
+            assertEquals(0, repo.findById(a.getId()).orElseThrow().getSalesCount());
+            assertEquals(2, repo.findById(b.getId()).orElseThrow().getSalesCount());
+            assertEquals(List.of("B", "A"), namesInOrder(repo.findBestSellers(2)));
+            assertEquals(List.of("B"), namesInOrder(repo.findBestSellers(1)));
+
+            repo.cancelSale(Map.of(b.getId(), 5)); // 판매량은 0 아래로 내려가지 않음
+            assertEquals(0, repo.findById(b.getId()).orElseThrow().getSalesCount());
+        } finally {
+            for (String suffix : new String[] {"", ".bak", ".delta", ".delta.bak", ".delta.prev"}) {
+                new File(ordersFile + suffix).delete();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("같은 엔진을 쓰는 두 저장소는 보관본, 색인, ID 순번을 함께 쓴다")
+    void instances_on_one_engine_share_state() {
+        InMemoryStorageEngine<String, Product> engine = new InMemoryStorageEngine<>(Product::getId);
+        FileProductRepository first = new FileProductRepository(engine, 0, 1);
+        FileProductRepository second = new FileProductRepository(engine, 0, 1);
+        try {
+            Product a = first.save(new Product(null, "노트북", ProductCategory.전자제품, 1000, 10, "설명"));
+            Product b = second.save(new Product(null, "마우스", ProductCategory.전자제품, 30, 10, "설명"));
+            assertNotEquals(a.getId(), b.getId());
+            assertEquals(List.of("노트북"), names(second.findBynameContains("노트북")));
+
+            assertTrue(first.sell(Map.of(a.getId(), 3)));
+            assertTrue(second.adjustStock(a.getId(), 5, 9999));
+            assertTrue(second.sell(Map.of(b.getId(), 1)));
+            assertEquals(12, second.findById(a.getId()).orElseThrow().getStock());
+            assertEquals(List.of("노트북", "마우스"), namesInOrder(first.findBestSellers(2)));
+            assertEquals(12, engine.get(a.getId()).getStock()); // 어느 쪽의 기록도 다른 쪽 변경을 덮어쓰지 않음
+            assertEquals(3, engine.get(a.getId()).getSalesCount());
+
+            first.close(); // 아직 열린 저장소가 있으면 공유 상태는 그대로
+            assertTrue(second.deleteById(b.getId()));
+            assertNull(engine.get(b.getId()));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    @DisplayName("기록 전 변경만 저장소에 남고, 기록된 상품은 엔진에서 읽는다")
+    void reads_come_from_engine_after_flush() {
+        InMemoryStorageEngine<String, Product> engine = new InMemoryStorageEngine<>(Product::getId);
+        FileProductRepository delayed = new FileProductRepository(engine, 60_000, 1000); // 직접 flush할 때까지 기록 안 함
+        try {
+            Product a = delayed.save(new Product(null, "노트북", ProductCategory.전자제품, 1000, 10, "설명"));
+            assertNull(engine.get(a.getId()));
+            assertEquals("노트북", delayed.findById(a.getId()).orElseThrow().getName()); // 기록 전에도 보임
+            assertEquals(1, delayed.findAll().size());
+
+            delayed.flush();
+            Product changed = new Product(engine.get(a.getId()));
+            changed.setStock(3);
+            engine.put(changed); // 저장소에 따로 보관본이 없으므로 엔진의 값이 그대로 보임
+            assertEquals(3, delayed.findById(a.getId()).orElseThrow().getStock());
+            assertEquals(3, delayed.findAll().get(0).getStock());
+
+            assertTrue(delayed.deleteById(a.getId()));
+            assertNotNull(engine.get(a.getId()));
+            assertTrue(delayed.findById(a.getId()).isEmpty());
+            assertTrue(delayed.findAll().isEmpty());
+            assertEquals(0, delayed.countAll());
+            delayed.flush();
+            assertNull(engine.get(a.getId()));
+        } finally {
+            delayed.close();
+        }
+    }
+
+    @Test
+    @DisplayName("입고는 저장소 잠금 안에서 재고 한도를 검사한다")
+    void add_stock_respects_limit() {
+        Product a = save("A", ProductCategory.기타, 10); // 재고 10
+        ProductService service = new ProductService(repo);
+        service.addStock(a.getId(), 9989);
+        assertEquals(9999, repo.findById(a.getId()).orElseThrow().getStock());
+        IllegalArgumentException full = assertThrows(IllegalArgumentException.class, () -> service.addStock(a.getId(), 1));
+        assertTrue(full.getMessage().contains("9999개를 초과"));
+        assertEquals(9999, repo.findById(a.getId()).orElseThrow().getStock());
+
+        repo.deleteById(a.getId());
+        IllegalArgumentException gone = assertThrows(IllegalArgumentException.class, () -> service.addStock(a.getId(), 1));
+        assertTrue(gone.getMessage().contains("찾을 수 없습니다")); // 삭제된 상품은 한도 초과로 보고하지 않음
+    }
+
+    @Test
+    @DisplayName("초성 검색어와 초성·음절이 섞인 검색어로 찾는다")
+    void choseong_search() {
+        Product notebook = save("삼성 노트북", ProductCategory.전자제품, 1200);
+        save("노트 필기구", ProductCategory.기타, 5);
+        save("놀이 트램펄린", ProductCategory.기타, 300);
+
+        assertEquals(List.of("삼성 노트북"), names(repo.findBynameContains("ㄴㅌㅂ")));
+        assertEquals(List.of("노트 필기구", "삼성 노트북"), names(repo.findBynameContains("ㄴㅌ")));
+        assertEquals(List.of("삼성 노트북"), names(repo.findBynameContains("노ㅌ북")));
+        assertTrue(repo.findBynameContains("놀ㅌ").isEmpty()); // "놀이 트"는 공백 때문에 이어지지 않음
+        assertEquals(List.of("노트 필기구", "놀이 트램펄린", "삼성 노트북"), names(repo.findBynameContains("ㄴ")));
+
+        notebook.setName("삼성 태블릿");
+        repo.save(notebook);
+        assertTrue(repo.findBynameContains("ㄴㅌㅂ").isEmpty());
+        assertEquals(List.of("삼성 태블릿"), names(repo.findBynameContains("ㅅㅅ ㅌ")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.shopping.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.repository.MappedOrderRepository;
+
+/**
+ * MappedOrderRepository 단위 테스트
+ */
+class MappedOrderRepositoryTest {
+
+    private static final String TEST_FILE = "test_data/orders.seg";
+    private MappedOrderRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_FILE).delete();
+        repo = new MappedOrderRepository(TEST_FILE, 256); // 작은 세그먼트로 경계 넘김까지 확인
+    }
+
+    @AfterEach
+    void tearDown() {
+        repo.close();
+        new File(TEST_FILE).delete();
+    }
+
+    private Order newOrder(String userId, int qty) {
+        return new Order(null, userId, List.of(new OrderItem("P1", "노트북", 1000, qty)), null, null);
+    }
+
+    @Test
+    @DisplayName("상태 변경은 파일 크기를 늘리지 않고, 다시 열어도 유지된다")
+    void status_update_is_in_place() {
+        Order order = newOrder("user1", 1);
+        repo.save(order);
+        long sizeBefore = new File(TEST_FILE).length();
+
+        assertTrue(repo.updateStatus(order.getOrderId(), OrderStatus.CONFIRMED));
+        order.changeStatus(OrderStatus.SHIPPING);
+        repo.save(order); // 내용은 그대로, 상태만 변경 → 상태 바이트만 갱신
+        repo.close();
+
+        assertEquals(sizeBefore, new File(TEST_FILE).length());
+        repo = new MappedOrderRepository(TEST_FILE, 256);
+        assertEquals(OrderStatus.SHIPPING, repo.findById(order.getOrderId()).get().getStatus());
+    }
+
+    @Test
+    @DisplayName("여러 세그먼트에 걸친 저장/삭제/수정이 재시작 후 복구된다")
+    void reload_across_segments() {
+        for (int i = 1; i <= 20; i++) {
+            repo.save(newOrder("user" + (i % 3), i));
+        }
+        repo.delete("O5");
+        Order o7 = repo.findById("O7").get();
+        o7.addItem(new OrderItem("P2", "마우스", 500, 1));
+        repo.save(o7);
+        repo.close();
+
+        repo = new MappedOrderRepository(TEST_FILE, 256);
+        assertEquals(19, repo.findAll().size());
+        assertFalse(repo.findById("O5").isPresent());
+        assertEquals(2, repo.findById("O7").get().getItems().size());
+        assertEquals("O21", repo.nextId());
+    }
+}
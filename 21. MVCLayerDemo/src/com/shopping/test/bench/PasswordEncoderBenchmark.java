@@ -0,0 +1,63 @@
+package com.shopping.test.bench;
+
+import java.security.MessageDigest;
+
+import com.shopping.util.PasswordEncoder;
+
+/**
+ * PasswordEncoder 해시/검증 처리량 비교 (이전 구현 vs 현재 구현)
+ * - 이전 구현: 호출마다 MessageDigest.getInstance + String.format("%02x") + 문자열 equals
+ * - JMH 대신 워밍업 후 여러 라운드 평균 (빌드 도구 없이 실행 가능하도록)
+ * - 실행: java com.shopping.test.bench.PasswordEncoderBenchmark [반복 수]
+ */
+public class PasswordEncoderBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static volatile long sink; // 결과를 버리지 않도록 (JIT 제거 방지)
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        String[] passwords = new String[1024];
+        for (int i = 0; i < passwords.length; i++) passwords[i] = "password" + i + "!";
+        String stored = PasswordEncoder.hash("password7!");
+        if (!stored.equals(legacyHash("password7!"))) throw new IllegalStateException("해시 결과가 이전 구현과 다릅니다.");
+
+        System.out.printf("반복 %,d회, %d라운드 평균%n", iterations, ROUNDS);
+        System.out.printf("%-20s %12s%n", "작업", "ns/op");
+        report("hash (이전)", iterations, i -> legacyHash(passwords[i & 1023]).length());
+        report("hash (현재)", iterations, i -> PasswordEncoder.hash(passwords[i & 1023]).length());
+        report("matches (이전)", iterations, i -> legacyHash(passwords[i & 1023]).equals(stored) ? 1 : 0);
+        report("matches (현재)", iterations, i -> PasswordEncoder.matches(passwords[i & 1023], stored) ? 1 : 0);
+    }
+
+    private interface Op {
+        int run(int i);
+    }
+
+    private static void report(String name, int iterations, Op op) {
+        long acc = 0;
+        for (int i = 0; i < iterations; i++) acc += op.run(i); // 워밍업
+        long total = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) acc += op.run(i);
+            total += System.nanoTime() - start;
+        }
+        sink = acc;
+        System.out.printf("%-20s %12.1f%n", name, (double) total / ROUNDS / iterations);
+    }
+
+    private static String legacyHash(String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = md.digest(password.getBytes());
+            StringBuilder sb = new StringBuilder();
+            for (byte b : bytes) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.shopping.test.bench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.persistence.BlockCompressedFile;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.SnapshotFile;
+
+/**
+ * 주문 스냅샷 형식별 디스크 크기 / 로드 시간 비교
+ * - ObjectOutputStream(Map 전체), 체크섬 스냅샷(코덱), 블록 압축 스냅샷(코덱)
+ * - 실행: java com.shopping.test.bench.SnapshotFormatBenchmark [주문 수]
+ */
+public class SnapshotFormatBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        File dir = new File("bench_data");
+        dir.mkdirs();
+
+        Map<String, Order> orders = new LinkedHashMap<>();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 1; i <= count; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 1 + i % 4; j++) {
+                int p = (i * 7 + j) % 200;
+                items.add(new OrderItem("P" + String.format("%03d", p), "상품" + p, 1000 + p * 10, 1 + j));
+            }
+            OrderStatus status = (i % 10 == 0) ? OrderStatus.PENDING : OrderStatus.DELIVERED;
+            Order order = new Order("O" + i, "user" + (i % 500), items, base.plusMinutes(i), status);
+            orders.put(order.getOrderId(), order);
+        }
+        List<Order> list = new ArrayList<>(orders.values());
+
+        File legacy = new File(dir, "orders_legacy.dat");
+        File plain = new File(dir, "orders_snapshot.dat");
+        File block = new File(dir, "orders_block.dat");
+
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(legacy)))) {
+            oos.writeObject(orders);
+        }
+        SnapshotFile.write(plain, list, ModelCodecs.ORDER);
+        SnapshotFile.writeCompressed(block, list, ModelCodecs.ORDER, BlockCompressedFile.DEFAULT_BLOCK_SIZE);
+
+        System.out.printf("주문 %,d건%n", count);
+        System.out.printf("%-22s %12s %14s%n", "형식", "크기(bytes)", "로드(ms, 평균)");
+        report("ObjectOutputStream", legacy, () -> {
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(legacy)))) {
+                return ((Map<?, ?>) ois.readObject()).size();
+            }
+        });
+        report("체크섬 스냅샷(코덱)", plain, () -> SnapshotFile.read(plain, ModelCodecs.ORDER).getRecords().size());
+        report("블록 압축(코덱)", block, () -> SnapshotFile.read(block, ModelCodecs.ORDER).getRecords().size());
+
+        // 단건 임의 접근: 해당 블록만 압축 해제
+        try (BlockCompressedFile.Reader<Order> reader = BlockCompressedFile.open(block, ModelCodecs.ORDER)) {
+            long start = System.nanoTime();
+            int lookups = 1000;
+            for (int i = 0; i < lookups; i++) {
+                reader.get((int) ((i * 2654435761L) % count));
+            }
+            System.out.printf("블록 압축 단건 조회: %.1f µs/건 (블록 %d개)%n",
+                    (System.nanoTime() - start) / 1000.0 / lookups, reader.blockCount());
+        }
+
+        for (File f : new File[] {legacy, plain, block}) {
+            f.delete();
+            SnapshotFile.backupOf(f).delete();
+        }
+        dir.delete();
+    }
+
+    private interface Loader {
+        int load() throws Exception;
+    }
+
+    private static void report(String name, File file, Loader loader) throws Exception {
+        loader.load(); // 워밍업
+        long total = 0;
+        int loaded = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            loaded = loader.load();
+            total += System.nanoTime() - start;
+        }
+        System.out.printf("%-22s %,12d %14.1f  (%,d건)%n", name, file.length(), total / 1e6 / ROUNDS, loaded);
+    }
+}
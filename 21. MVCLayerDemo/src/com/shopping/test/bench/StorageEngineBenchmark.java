@@ -0,0 +1,94 @@
+package com.shopping.test.bench;
+
+import java.io.File;
+import java.util.function.Supplier;
+
+import com.shopping.model.User;
+import com.shopping.persistence.DeltaStorageEngine;
+import com.shopping.persistence.InMemoryStorageEngine;
+import com.shopping.persistence.LogCompactor;
+import com.shopping.persistence.LogStructuredStorageEngine;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.SnapshotStorageEngine;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.WriteAheadLog;
+import com.shopping.repository.FileUserRepository;
+
+/**
+ * 저장 엔진별로 같은 저장소 작업(가입 → 조회 → 정보 수정 → 재시작 로드)을 돌려 비교
+ * - 실행: java com.shopping.test.bench.StorageEngineBenchmark [사용자 수]
+ */
+public class StorageEngineBenchmark {
+
+    private static final String FILE = "bench_data/users.dat";
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        new File("bench_data").mkdirs();
+        LogCompactor compactor = new LogCompactor("bench", LogCompactor.DEFAULT_BYTES_PER_SECOND);
+
+        System.out.printf("사용자 %,d명%n", count);
+        System.out.printf("%-12s %10s %10s %10s %10s %12s%n", "엔진", "가입(ms)", "조회(ms)", "수정(ms)", "로드(ms)", "파일(bytes)");
+        run("memory", count, () -> new InMemoryStorageEngine<>(User::getId));
+        run("snapshot", count, () -> new SnapshotStorageEngine<>(FILE, User::getId, ModelCodecs.USER));
+        run("log", count, () -> new LogStructuredStorageEngine<>(FILE, User::getId, ModelCodecs.USER,
+                WriteAheadLog.DEFAULT_CHECKPOINT_THRESHOLD, compactor));
+        compactor.awaitIdle(); // 다음 엔진이 파일을 지우기 전에 압축 마무리
+        run("delta", count, () -> new DeltaStorageEngine<>(new File(FILE), User::getId, ModelCodecs.USER,
+                DeltaStorageEngine.DEFAULT_MERGE_THRESHOLD, false));
+        compactor.shutdown();
+        cleanUp();
+        new File("bench_data").delete();
+    }
+
+    private static void run(String name, int count, Supplier<StorageEngine<String, User>> open) {
+        cleanUp();
+        StorageEngine<String, User> engine = open.get();
+        FileUserRepository repo = new FileUserRepository(engine);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            repo.save(new User("user" + i, "pw" + i, "user" + i + "@shop.com", "사용자" + i));
+        }
+        long insert = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            repo.findById("user" + ((i * 7919) % count));
+        }
+        long lookup = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i += 10) {
+            User user = repo.findById("user" + i);
+            user.setName("수정" + i);
+            repo.update(user);
+        }
+        long update = System.nanoTime() - start;
+        engine.close();
+
+        start = System.nanoTime();
+        StorageEngine<String, User> reopened = open.get();
+        long load = System.nanoTime() - start;
+        reopened.close();
+
+        System.out.printf("%-12s %10.1f %10.1f %10.1f %10.1f %,12d%n", name,
+                insert / 1e6, lookup / 1e6, update / 1e6, load / 1e6, directorySize());
+    }
+
+    private static long directorySize() {
+        long total = 0;
+        File[] files = new File("bench_data").listFiles();
+        if (files != null) {
+            for (File f : files) total += f.length();
+        }
+        return total;
+    }
+
+    private static void cleanUp() {
+        File[] files = new File("bench_data").listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.persistence.BlockCompressedFile;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.SnapshotFile;
+
+/**
+ * BlockCompressedFile 단위 테스트
+ */
+class BlockCompressedFileTest {
+
+    private static final File TEST_FILE = new File("test_data/orders_block.dat");
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        for (String suffix : new String[] {"", ".bak", ".corrupt", ".tmp"}) {
+            new File(TEST_FILE.getPath() + suffix).delete();
+        }
+    }
+
+    private List<Order> orders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            orders.add(new Order("O" + i, "user" + (i % 10),
+                    List.of(new OrderItem("P" + (i % 50), "상품" + (i % 50), 1000 + i, 1 + i % 3)), null, null));
+        }
+        return orders;
+    }
+
+    @Test
+    @DisplayName("레코드 번호로 해당 블록만 풀어 읽고, 전체 읽기도 같은 결과를 준다")
+    void random_access_and_full_read() throws Exception {
+        SnapshotFile.writeCompressed(TEST_FILE, orders(500), ModelCodecs.ORDER, 1024);
+
+        try (BlockCompressedFile.Reader<Order> reader = BlockCompressedFile.open(TEST_FILE, ModelCodecs.ORDER)) {
+            assertEquals(500, reader.size());
+            assertTrue(reader.blockCount() > 1);
+            assertEquals("O1", reader.get(0).getOrderId());
+            assertEquals("O377", reader.get(376).getOrderId());
+            assertEquals("O500", reader.get(499).getOrderId());
+        }
+        List<Order> all = SnapshotFile.read(TEST_FILE, ModelCodecs.ORDER).getRecords();
+        assertEquals(500, all.size());
+        assertEquals("O251", all.get(250).getOrderId());
+    }
+
+    @Test
+    @DisplayName("손상된 블록은 체크섬으로 걸러지고 직전 스냅샷으로 복구한다")
+    void corrupted_block_falls_back_to_backup() throws Exception {
+        SnapshotFile.writeCompressed(TEST_FILE, orders(10), ModelCodecs.ORDER, 1024);
+        SnapshotFile.writeCompressed(TEST_FILE, orders(300), ModelCodecs.ORDER, 1024);
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE, "rw")) {
+            raf.seek(40);
+            raf.write(raf.read() ^ 0xFF);
+        }
+
+        SnapshotFile.Recovered<Order> recovered = SnapshotFile.read(TEST_FILE, ModelCodecs.ORDER);
+        assertTrue(recovered.isFromBackup());
+        assertEquals(10, recovered.getRecords().size());
+    }
+}
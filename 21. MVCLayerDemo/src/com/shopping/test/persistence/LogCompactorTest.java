@@ -0,0 +1,99 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.persistence.LogCompactor;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.SnapshotFile;
+import com.shopping.persistence.WriteAheadLog;
+
+/**
+ * LogCompactor 단위 테스트
+ */
+class LogCompactorTest {
+
+    private static final String TEST_FILE = "test_data/compact_products.dat";
+    private LogCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        compactor = new LogCompactor("test", 64L * 1024 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        compactor.shutdown();
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        File file = new File(TEST_FILE);
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            if (f.getName().startsWith(file.getName())) f.delete();
+        }
+    }
+
+    private Product product(String id, String name) {
+        return new Product(id, name, ProductCategory.전자제품, 1000, 1, "설명");
+    }
+
+    private WriteAheadLog<Product> open() {
+        return new WriteAheadLog<>(TEST_FILE, Product::getId, ModelCodecs.PRODUCT, 5, compactor);
+    }
+
+    @Test
+    @DisplayName("봉인된 세그먼트는 백그라운드에서 스냅샷으로 압축되고, 재시작 후 전체 상태가 복구된다")
+    void sealed_segments_are_compacted_in_background() throws Exception {
+        WriteAheadLog<Product> wal = open();
+        wal.recover();
+        for (int i = 1; i <= 12; i++) {
+            wal.appendPut(product("P" + i, "상품" + i));
+        }
+        wal.appendDelete("P3");
+        compactor.awaitIdle();
+
+        // 13건 → 세그먼트 2개(10건) 봉인 후 압축, 나머지 3건은 활성 로그 / 마지막 압축분만 .prev로 보관
+        assertEquals(10, SnapshotFile.read(new File(TEST_FILE), ModelCodecs.PRODUCT).getRecords().size());
+        assertTrue(new File(TEST_FILE + ".log.1.prev").exists());
+        assertFalse(new File(TEST_FILE + ".log.1").exists());
+        wal.close();
+
+        Map<String, Product> state = open().recover();
+        assertEquals(11, state.size());
+        assertFalse(state.containsKey("P3"));
+        assertEquals("상품12", state.get("P12").getName());
+    }
+
+    @Test
+    @DisplayName("압축 후 스냅샷이 손상되어도 직전 스냅샷과 .prev 세그먼트로 복구된다")
+    void backup_snapshot_with_prev_segments_recovers() throws Exception {
+        WriteAheadLog<Product> wal = open();
+        wal.recover();
+        for (int i = 1; i <= 10; i++) {
+            wal.appendPut(product("P" + i, "상품" + i));
+            compactor.awaitIdle(); // 세그먼트마다 압축 → 스냅샷 .bak이 생김
+        }
+        wal.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE, "rw")) {
+            raf.seek(raf.length() - 12);
+            raf.write(new byte[] {1, 2, 3, 4});
+        }
+        Map<String, Product> state = open().recover();
+        assertEquals(10, state.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Admin;
+import com.shopping.model.Cart;
+import com.shopping.model.Order;
+import com.shopping.model.OrderItem;
+import com.shopping.model.OrderStatus;
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.model.User;
+import com.shopping.persistence.BinaryCodec;
+import com.shopping.persistence.ModelCodecs;
+
+/**
+ * ModelCodecs 왕복(encode → decode) 테스트
+ */
+class ModelCodecsTest {
+
+    private <T> byte[] encode(BinaryCodec<T> codec, T value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), value);
+        return bytes.toByteArray();
+    }
+
+    private <T> T roundTrip(BinaryCodec<T> codec, T value) throws IOException {
+        return codec.read(new DataInputStream(new ByteArrayInputStream(encode(codec, value))));
+    }
+
+    @Test
+    @DisplayName("상품: 모든 필드가 보존되고 자바 직렬화보다 작다")
+    void product_round_trip() throws IOException {
+        Product p = new Product("P001", "노트북", ProductCategory.전자제품, 1_250_000, 12, "가벼운 노트북");
+        p.setRegistrationDateTime(LocalDateTime.of(2025, 8, 21, 10, 30, 15, 123_000_000));
+        p.setSalesCount(42);
+
+        Product copy = roundTrip(ModelCodecs.PRODUCT, p);
+        assertEquals("P001", copy.getId());
+        assertEquals("노트북", copy.getName());
+        assertEquals(ProductCategory.전자제품, copy.getCategory());
+        assertEquals(1_250_000, copy.getPrice(), 0.0);
+        assertEquals(12, copy.getStock());
+        assertEquals(p.getRegistrationDateTime(), copy.getRegistrationDateTime());
+        assertEquals(42, copy.getSalesCount());
+
+        ByteArrayOutputStream javaBytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(javaBytes)) {
+            oos.writeObject(p);
+        }
+        assertTrue(encode(ModelCodecs.PRODUCT, p).length < javaBytes.size() / 4);
+    }
+
+    @Test
+    @DisplayName("사용자/관리자: 종류와 잔액이 보존된다")
+    void user_and_admin_round_trip() throws IOException {
+        User u = new User("user1", "hash", "user1@shopping.com", "홍길동");
+        u.setBalance(3500.5);
+        User copy = roundTrip(ModelCodecs.USER, u);
+        assertFalse(copy instanceof Admin);
+        assertEquals(3500.5, copy.getBalance(), 0.0);
+        assertEquals("user1@shopping.com", copy.getEmail());
+
+        Admin admin = roundTrip(ModelCodecs.ADMIN, new Admin("admin", "hash", "admin@shopping.com", "관리자"));
+        assertEquals("admin", admin.getId());
+    }
+
+    @Test
+    @DisplayName("주문: 아이템, 상태, 합계가 보존된다")
+    void order_round_trip() throws IOException {
+        Order order = new Order("O7", "user1",
+                List.of(new OrderItem("P001", "노트북", 1000, 2), new OrderItem("P002", "마우스", 500, 1)),
+                LocalDateTime.of(2025, 1, 1, 0, 0), OrderStatus.SHIPPING);
+
+        Order copy = roundTrip(ModelCodecs.ORDER, order);
+        assertEquals("O7", copy.getOrderId());
+        assertEquals(2, copy.getItems().size());
+        assertEquals(OrderStatus.SHIPPING, copy.getStatus());
+        assertEquals(2500, copy.getTotalPrice());
+    }
+
+    @Test
+    @DisplayName("장바구니: 상품과 수량이 보존된다")
+    void cart_round_trip() throws IOException {
+        Cart cart = new Cart("user1");
+        cart.addProduct(new Product("P001", "노트북", ProductCategory.전자제품, 1000, 5, null), 3);
+
+        Cart copy = roundTrip(ModelCodecs.CART, cart);
+        assertEquals("user1", copy.getUserId());
+        assertEquals(3, copy.getItems().get("P001").getQuantity());
+        assertNull(copy.getItems().get("P001").getProduct().getDescription());
+    }
+}
@@ -0,0 +1,127 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.User;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.RecordCursor;
+import com.shopping.persistence.SnapshotFile;
+
+/**
+ * SnapshotFile 단위 테스트
+ */
+class SnapshotFileTest {
+
+    private static final File TEST_FILE = new File("test_data/snapshot_users.dat");
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        for (String suffix : new String[] {"", ".bak", ".corrupt", ".tmp"}) {
+            new File(TEST_FILE.getPath() + suffix).delete();
+        }
+    }
+
+    private void corrupt(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3); // 끝 표시가 잘린 파일
+        }
+    }
+
+    @Test
+    @DisplayName("원본이 손상되면 직전 스냅샷(.bak)으로 복구한다")
+    void falls_back_to_backup() throws Exception {
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동")), ModelCodecs.USER);
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동"),
+                new User("u2", "pw", "b@b.com", "김철수")), ModelCodecs.USER);
+        corrupt(TEST_FILE);
+
+        SnapshotFile.Recovered<User> recovered = SnapshotFile.read(TEST_FILE, ModelCodecs.USER);
+        assertTrue(recovered.isFromBackup());
+        assertEquals(1, recovered.getRecords().size());
+        assertEquals("u1", recovered.getRecords().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("원본과 백업이 모두 손상되면 빈 목록 대신 예외를 던진다")
+    void unrecoverable_snapshot_throws() throws Exception {
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동")), ModelCodecs.USER);
+        SnapshotFile.write(TEST_FILE, List.of(new User("u2", "pw", "b@b.com", "김철수")), ModelCodecs.USER);
+        corrupt(TEST_FILE);
+        corrupt(SnapshotFile.backupOf(TEST_FILE));
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(TEST_FILE, ModelCodecs.USER));
+    }
+
+    @Test
+    @DisplayName("커서는 필요한 레코드까지만 디코딩하고, 손상된 레코드에 닿으면 예외를 던진다")
+    void cursor_decodes_lazily() throws Exception {
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동"),
+                new User("u2", "pw", "b@b.com", "김철수")), ModelCodecs.USER);
+        corrupt(TEST_FILE);
+
+        try (RecordCursor<User> cursor = SnapshotFile.openCursor(TEST_FILE, ModelCodecs.USER)) {
+            assertEquals("u1", cursor.next().getId());
+            assertEquals("u2", cursor.next().getId());
+            assertThrows(UncheckedIOException.class, cursor::hasNext); // 끝 표시가 잘림
+        }
+    }
+
+    @Test
+    @DisplayName("커서가 읽는 도중 손상을 만나면 백업으로 이어 읽거나, 원본을 격리해 다시 읽을 때 백업을 쓴다")
+    void cursor_falls_back_to_backup() throws Exception {
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동")), ModelCodecs.USER);
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동"),
+                new User("u2", "pw", "b@b.com", "김철수")), ModelCodecs.USER);
+        corrupt(TEST_FILE);
+
+        try (RecordCursor<User> cursor = SnapshotFile.openCursor(TEST_FILE, ModelCodecs.USER)) {
+            assertEquals("u1", cursor.next().getId());
+            assertEquals("u2", cursor.next().getId());
+            assertThrows(UncheckedIOException.class, cursor::hasNext); // 이미 받은 레코드가 있음 → 섞지 않음
+        }
+        assertTrue(new File(TEST_FILE.getPath() + ".corrupt").exists());
+
+        try (RecordCursor<User> cursor = SnapshotFile.openCursor(TEST_FILE, ModelCodecs.USER)) {
+            assertEquals("u1", cursor.next().getId()); // 다시 읽으면 백업
+            assertFalse(cursor.hasNext());
+        }
+    }
+
+    @Test
+    @DisplayName("첫 레코드부터 손상되었으면 커서가 바로 백업으로 이어 읽는다")
+    void cursor_switches_to_backup_before_first_record() throws Exception {
+        SnapshotFile.write(TEST_FILE, List.of(new User("u1", "pw", "a@a.com", "홍길동")), ModelCodecs.USER);
+        SnapshotFile.write(TEST_FILE, List.of(new User("u2", "pw", "b@b.com", "김철수")), ModelCodecs.USER);
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE, "rw")) {
+            raf.seek(6 + 8); // 헤더 + 첫 레코드 길이/체크섬 다음
+            int b = raf.read();
+            raf.seek(6 + 8);
+            raf.write(b ^ 0xFF);
+        }
+
+        try (RecordCursor<User> cursor = SnapshotFile.openCursor(TEST_FILE, ModelCodecs.USER)) {
+            assertEquals("u1", cursor.next().getId());
+            assertFalse(cursor.hasNext());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.persistence.DeltaStorageEngine;
+import com.shopping.persistence.InMemoryStorageEngine;
+import com.shopping.persistence.LogStructuredStorageEngine;
+import com.shopping.persistence.MapStorageEngine;
+import com.shopping.persistence.ModelCodecs;
+import com.shopping.persistence.ShardedStorageEngine;
+import com.shopping.persistence.SnapshotStorageEngine;
+import com.shopping.persistence.StorageEngine;
+import com.shopping.persistence.StorageEngines;
+import com.shopping.util.BloomFilter;
+
+/**
+ * StorageEngine 구현체 공통 동작 테스트
+ */
+class StorageEngineTest {
+
+    private static final String TEST_FILE = "test_data/engine_products.dat";
+    private static final String LAYOUT_FILE = "test_data/engine_layout.dat"; // shared()가 엔진을 캐시하므로 따로 씀
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+        System.clearProperty(StorageEngines.ENGINE_PROPERTY);
+    }
+
+    private void cleanUp() {
+        cleanUp(TEST_FILE);
+        cleanUp(LAYOUT_FILE);
+    }
+
+    private void cleanUp(String fileName) {
+        File file = new File(fileName);
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            if (f.getName().startsWith(file.getName())) f.delete();
+        }
+    }
+
+    private Product product(String id, String name) {
+        return new Product(id, name, ProductCategory.전자제품, 1000, 1, "설명");
+    }
+
+    private void exercise(StorageEngine<String, Product> engine) {
+        engine.put(product("P001", "노트북"));
+        engine.put(product("P002", "마우스"));
+        engine.apply(List.of(product("P001", "게이밍 노트북"), product("P003", "키보드")), List.of("P002"));
+        assertFalse(engine.remove("P999"));
+        engine.close();
+    }
+
+    private void assertState(StorageEngine<String, Product> engine) {
+        assertEquals(2, engine.size());
+        assertEquals("게이밍 노트북", engine.get("P001").getName());
+        assertFalse(engine.containsKey("P002"));
+        assertEquals(List.of("P001", "P003"), engine.values().stream().map(Product::getId).toList());
+    }
+
+    private void assertDurable(Supplier<StorageEngine<String, Product>> open) {
+        StorageEngine<String, Product> engine = open.get();
+        exercise(engine);
+        assertState(engine);
+
+        StorageEngine<String, Product> reopened = open.get();
+        assertState(reopened);
+        reopened.checkpoint();
+        reopened.clear();
+        reopened.close();
+        assertEquals(0, open.get().size());
+    }
+
+    @Test
+    @DisplayName("메모리 엔진은 파일을 만들지 않는다")
+    void in_memory_engine() {
+        StorageEngine<String, Product> engine = new InMemoryStorageEngine<>(Product::getId);
+        exercise(engine);
+        assertState(engine);
+        assertFalse(new File(TEST_FILE).exists());
+    }
+
+    @Test
+    @DisplayName("스냅샷 / 로그 / 델타 엔진은 다시 열어도 같은 상태가 복구된다")
+    void durable_engines_reload() {
+        assertDurable(() -> new SnapshotStorageEngine<>(TEST_FILE, Product::getId, ModelCodecs.PRODUCT));
+        cleanUp();
+        assertDurable(() -> new LogStructuredStorageEngine<>(TEST_FILE, Product::getId, ModelCodecs.PRODUCT, 2, null));
+        cleanUp();
+        assertDurable(() -> new DeltaStorageEngine<>(new File(TEST_FILE), Product::getId, ModelCodecs.PRODUCT, 2, false));
+    }
+
+    @Test
+    @DisplayName("스냅샷 엔진은 기록에 실패하면 예외를 던진다")
+    void snapshot_engine_reports_write_failure() {
+        StorageEngine<String, Product> engine = new SnapshotStorageEngine<>(TEST_FILE, Product::getId, ModelCodecs.PRODUCT);
+        File blocker = new File(TEST_FILE + ".tmp");
+        assertTrue(blocker.mkdirs()); // 임시 파일 자리에 디렉토리가 있으면 기록할 수 없음
+        assertThrows(UncheckedIOException.class, () -> engine.put(product("P001", "노트북")));
+    }
+
+    /**
+     * fail을 켜면 기록에 실패하는 엔진
+     */
+    private static final class FailingEngine extends MapStorageEngine<String, Product> {
+        boolean fail;
+
+        FailingEngine() {
+            super(Product::getId);
+        }
+
+        @Override
+        protected void persist(Collection<Product> puts, Collection<String> deleteKeys) {
+            if (fail) throw new UncheckedIOException(new IOException("디스크 오류"));
+        }
+
+        @Override
+        protected void persistAll(Collection<Product> live) {
+            if (fail) throw new UncheckedIOException(new IOException("디스크 오류"));
+        }
+    }
+
+    @Test
+    @DisplayName("기록에 실패하면 메모리, 보조 인덱스, 변경 알림 모두 그대로다")
+    void failed_persist_leaves_memory_untouched() {
+        FailingEngine engine = new FailingEngine();
+        engine.addUniqueIndex("name", Product::getName);
+        engine.enableBloomFilter(16, 0.01);
+        engine.put(product("P1", "노트북"));
+        engine.put(product("P2", "마우스"));
+        List<String> events = new ArrayList<>();
+        engine.addListener(new StorageEngine.ChangeListener<String, Product>() {
+            @Override
+            public void onPut(String key, Product value) {
+                events.add("put " + key);
+            }
+
+            @Override
+            public void onRemove(String key) {
+                events.add("remove " + key);
+            }
+        });
+        events.clear();
+
+        engine.fail = true;
+        assertThrows(UncheckedIOException.class, () -> engine.put(product("P3", "키보드")));
+        assertThrows(UncheckedIOException.class, () -> engine.put(product("P1", "게이밍 노트북")));
+        assertThrows(UncheckedIOException.class, () -> engine.remove("P2"));
+        assertThrows(UncheckedIOException.class, engine::clear);
+
+        assertNull(engine.get("P3"));
+        assertFalse(engine.containsKey("P3"));
+        assertNull(engine.getByIndex("name", "키보드"));
+        assertEquals("노트북", engine.get("P1").getName());
+        assertEquals("P1", engine.getByIndex("name", "노트북").getId());
+        assertNull(engine.getByIndex("name", "게이밍 노트북"));
+        assertEquals("P2", engine.getByIndex("name", "마우스").getId());
+        assertEquals(List.of("P1", "P2"), engine.values().stream().map(Product::getId).toList());
+        assertTrue(events.isEmpty(), events.toString());
+
+        engine.fail = false;
+        engine.put(product("P3", "키보드")); // 재시도는 중복으로 거부되지 않음
+        assertEquals(List.of("put P3"), events);
+    }
+
+    @Test
+    @DisplayName("블룸 필터를 켜도 있는 키는 항상 찾고, 용량을 넘겨 다시 만들어도 거짓 음성이 없다")
+    void bloom_filter_has_no_false_negatives() {
+        StorageEngine<String, Product> engine = new InMemoryStorageEngine<>(Product::getId);
+        engine.addUniqueIndex("name", Product::getName);
+        engine.enableBloomFilter(16, 0.01);
+        for (int i = 0; i < 5000; i++) {
+            engine.put(product("P" + i, "상품" + i));
+        }
+        engine.remove("P10");
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i != 10, engine.containsKey("P" + i));
+            assertEquals(i != 10, engine.getByIndex("name", "상품" + i) != null);
+        }
+        assertFalse(engine.containsKey("X1"));
+        assertNull(engine.getByIndex("name", "없는 상품"));
+
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.add("user" + i);
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("guest" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 300, "거짓 양성 " + falsePositives + "건");
+    }
+
+    @Test
+    @DisplayName("유일 보조 인덱스는 다른 레코드의 보조 키를 거부하고, 같은 배치에서 비는 보조 키는 허용한다")
+    void unique_index_rejects_conflicts() {
+        StorageEngine<String, Product> single = new InMemoryStorageEngine<>(Product::getId);
+        StorageEngine<String, Product> sharded = new ShardedStorageEngine<>(4,
+                i -> new InMemoryStorageEngine<>(Product::getId), Product::getId);
+        for (StorageEngine<String, Product> engine : List.of(single, sharded)) {
+            engine.addUniqueIndex("name", Product::getName);
+            engine.put(product("P1", "노트북"));
+            engine.put(product("P2", "마우스"));
+
+            assertThrows(IllegalArgumentException.class, () -> engine.put(product("P3", "노트북")));
+            assertThrows(IllegalArgumentException.class,
+                    () -> engine.apply(List.of(product("P4", "키보드"), product("P5", "키보드")), List.of()));
+            assertEquals(2, engine.size());
+            assertEquals("P1", engine.getByIndex("name", "노트북").getId());
+            assertNull(engine.getByIndex("name", "키보드"));
+
+            engine.apply(List.of(product("P3", "노트북")), List.of("P1"));               // 삭제로 비는 보조 키
+            engine.apply(List.of(product("P2", "패드"), product("P4", "마우스")), List.of()); // 이름을 바꿔 비는 보조 키
+            assertEquals("P3", engine.getByIndex("name", "노트북").getId());
+            assertEquals("P4", engine.getByIndex("name", "마우스").getId());
+            assertEquals("P2", engine.getByIndex("name", "패드").getId());
+        }
+    }
+
+    @Test
+    @DisplayName("조각 엔진은 단일 파일을 옮겨 받고, 키와 보조 인덱스 조회가 조각을 넘어 동작한다")
+    void sharded_engine_migrates_and_routes() {
+        StorageEngine<String, Product> single = new SnapshotStorageEngine<>(TEST_FILE, Product::getId, ModelCodecs.PRODUCT);
+        for (int i = 0; i < 20; i++) single.put(product("P" + i, "상품" + i));
+        single.close();
+
+        StorageEngine<String, Product> sharded = StorageEngines.shared(TEST_FILE, StorageEngines.Type.SNAPSHOT, 4,
+                Product::getId, ModelCodecs.PRODUCT);
+        assertTrue(sharded instanceof ShardedStorageEngine);
+        assertTrue(new File(TEST_FILE + ".migrated").exists());
+        assertEquals(20, sharded.size());
+
+        sharded.addUniqueIndex("name", Product::getName);
+        Product renamed = sharded.get("P3");
+        renamed.setName("새 이름");
+        sharded.apply(List.of(renamed, product("P20", "상품20")), List.of("P4"));
+        assertNull(sharded.getByIndex("name", "상품3"));
+        assertEquals("P3", sharded.getByIndex("name", "새 이름").getId());
+        assertNull(sharded.getByIndex("name", "상품4"));
+
+        StorageEngine<String, Product> reopened = new ShardedStorageEngine<>(4,
+                i -> new SnapshotStorageEngine<>(StorageEngines.shardFileName(TEST_FILE, i, 4), Product::getId,
+                        ModelCodecs.PRODUCT),
+                Product::getId);
+        assertEquals(20, reopened.size());
+        assertEquals("새 이름", reopened.get("P3").getName());
+        assertFalse(reopened.containsKey("P4"));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(new File(StorageEngines.shardFileName(TEST_FILE, i, 4)).exists());
+        }
+    }
+
+    @Test
+    @DisplayName("다른 조각 수의 파일이나 .migrated만 남아 있으면 빈 저장소로 열지 않는다")
+    void mismatched_shard_layout_fails_loudly() {
+        StorageEngine<String, Product> sharded = new ShardedStorageEngine<>(4,
+                i -> new SnapshotStorageEngine<>(StorageEngines.shardFileName(LAYOUT_FILE, i, 4), Product::getId,
+                        ModelCodecs.PRODUCT),
+                Product::getId);
+        for (int i = 0; i < 8; i++) sharded.put(product("P" + i, "상품" + i));
+        sharded.close();
+
+        assertThrows(IllegalStateException.class, () -> StorageEngines.shared(LAYOUT_FILE, StorageEngines.Type.SNAPSHOT,
+                1, Product::getId, ModelCodecs.PRODUCT));
+        assertThrows(IllegalStateException.class, () -> StorageEngines.shared(LAYOUT_FILE, StorageEngines.Type.SNAPSHOT,
+                2, Product::getId, ModelCodecs.PRODUCT));
+
+        cleanUp();
+        StorageEngine<String, Product> single = new SnapshotStorageEngine<>(LAYOUT_FILE + ".migrated", Product::getId,
+                ModelCodecs.PRODUCT);
+        single.put(product("P1", "상품1"));
+        single.close();
+        assertThrows(IllegalStateException.class, () -> StorageEngines.shared(LAYOUT_FILE, StorageEngines.Type.SNAPSHOT,
+                1, Product::getId, ModelCodecs.PRODUCT));
+    }
+
+    @Test
+    @DisplayName("설정 프로퍼티로 엔진을 고른다")
+    void engine_is_chosen_by_property() {
+        System.setProperty(StorageEngines.ENGINE_PROPERTY, "memory");
+        assertTrue(StorageEngines.create(TEST_FILE, StorageEngines.Type.LOG, Product::getId, ModelCodecs.PRODUCT)
+                instanceof InMemoryStorageEngine);
+        System.setProperty(StorageEngines.ENGINE_PROPERTY, "disk");
+        assertThrows(IllegalArgumentException.class, () -> StorageEngines.configuredType("products", StorageEngines.Type.LOG));
+    }
+}
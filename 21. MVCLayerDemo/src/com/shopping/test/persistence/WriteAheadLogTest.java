@@ -0,0 +1,127 @@
+package com.shopping.test.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Product;
+import com.shopping.model.ProductCategory;
+import com.shopping.persistence.WriteAheadLog;
+
+/**
+ * WriteAheadLog 단위 테스트
+ */
+class WriteAheadLogTest {
+
+    private static final String TEST_FILE = "test_data/wal_products.dat";
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        // 스냅샷, 백업, 로그 세그먼트(.log.<n>, .log.<n>.prev)까지 모두 삭제
+        File file = new File(TEST_FILE);
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            if (f.getName().startsWith(file.getName())) f.delete();
+        }
+    }
+
+    private Product product(String id, String name) {
+        return new Product(id, name, ProductCategory.전자제품, 1000, 1, "설명");
+    }
+
+    @Test
+    @DisplayName("저장/삭제 로그를 재생하면 마지막 상태가 복구된다")
+    void replay_restores_last_state() {
+        WriteAheadLog<Product> wal = new WriteAheadLog<>(TEST_FILE, Product::getId);
+        wal.recover();
+        wal.appendPut(product("P001", "노트북"));
+        wal.appendPut(product("P002", "마우스"));
+        wal.appendPut(product("P001", "게이밍 노트북"));
+        wal.appendDelete("P002");
+        wal.close();
+
+        Map<String, Product> state = new WriteAheadLog<Product>(TEST_FILE, Product::getId).recover();
+        assertEquals(1, state.size());
+        assertEquals("게이밍 노트북", state.get("P001").getName());
+    }
+
+    @Test
+    @DisplayName("체크포인트 후에는 스냅샷만으로 복구되고 로그는 비워진다")
+    void checkpoint_folds_log_into_snapshot() {
+        WriteAheadLog<Product> wal = new WriteAheadLog<>(TEST_FILE, Product::getId, 2);
+        Map<String, Product> state = wal.recover();
+        for (String id : new String[] {"P001", "P002"}) {
+            Product p = product(id, "상품" + id);
+            state.put(id, p);
+            wal.appendPut(p);
+        }
+        assertTrue(wal.needsCheckpoint());
+        wal.checkpoint(state.values());
+        wal.close();
+
+        assertEquals(0, new File(TEST_FILE + ".log").length());
+        assertEquals(2, new WriteAheadLog<Product>(TEST_FILE, Product::getId).recover().size());
+    }
+
+    @Test
+    @DisplayName("잘린 꼬리 레코드는 버리고 앞부분까지만 복구한다")
+    void torn_tail_is_discarded() throws Exception {
+        WriteAheadLog<Product> wal = new WriteAheadLog<>(TEST_FILE, Product::getId);
+        wal.recover();
+        wal.appendPut(product("P001", "노트북"));
+        wal.appendPut(product("P002", "마우스"));
+        wal.close();
+
+        File log = new File(TEST_FILE + ".log");
+        try (RandomAccessFile raf = new RandomAccessFile(log, "rw")) {
+            raf.setLength(log.length() - 5);
+        }
+
+        Map<String, Product> state = new WriteAheadLog<Product>(TEST_FILE, Product::getId).recover();
+        assertEquals(1, state.size());
+        assertTrue(state.containsKey("P001"));
+    }
+
+    @Test
+    @DisplayName("스냅샷이 손상되면 직전 스냅샷 + 직전 로그 + 현재 로그로 복구한다")
+    void corrupted_snapshot_falls_back_to_backup() throws Exception {
+        WriteAheadLog<Product> wal = new WriteAheadLog<>(TEST_FILE, Product::getId, 1);
+        Map<String, Product> state = wal.recover();
+        for (String id : new String[] {"P001", "P002", "P003"}) {
+            Product p = product(id, "상품" + id);
+            state.put(id, p);
+            wal.appendPut(p);
+            wal.checkpoint(state.values());
+        }
+        wal.appendDelete("P001");
+        wal.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_FILE, "rw")) {
+            raf.seek(raf.length() / 2);
+            raf.write(0x7F); // 스냅샷 중간 바이트 손상
+        }
+
+        state = new WriteAheadLog<Product>(TEST_FILE, Product::getId).recover();
+        assertEquals(2, state.size());
+        assertTrue(state.containsKey("P002"));
+        assertTrue(state.containsKey("P003"));
+        assertTrue(new File(TEST_FILE + ".corrupt").exists());
+    }
+}
@@ -0,0 +1,72 @@
+package com.shopping.test.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.model.Admin;
+import com.shopping.model.Role;
+import com.shopping.model.User;
+import com.shopping.persistence.InMemoryStorageEngine;
+import com.shopping.repository.AccountIndex;
+import com.shopping.repository.FileAdminRepository;
+import com.shopping.repository.FileUserRepository;
+import com.shopping.service.AuthService;
+
+/**
+ * AccountIndex + AuthService 통합 인덱스 로그인 테스트 (메모리 엔진 사용)
+ */
+class AccountIndexTest {
+
+    private FileUserRepository userRepo;
+    private FileAdminRepository adminRepo;
+    private AccountIndex index;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = new FileUserRepository(new InMemoryStorageEngine<>(User::getId));
+        adminRepo = new FileAdminRepository(new InMemoryStorageEngine<>(Admin::getId));
+        index = AccountIndex.of(userRepo, adminRepo);
+        authService = new AuthService(userRepo, adminRepo, index); // 기본 관리자/사용자 생성
+    }
+
+    @Test
+    @DisplayName("역할과 관계없이 이메일 한 번 조회로 로그인한다")
+    void login_resolves_role_from_index() throws Exception {
+        assertEquals(2, index.size());
+        assertEquals(Role.ADMIN, authService.login("admin@shopping.com", "admin123"));
+        assertEquals(Role.USER, authService.login("user@shopping.com", "user123"));
+        assertThrows(Exception.class, () -> authService.login("admin@shopping.com", "wrong"));
+        assertThrows(Exception.class, () -> authService.login("nobody@shopping.com", "admin123"));
+    }
+
+    @Test
+    @DisplayName("이메일 변경과 삭제가 인덱스에 바로 반영된다")
+    void index_follows_repository_changes() throws Exception {
+        authService.registerUser("kim", "pw1234", "kim@shopping.com", "김");
+        User kim = userRepo.findById("kim");
+        kim.setEmail("kim2@shopping.com");
+        userRepo.save(kim);
+
+        assertNull(index.find("kim@shopping.com"));
+        assertEquals("kim", index.find("kim2@shopping.com").getId());
+        assertEquals(Role.USER, authService.login("kim2@shopping.com", "pw1234"));
+
+        userRepo.deleteById("kim");
+        assertNull(index.find("kim2@shopping.com"));
+        adminRepo.deleteAll();
+        assertNull(index.find("admin@shopping.com"));
+    }
+
+    @Test
+    @DisplayName("같은 엔진 쌍에는 인덱스를 하나만 만들어 리스너가 쌓이지 않는다")
+    void one_index_per_engine_pair() {
+        assertSame(index, AccountIndex.of(userRepo, adminRepo));
+
+        FileUserRepository otherUsers = new FileUserRepository(new InMemoryStorageEngine<>(User::getId));
+        assertNotSame(index, AccountIndex.of(otherUsers, adminRepo));
+    }
+}
@@ -22,11 +22,19 @@ public class AuthServiceTest {
     @InjectMocks
     AuthService authService;
 
+    // 정적 목은 스레드에 남아 다른 테스트의 PasswordEncoder까지 바꾸므로 테스트마다 닫음
+    MockedStatic<PasswordEncoder> passwordEncoder;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
+    @AfterEach
+    void tearDown() {
+        if (passwordEncoder != null) passwordEncoder.close();
+    }
+
     @Test
     void testRegisterUser_Success() throws Exception {
         Mockito.when(userRepository.existsById("user1")).thenReturn(false);
@@ -52,7 +60,8 @@ public class AuthServiceTest {
         User user = new User("user3", PasswordEncoder.hash("pass123"), "email3@example.com", "User3");
         Mockito.when(userRepository.findByEmail("email3@example.com")).thenReturn(user);
         Mockito.when(adminRepository.findByEmail("email3@example.com")).thenReturn(null);
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.matches("pass123", user.getPassword())).thenReturn(true);
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.matches("pass123", user.getPassword())).thenReturn(true);
 
         Role role = authService.login("email3@example.com", "pass123");
         assertEquals(Role.USER, role);
@@ -63,7 +72,8 @@ public class AuthServiceTest {
     void testLoginFailWrongPassword() {
         User user = new User("user4", PasswordEncoder.hash("correctpass"), "email4@example.com", "User4");
         Mockito.when(userRepository.findByEmail("email4@example.com")).thenReturn(user);
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.matches("wrongpass", user.getPassword())).thenReturn(false);
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.matches("wrongpass", user.getPassword())).thenReturn(false);
 
         Exception ex = assertThrows(Exception.class, () -> {
             authService.login("email4@example.com", "wrongpass");
@@ -75,7 +85,8 @@ public class AuthServiceTest {
     void testLogoutClearsState() throws Exception {
         User user = new User("user5", PasswordEncoder.hash("pwd123"), "email5@example.com", "User5");
         Mockito.when(userRepository.findByEmail("email5@example.com")).thenReturn(user);
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.matches("pwd123", user.getPassword())).thenReturn(true);
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.matches("pwd123", user.getPassword())).thenReturn(true);
 
         authService.login("email5@example.com", "pwd123");
         assertTrue(authService.isLoggedIn());
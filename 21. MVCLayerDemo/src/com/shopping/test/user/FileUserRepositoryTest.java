@@ -3,7 +3,17 @@ package com.shopping.test.user;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
 import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import com.shopping.model.User;
+import com.shopping.repository.BulkImportResult;
+import com.shopping.repository.CursorPage;
 import com.shopping.repository.FileUserRepository;
 import com.shopping.util.Constants;
 
@@ -62,6 +72,114 @@ public class FileUserRepositoryTest {
         assertThrows(IllegalArgumentException.class, () -> repo.save(u2));
     }
 
+    @Test
+    void testEmailIndexFollowsUpdate() {
+        User u = new User("id7", "pw", "old7@example.com", "Name7");
+        repo.save(u);
+        // 조회한 객체의 이메일을 바꾼 뒤 저장해도 이전 이메일 인덱스가 정리되어야 함
+        User found = repo.findById("id7");
+        found.setEmail("new7@example.com");
+        repo.save(found);
+        assertNull(repo.findByEmail("old7@example.com"));
+        assertEquals("id7", repo.findByEmail("new7@example.com").getId());
+        assertTrue(repo.existsByEmail("new7@example.com"));
+        // 같은 파일을 쓰는 다른 저장소 인스턴스도 같은 인덱스를 봄
+        assertEquals("id7", new FileUserRepository().findByEmail("new7@example.com").getId());
+    }
+
+    @Test
+    void testConcurrentRegistrationsCannotShareEmail() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = IntStream.range(0, threads)
+                .mapToObj(i -> pool.submit(() -> {
+                    start.await();
+                    try {
+                        repo.save(new User("race" + i, "pw", "race@example.com", "Race" + i));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }))
+                .toList();
+        start.countDown();
+        int saved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) saved++;
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, saved);
+        assertEquals(1, repo.count());
+        assertEquals(repo.findAll().get(0).getId(), repo.findByEmail("race@example.com").getId());
+    }
+
+    @Test
+    void testFailedSaveLeavesStoredUserUntouched() {
+        repo.save(new User("c1", "pw", "c1@example.com", "철수"));
+        repo.save(new User("c2", "pw", "c2@example.com", "영희"));
+
+        User edited = repo.findById("c1");
+        edited.setName("민수");
+        edited.setEmail("c2@example.com"); // 다른 계정의 이메일 → 저장 실패
+        assertThrows(IllegalArgumentException.class, () -> repo.save(edited));
+
+        User stored = repo.findById("c1");
+        assertEquals("철수", stored.getName());
+        assertEquals("c1@example.com", stored.getEmail());
+        assertEquals("c1", repo.findByEmail("c1@example.com").getId());
+        assertEquals(List.of("c1"), ids(repo.findByNameContaining("철수")));
+        assertTrue(repo.findByNameContaining("민수").isEmpty());
+    }
+
+    @Test
+    void testSaveAllSkipsDuplicateEmails() {
+        repo.save(new User("id8", "pw", "taken@example.com", "Name8"));
+        List<User> saved = repo.saveAll(List.of(
+                new User("id9", "pw", "email9@example.com", "Name9"),
+                new User("id10", "pw", "taken@example.com", "Name10"),    // 저장된 계정과 중복
+                new User("id11", "pw", "email9@example.com", "Name11"),   // 같은 배치 안에서 중복
+                new User("id8", "pw", "taken@example.com", "NewName8"))); // 자기 이메일로 수정
+        assertEquals(List.of("id9", "id8"), saved.stream().map(User::getId).toList());
+        assertEquals(2, repo.count());
+        assertEquals("NewName8", repo.findById("id8").getName());
+    }
+
+    @Test
+    void testStreamingImportReportsFailures() {
+        Iterator<User> input = IntStream.range(0, 25)
+                .mapToObj(i -> new User("bulk" + i, "pw", "bulk" + (i % 20) + "@example.com", "Bulk" + i))
+                .iterator();
+        BulkImportResult result = repo.importAll(input, 7);
+        assertEquals(20, result.getImportedCount());
+        assertEquals(5, result.getFailures().size());
+        assertEquals(20, result.getFailures().get(0).getPosition());
+        assertEquals(20, repo.count());
+    }
+
+    @Test
+    void testFindByNameContainingUsesIndex() {
+        repo.save(new User("n1", "pw", "n1@example.com", "김철수"));
+        repo.save(new User("n2", "pw", "n2@example.com", "박철수"));
+        repo.save(new User("n3", "pw", "n3@example.com", "Johnson"));
+        assertEquals(List.of("n1", "n2"), ids(repo.findByNameContaining("철수")));   // 한글 2글자
+        assertEquals(List.of("n3"), ids(repo.findByNameContaining("ohn")));          // trigram
+        assertTrue(repo.findByNameContaining("OHN").isEmpty());                       // 대소문자 구분은 그대로
+        assertEquals(List.of("n1"), ids(repo.findByNameContaining("김")));            // 1글자는 전체 검사
+
+        User renamed = repo.findById("n2");
+        renamed.setName("박영희");
+        repo.save(renamed);
+        repo.deleteById("n1");
+        assertTrue(repo.findByNameContaining("철수").isEmpty());
+        assertEquals(List.of("n2"), ids(repo.findByNameContaining("영희")));
+    }
+
+    private List<String> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
     @Test
     void testDeleteAll() {
         repo.save(new User("id6", "pw", "email6@example.com", "Name6"));
@@ -69,4 +187,25 @@ public class FileUserRepositoryTest {
         assertEquals(0, repo.count());
         assertTrue(repo.findAll().isEmpty());
     }
+
+    @Test
+    void testFindPageAfterWalksIdsInOrder() {
+        for (int i = 25; i >= 1; i--) {
+            repo.save(new User(String.format("u%02d", i), "pw", "page" + i + "@example.com", "Page" + i));
+        }
+
+        CursorPage<User> first = repo.findPageAfter(null, 10);
+        assertEquals(10, first.getItems().size());
+        assertEquals("u01", first.getItems().get(0).getId());
+        assertEquals("u10", first.getNextCursor());
+
+        repo.deleteById("u11"); // 페이지 사이 삭제는 건너뜀
+        CursorPage<User> second = repo.findPageAfter(first.getNextCursor(), 10);
+        assertEquals("u12", second.getItems().get(0).getId());
+        assertEquals("u21", second.getNextCursor());
+
+        CursorPage<User> last = repo.findPageAfter(second.getNextCursor(), 10);
+        assertEquals(List.of("u22", "u23", "u24", "u25"), last.getItems().stream().map(User::getId).toList());
+        assertFalse(last.hasNext());
+    }
 }
@@ -0,0 +1,28 @@
+package com.shopping.test.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.util.PasswordEncoder;
+
+class PasswordEncoderTest {
+
+    @Test
+    @DisplayName("저장 형식은 SHA-256 소문자 16진수 그대로다")
+    void hash_matches_sha256_hex() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", PasswordEncoder.hash("abc"));
+    }
+
+    @Test
+    @DisplayName("matches는 같은 비밀번호만 통과하고 형식이 잘못된 해시는 거부한다")
+    void matches_compares_digest_bytes() {
+        String stored = PasswordEncoder.hash("pw1234");
+        assertTrue(PasswordEncoder.matches("pw1234", stored));
+        assertFalse(PasswordEncoder.matches("pw1235", stored));
+        assertFalse(PasswordEncoder.matches("pw1234", stored.toUpperCase()));
+        assertFalse(PasswordEncoder.matches("pw1234", stored.substring(1)));
+        assertFalse(PasswordEncoder.matches("pw1234", null));
+    }
+}
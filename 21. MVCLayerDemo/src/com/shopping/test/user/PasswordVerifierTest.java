@@ -0,0 +1,88 @@
+package com.shopping.test.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.util.PasswordEncoder;
+import com.shopping.util.PasswordVerifier;
+
+class PasswordVerifierTest {
+
+    private PasswordVerifier verifier;
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (verifier != null) verifier.shutdown();
+    }
+
+    @Test
+    @DisplayName("작업 풀에서 확인한 결과와 지표를 돌려준다")
+    void verify_on_pool() {
+        verifier = new PasswordVerifier("test", 2, 4, 1000);
+        String stored = PasswordEncoder.hash("pw1234");
+        assertTrue(verifier.verify("pw1234", stored));
+        assertFalse(verifier.verify("wrong", stored));
+
+        PasswordVerifier.Stats stats = verifier.stats();
+        assertEquals(2, stats.getCompletedCount());
+        assertEquals(0, stats.getRejectedCount());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 기다리지 않고 바로 거절한다")
+    void rejects_when_queue_full() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        verifier = new PasswordVerifier("test", 1, 1, 5000, (pw, hash) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        });
+
+        callers.submit(() -> verifier.verify("a", "h")); // 실행 중
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> verifier.verify("b", "h")); // 대기열
+        long deadline = System.currentTimeMillis() + 5000;
+        while (verifier.stats().getQueueDepth() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, verifier.stats().getQueueDepth());
+
+        assertThrows(RejectedExecutionException.class, () -> verifier.verify("c", "h"));
+        assertEquals(1, verifier.stats().getRejectedCount());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 확인하지 못하면 거절한다")
+    void rejects_on_timeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        verifier = new PasswordVerifier("test", 1, 1, 50, (pw, hash) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        });
+        assertThrows(RejectedExecutionException.class, () -> verifier.verify("a", "h"));
+        assertEquals(1, verifier.stats().getRejectedCount());
+        release.countDown();
+    }
+}
@@ -0,0 +1,124 @@
+package com.shopping.test.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.shopping.Auth.SessionRegistry;
+import com.shopping.exception.UnauthorizedException;
+import com.shopping.model.Admin;
+import com.shopping.model.Role;
+import com.shopping.model.User;
+import com.shopping.persistence.InMemoryStorageEngine;
+import com.shopping.repository.AccountIndex;
+import com.shopping.repository.FileAdminRepository;
+import com.shopping.repository.FileUserRepository;
+import com.shopping.service.AuthService;
+import com.shopping.service.AuthorizationService;
+
+/**
+ * SessionRegistry 토큰 세션 + 유휴 만료 테스트 (시각은 직접 진행)
+ */
+class SessionRegistryTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private SessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SessionRegistry(30 * MINUTE, 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("유휴 시간이 지나면 만료되고, 그 사이 접근하면 연장된다")
+    void idle_expiry_and_touch() {
+        String idle = registry.open("kim", Role.USER, null);
+        String active = registry.open("admin", Role.ADMIN, null);
+
+        for (int i = 0; i < 5; i++) {
+            now.addAndGet(20 * MINUTE);
+            assertEquals(Role.ADMIN, registry.roleOf(active)); // 20분마다 접근 → 계속 살아 있음
+        }
+        assertNull(registry.find(idle));
+        assertEquals(1, registry.size()); // 휠이 만료 세션을 치움
+
+        now.addAndGet(30 * MINUTE);
+        registry.expireIdle();
+        assertEquals(0, registry.size());
+        assertNull(registry.roleOf(active));
+    }
+
+    @Test
+    @DisplayName("휠 여러 단계에 걸친 긴 유휴 시간도 정확한 틱에 만료된다")
+    void long_timeout_cascades() {
+        registry = new SessionRegistry(3 * 24 * 60 * MINUTE, 1000, now::get); // 3일 → 3단계
+        String token = registry.open("kim", Role.USER, null);
+
+        now.addAndGet(3 * 24 * 60 * MINUTE - 1000);
+        registry.expireIdle();
+        assertEquals(1, registry.size());
+        now.addAndGet(1000);
+        registry.expireIdle();
+        assertEquals(0, registry.size());
+        assertNull(registry.find(token));
+    }
+
+    @Test
+    @DisplayName("토큰 세션은 서로 독립적이고 토큰으로 권한을 확인한다")
+    void token_sessions_with_authorization() throws Exception {
+        FileUserRepository userRepo = new FileUserRepository(new InMemoryStorageEngine<>(User::getId));
+        FileAdminRepository adminRepo = new FileAdminRepository(new InMemoryStorageEngine<>(Admin::getId));
+        AuthService authService = new AuthService(userRepo, adminRepo, AccountIndex.of(userRepo, adminRepo),
+                null, registry);
+        AuthorizationService authorization = new AuthorizationService(authService);
+
+        String admin = authService.openSession("admin@shopping.com", "admin123");
+        String user = authService.openSession("user@shopping.com", "user123");
+        assertFalse(authService.isLoggedIn()); // 서비스 단일 로그인 상태는 그대로
+
+        assertEquals("admin", authorization.assertLoggedIn(admin, Role.ADMIN).getUserId());
+        assertEquals("user", authorization.assertLoggedIn(user).getUserId());
+        assertThrows(UnauthorizedException.class, () -> authorization.assertLoggedIn(user, Role.ADMIN));
+        assertTrue(authorization.hasRole(user, Role.USER));
+
+        authService.closeSession(user);
+        assertThrows(UnauthorizedException.class, () -> authorization.assertLoggedIn(user));
+        assertTrue(authorization.hasRole(admin, Role.ADMIN));
+    }
+
+    @Test
+    @DisplayName("콘솔 로그인도 세션 저장소의 토큰 하나로 관리된다")
+    void console_login_uses_registry_token() throws Exception {
+        FileUserRepository userRepo = new FileUserRepository(new InMemoryStorageEngine<>(User::getId));
+        FileAdminRepository adminRepo = new FileAdminRepository(new InMemoryStorageEngine<>(Admin::getId));
+        AuthService authService = new AuthService(userRepo, adminRepo, AccountIndex.of(userRepo, adminRepo),
+                null, registry);
+        AuthorizationService authorization = new AuthorizationService(authService);
+
+        assertEquals(Role.USER, authService.login("user@shopping.com", "user123"));
+        String first = authService.getCurrentToken();
+        assertEquals("user", authorization.assertLoggedIn(first, Role.USER).getUserId());
+        assertEquals(1, registry.size());
+
+        assertEquals(Role.ADMIN, authService.login("admin@shopping.com", "admin123")); // 다시 로그인하면 이전 토큰은 닫힘
+        assertNull(registry.find(first));
+        assertEquals(1, registry.size());
+        authorization.assertCanManageProducts();
+
+        now.addAndGet(30 * MINUTE); // 유휴 만료되면 콘솔도 로그아웃 상태
+        assertFalse(authService.isLoggedIn());
+        assertNull(authService.getLoggedInUser());
+        assertThrows(UnauthorizedException.class, authorization::assertLoggedIn);
+
+        authService.login("user@shopping.com", "user123");
+        authService.logout();
+        assertNull(authService.getCurrentToken());
+        assertEquals(0, registry.size());
+    }
+}
@@ -16,12 +16,20 @@ public class UserServiceTest2 {
 
     UserService userService;
 
+    // 정적 목은 스레드에 남아 다른 테스트의 PasswordEncoder까지 바꾸므로 테스트마다 닫음
+    MockedStatic<PasswordEncoder> passwordEncoder;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         userService = new UserService(mockUserRepo);
     }
 
+    @AfterEach
+    void tearDown() {
+        if (passwordEncoder != null) passwordEncoder.close();
+    }
+
     @Test
     void testRegisterSuccess() throws Exception {
         Mockito.when(mockUserRepo.existsById("id1")).thenReturn(false);
@@ -46,7 +54,8 @@ public class UserServiceTest2 {
     void testLoginSuccess() throws Exception {
         User user = new User("id3", "hashedpassword", "email3@example.com", "Name3");
         Mockito.when(mockUserRepo.findById("id3")).thenReturn(user);
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.matches(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.matches(Mockito.anyString(), Mockito.anyString())).thenReturn(true);
 
         User loginUser = userService.login("id3", "password");
         assertEquals("id3", loginUser.getId());
@@ -56,7 +65,8 @@ public class UserServiceTest2 {
     void testLoginFailWrongPassword() {
         User user = new User("id4", "hashedpassword", "email4@example.com", "Name4");
         Mockito.when(mockUserRepo.findById("id4")).thenReturn(user);
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.matches(Mockito.anyString(), Mockito.anyString())).thenReturn(false);
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.matches(Mockito.anyString(), Mockito.anyString())).thenReturn(false);
 
         Exception ex = assertThrows(Exception.class, () -> userService.login("id4", "wrongpwd"));
         assertTrue(ex.getMessage().contains("비밀번호가 올바르지 않습니다."));
@@ -79,7 +89,8 @@ public class UserServiceTest2 {
         User user = new User("id6", "oldHash", "email6@example.com", "Name6");
         Mockito.when(mockUserRepo.findById("id6")).thenReturn(user);
         Mockito.when(mockUserRepo.save(Mockito.any(User.class))).thenAnswer(i -> i.getArgument(0));
-        Mockito.mockStatic(PasswordEncoder.class).when(() -> PasswordEncoder.hash(Mockito.anyString())).thenReturn("newHashedPwd");
+        passwordEncoder = Mockito.mockStatic(PasswordEncoder.class);
+        passwordEncoder.when(() -> PasswordEncoder.hash(Mockito.anyString())).thenReturn("newHashedPwd");
 
         userService.updatePassword("id6", "newPassword");
         assertEquals("newHashedPwd", user.getPassword());
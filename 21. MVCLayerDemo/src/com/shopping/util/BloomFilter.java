@@ -0,0 +1,69 @@
+package com.shopping.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 블룸 필터 - "확실히 없음" / "있을 수도 있음"만 답하는 비트 집합
+ * - 거짓 음성은 없고, 거짓 양성 비율은 생성 시 지정 (expectedInsertions 이하로 넣었을 때 기준)
+ * - 삭제는 지원하지 않음 (삭제된 키는 다시 만들 때까지 "있을 수도 있음")
+ * - 비트 배열은 AtomicLongArray라 잠금 없이 여러 스레드가 동시에 조회/추가 가능
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("expectedInsertions <= 0");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate는 0과 1 사이여야 합니다: " + falsePositiveRate);
+        }
+        // 최적 비트 수 m = -n·ln(p) / (ln2)², 해시 함수 수 k = m/n · ln2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public void add(Object key) {
+        long h1 = mix(key.hashCode());
+        long h2 = mix(h1) | 1; // 이중 해싱: i번째 해시 = h1 + i·h2
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * false면 한 번도 add되지 않은 키, true면 추가되었을 수 있음 (확인 조회 필요)
+     */
+    public boolean mightContain(Object key) {
+        long h1 = mix(key.hashCode());
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public int expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    // 64비트 혼합 (SplitMix64 마무리 단계) - hashCode의 약한 하위 비트를 고르게 퍼뜨림
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
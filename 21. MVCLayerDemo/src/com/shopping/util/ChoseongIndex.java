@@ -0,0 +1,133 @@
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 한글 초성 검색 색인 ("ㄴㅌㅂ" → "노트북", 섞인 검색어 "노ㅌ북"도 지원)
+ * - 색인 시 이름의 음절마다 초성으로 바꾼 초성 키를 미리 만들어 둠 (노트북 → ㄴㅌㅂ, 그 외 글자는 소문자 그대로)
+ * - 초성 키는 N-gram 역색인(NGramIndex)에 넣어, 검색어의 초성 키를 포함하는 후보만 꺼냄
+ * - 후보 확인도 미리 만든 초성 키와 원래 이름을 글자 단위로 비교 → 검색 시점에 상품명을 분해하지 않음
+ *
+ * 검색어 글자별 일치 규칙
+ * - 초성 자모(ㄱ~ㅎ): 해당 초성으로 시작하는 음절 (또는 같은 자모)
+ * - 완성된 음절: 같은 음절
+ * - 그 외: 대소문자 무시하고 같은 글자
+ */
+public class ChoseongIndex<K> {
+
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+    private static final int SYLLABLES_PER_CHOSEONG = 21 * 28; // 중성 21 × 종성 28
+
+    private final NGramIndex<K> keyIndex = new NGramIndex<>();
+    private final Map<K, Entry> entries = new HashMap<>();
+
+    /**
+     * 검색어에 초성 자모가 들어 있는지 (초성 검색으로 처리할지 판단)
+     */
+    public static boolean hasChoseong(String query) {
+        if (query == null) return false;
+        for (int i = 0; i < query.length(); i++) {
+            if (isChoseong(query.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 초성 키: 한글 음절은 초성으로, 그 외 글자는 소문자로 (글자 수는 원문과 같음)
+     */
+    public static String choseongKey(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        char[] key = new char[lower.length()];
+        for (int i = 0; i < key.length; i++) {
+            char c = lower.charAt(i);
+            key[i] = isSyllable(c) ? CHOSEONG[(c - '가') / SYLLABLES_PER_CHOSEONG] : c;
+        }
+        return new String(key);
+    }
+
+    public synchronized void put(K key, String name) {
+        if (name == null) {
+            remove(key);
+            return;
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        Entry previous = entries.get(key);
+        if (previous != null && previous.name.equals(lower)) return;
+        Entry entry = new Entry(lower, choseongKey(name));
+        entries.put(key, entry);
+        keyIndex.put(key, entry.choseongKey);
+    }
+
+    public synchronized void remove(K key) {
+        if (entries.remove(key) != null) keyIndex.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keyIndex.clear();
+    }
+
+    /**
+     * 초성/섞인 검색어와 일치하는 키 (색인 순서)
+     */
+    public synchronized List<K> search(String query) {
+        List<K> result = new ArrayList<>();
+        if (query == null || query.isEmpty()) return result;
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        String queryKey = choseongKey(query);
+
+        List<K> candidates = keyIndex.candidates(queryKey);
+        Iterable<K> toCheck = (candidates != null) ? candidates : entries.keySet(); // 1글자는 미리 만든 키 전체 확인
+        for (K key : toCheck) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.matches(lowerQuery, queryKey)) result.add(key);
+        }
+        return result;
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    private static boolean isChoseong(char c) {
+        for (char jamo : CHOSEONG) {
+            if (jamo == c) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 색인된 이름 (소문자) + 초성 키
+     */
+    private static final class Entry {
+        final String name;
+        final String choseongKey;
+
+        Entry(String name, String choseongKey) {
+            this.name = name;
+            this.choseongKey = choseongKey;
+        }
+
+        /**
+         * 초성 키에서 검색어 초성 키가 나오는 위치마다, 검색어의 완성된 음절이 원래 이름과 같은지 확인
+         */
+        boolean matches(String lowerQuery, String queryKey) {
+            for (int at = choseongKey.indexOf(queryKey); at >= 0; at = choseongKey.indexOf(queryKey, at + 1)) {
+                boolean same = true;
+                for (int i = 0; i < lowerQuery.length() && same; i++) {
+                    char q = lowerQuery.charAt(i);
+                    same = !isSyllable(q) || name.charAt(at + i) == q;
+                }
+                if (same) return true;
+            }
+            return false;
+        }
+    }
+}
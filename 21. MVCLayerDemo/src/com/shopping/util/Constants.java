@@ -15,6 +15,9 @@ public class Constants {
 	
 	// 카트 데이터 파일
 	public static final String CART_DATA_FILE = "data/carts.dat";
+
+	// 주문 전체 스냅샷 블록 압축 여부 (-Dshopping.orders.compress=true)
+	public static final boolean COMPRESS_ORDER_SNAPSHOT = Boolean.getBoolean("shopping.orders.compress");
 	
 	public static void main(String[] args) {
 		System.out.println("Admin 파일 경로: " + new File(Constants.ADMIN_DATA_FILE).getAbsolutePath());
@@ -0,0 +1,222 @@
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 부분 문자열 검색용 N-gram 역색인 (이름 검색 등)
+ * - 3글자 단위(trigram) + 한글 2글자(bigram, 음절 또는 자모)를 키로, 해당 글자 조각이 들어 있는 레코드 목록을 유지
+ * - 검색어의 조각 목록을 모두 포함하는 후보만 돌려주므로, 호출자는 후보에 대해서만 실제 contains 확인
+ * - 대소문자는 구분하지 않고 색인 (후보가 실제 결과보다 많을 수는 있어도 적지는 않음)
+ * - 인덱스로 좁힐 수 없는 짧은 검색어(1글자, 한글이 아닌 2글자)는 null → 호출자가 전체 검사
+ *
+ * 레코드마다 작은 정수 번호(ordinal)를 붙이고, 조각별 목록(posting list)은 번호의 정렬된 int 배열로 보관
+ * - 객체 Set 대신 int 배열이라 메모리가 작고, 교집합은 가장 짧은 목록을 기준으로 나머지 목록을 이진 탐색하며 전진
+ *   → 검색 비용은 전체 레코드 수가 아니라 가장 짧은 목록(≈ 결과 크기)에 비례
+ * - 번호는 색인한 순서대로 늘어나므로 후보도 색인 순서, 삭제로 빈 번호가 절반을 넘으면 번호를 다시 매겨 압축
+ */
+public class NGramIndex<K> {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<K, Indexed> indexed = new HashMap<>(); // 레코드 → 번호 + 색인한 텍스트 (삭제/수정 시 이전 조각 제거용)
+    private static final int MIN_COMPACT_SIZE = 64;
+
+    private final List<K> keys = new ArrayList<>();          // 번호 → 레코드 키 (빈 번호는 null)
+    private int removedCount;                                // keys 안의 빈 번호 수
+
+    /**
+     * 레코드 색인 (이미 있으면 이전 텍스트의 조각을 지우고 다시 색인)
+     */
+    public synchronized void put(K key, String text) {
+        Indexed previous = indexed.get(key);
+        String normalized = normalize(text);
+        if (previous != null && previous.text.equals(normalized)) return;
+        remove(key);
+        if (normalized == null) return;
+        keys.add(key);
+        int ordinal = keys.size() - 1;
+        indexed.put(key, new Indexed(ordinal, normalized));
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new IntList()).insert(ordinal);
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Indexed previous = indexed.remove(key);
+        if (previous == null) return;
+        for (String gram : grams(previous.text)) {
+            IntList ordinals = postings.get(gram);
+            if (ordinals == null) continue;
+            ordinals.delete(previous.ordinal);
+            if (ordinals.size == 0) postings.remove(gram);
+        }
+        keys.set(previous.ordinal, null);
+        if (++removedCount > MIN_COMPACT_SIZE && removedCount * 2 > keys.size()) {
+            compact();
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        indexed.clear();
+        keys.clear();
+        removedCount = 0;
+    }
+
+    /**
+     * 검색어를 포함할 수 있는 후보 키 (번호 순)
+     * @return 후보 목록, 인덱스로 좁힐 수 없는 검색어면 null
+     */
+    public synchronized List<K> candidates(String query) {
+        String normalized = normalize(query);
+        if (normalized == null) return null;
+
+        List<String> queryGrams;
+        if (normalized.length() >= GRAM) {
+            queryGrams = grams(normalized);
+        } else if (normalized.length() == 2 && isHangul(normalized.charAt(0)) && isHangul(normalized.charAt(1))) {
+            queryGrams = List.of(normalized);
+        } else {
+            return null;
+        }
+
+        List<IntList> lists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            IntList ordinals = postings.get(gram);
+            if (ordinals == null) return Collections.emptyList();
+            lists.add(ordinals);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        // 가장 짧은 목록을 복사해 두고, 나머지 목록마다 없는 번호를 걸러냄
+        IntList shortest = lists.get(0);
+        int[] result = Arrays.copyOf(shortest.data, shortest.size);
+        int count = result.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = retainAll(result, count, lists.get(i));
+        }
+        List<K> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            candidates.add(keys.get(result[i]));
+        }
+        return candidates;
+    }
+
+    /**
+     * result[0, count)에서 other에 있는 번호만 앞으로 모음 - 둘 다 정렬되어 있으므로 탐색 시작 위치는 계속 전진
+     */
+    private static int retainAll(int[] result, int count, IntList other) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < other.size; i++) {
+            int found = Arrays.binarySearch(other.data, from, other.size, result[i]);
+            if (found >= 0) {
+                result[kept++] = result[i];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * 빈 번호를 없애고 살아 있는 레코드에 순서대로 번호를 다시 매김
+     * - 새 번호는 이전 번호 순서를 그대로 따르므로 각 목록은 값만 바꾸면 정렬이 유지됨
+     */
+    private void compact() {
+        int[] renumbered = new int[keys.size()];
+        List<K> live = new ArrayList<>(keys.size() - removedCount);
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (key == null) continue;
+            renumbered[i] = live.size();
+            live.add(key);
+        }
+        for (IntList ordinals : postings.values()) {
+            for (int i = 0; i < ordinals.size; i++) {
+                ordinals.data[i] = renumbered[ordinals.data[i]];
+            }
+        }
+        for (Map.Entry<K, Indexed> e : indexed.entrySet()) {
+            e.setValue(new Indexed(renumbered[e.getValue().ordinal], e.getValue().text));
+        }
+        keys.clear();
+        keys.addAll(live);
+        removedCount = 0;
+    }
+
+    private static final class Indexed {
+        final int ordinal;
+        final String text;
+
+        Indexed(int ordinal, String text) {
+            this.ordinal = ordinal;
+            this.text = text;
+        }
+    }
+
+    /**
+     * 정렬된 int 목록 (posting list)
+     */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void insert(int value) {
+            if (size == 0 || data[size - 1] < value) { // 새 번호는 항상 가장 큼 → 보통 끝에 덧붙임
+                if (size == data.length) data = Arrays.copyOf(data, size * 2);
+                data[size++] = value;
+                return;
+            }
+            int at = Arrays.binarySearch(data, 0, size, value);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            System.arraycopy(data, at, data, at + 1, size - at);
+            data[at] = value;
+            size++;
+        }
+
+        void delete(int value) {
+            int at = Arrays.binarySearch(data, 0, size, value);
+            if (at < 0) return;
+            System.arraycopy(data, at + 1, data, at, size - at - 1);
+            size--;
+        }
+    }
+
+    private static String normalize(String text) {
+        return (text == null || text.isEmpty()) ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 텍스트의 조각 목록: 모든 3글자 조각 + 한글(음절/자모)이 이어진 2글자 조각 (중복 제거)
+     */
+    private static List<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            if (isHangul(text.charAt(i)) && isHangul(text.charAt(i + 1))) {
+                grams.add(text.substring(i, i + 2));
+            }
+        }
+        return new ArrayList<>(grams);
+    }
+
+    // 완성형 한글 음절 (가 ~ 힣) 또는 호환 자모 (ㄱ ~ ㅣ, 초성 검색 키용)
+    private static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣') || (c >= 'ㄱ' && c <= 'ㅣ');
+    }
+}
@@ -1,23 +1,90 @@
 package com.shopping.util;
 
+import java.security.DigestException;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
+/**
+ * 비밀번호 SHA-256 해시 (저장 형식: 소문자 16진수 64자)
+ * - MessageDigest는 스레드마다 하나를 만들어 재사용 (getInstance 조회/생성 비용 제거)
+ * - 16진수 변환은 문자 표로 처리 (String.format 없이)
+ * - matches는 저장된 16진수를 바이트로 풀어 다이제스트와 상수 시간 비교 (문자열 변환 없음)
+ */
 public class PasswordEncoder {
+
+    private static final int DIGEST_LENGTH = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] NIBBLE = new byte[128]; // 16진수 문자 → 값, 유효하지 않으면 -1
+
+    static {
+        Arrays.fill(NIBBLE, (byte) -1);
+        for (int i = 0; i < HEX.length; i++) {
+            NIBBLE[HEX[i]] = (byte) i;
+        }
+    }
+
+    private static final ThreadLocal<Digester> DIGESTER = ThreadLocal.withInitial(Digester::new);
+
     public static String hash(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("비밀번호 해싱 실패", e);
+        Digester d = DIGESTER.get();
+        byte[] digest = d.digest(password);
+        char[] hex = d.hex;
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX[digest[i] & 0x0F];
         }
+        return new String(hex);
     }
 
     public static boolean matches(String rawPassword, String hashedPassword) {
-        return hash(rawPassword).equals(hashedPassword);
+        if (hashedPassword == null || hashedPassword.length() != DIGEST_LENGTH * 2) return false;
+        Digester d = DIGESTER.get();
+        byte[] digest = d.digest(rawPassword);
+        byte[] expected = d.expected;
+        int invalid = 0;
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            int hi = nibble(hashedPassword.charAt(i * 2));
+            int lo = nibble(hashedPassword.charAt(i * 2 + 1));
+            invalid |= (hi | lo) & 0x100; // 잘못된 문자가 있어도 끝까지 같은 작업량으로 진행
+            expected[i] = (byte) ((hi << 4) | (lo & 0x0F));
+        }
+        return MessageDigest.isEqual(digest, expected) & (invalid == 0);
+    }
+
+    // 16진수 한 글자 값 (잘못된 문자면 0x100 비트 설정)
+    private static int nibble(char c) {
+        int v = (c < 128) ? NIBBLE[c] : -1;
+        return (v < 0) ? 0x100 : v;
+    }
+
+    /**
+     * 스레드별 재사용 버퍼 + 다이제스트
+     */
+    private static final class Digester {
+        private final MessageDigest md;
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final byte[] expected = new byte[DIGEST_LENGTH];
+        private final char[] hex = new char[DIGEST_LENGTH * 2];
+
+        Digester() {
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("비밀번호 해싱 실패", e);
+            }
+        }
+
+        byte[] digest(String password) {
+            if (password == null) throw new RuntimeException("비밀번호 해싱 실패", new NullPointerException("password"));
+            md.update(password.getBytes()); // 기존 해시와 같도록 플랫폼 기본 인코딩 유지
+            try {
+                md.digest(digest, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                md.reset();
+                throw new RuntimeException("비밀번호 해싱 실패", e);
+            }
+            return digest;
+        }
     }
 }
@@ -0,0 +1,176 @@
+package com.shopping.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * 비밀번호 확인 전용 작업 풀
+ * - PasswordEncoder.matches(또는 지정한 확인 함수)를 고정 크기 스레드 풀에서 실행 → 로그인이 몰려도 CPU를 모두 차지하지 않음
+ * - 대기열은 크기 제한, 가득 차면 기다리지 않고 바로 거절 (RejectedExecutionException)
+ * - 대기열에서 timeout 이상 머문 요청도 취소하고 거절
+ * - 대기열 길이, 거절 수, 확인 지연 시간(대기 포함/계산만)을 지표로 제공
+ */
+public class PasswordVerifier {
+
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
+    private static PasswordVerifier shared;
+
+    private final ThreadPoolExecutor executor;
+    private final BiPredicate<String, String> matcher; // (비밀번호, 저장된 해시) → 일치 여부
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();    // 제출 → 결과 (대기 포함)
+    private final LongAdder computeNanos = new LongAdder();  // 해시 계산만
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public PasswordVerifier(String name, int threads, int queueCapacity, long timeoutMillis) {
+        this(name, threads, queueCapacity, timeoutMillis, PasswordEncoder::matches);
+    }
+
+    /**
+     * 확인 방식 지정 (예: 더 비싼 키 유도 함수로 교체할 때)
+     */
+    public PasswordVerifier(String name, int threads, int queueCapacity, long timeoutMillis,
+                            BiPredicate<String, String> matcher) {
+        if (threads <= 0) throw new IllegalArgumentException("threads <= 0");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity <= 0");
+        if (timeoutMillis <= 0) throw new IllegalArgumentException("timeoutMillis <= 0");
+        this.timeoutMillis = timeoutMillis;
+        this.matcher = matcher;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, name + "-verifier");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 서비스들이 함께 쓰는 기본 확인 풀 (코어 절반, 기본 대기열/제한 시간)
+     */
+    public static synchronized PasswordVerifier shared() {
+        if (shared == null) {
+            shared = new PasswordVerifier("password", DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+        }
+        return shared;
+    }
+
+    /**
+     * 작업 풀에서 비밀번호 확인
+     * @throws RejectedExecutionException 대기열이 가득 찼거나 제한 시간 안에 확인하지 못한 경우
+     */
+    public boolean verify(String password, String hashedPassword) {
+        long submitted = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long start = System.nanoTime();
+                boolean ok = matcher.test(password, hashedPassword);
+                computeNanos.add(System.nanoTime() - start);
+                return ok;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("비밀번호 확인 대기열이 가득 찼습니다.", e);
+        }
+
+        try {
+            boolean ok = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            record(System.nanoTime() - submitted);
+            return ok;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("비밀번호 확인 시간이 초과되었습니다.", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("비밀번호 확인이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void record(long nanos) {
+        completed.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 현재 지표 스냅샷
+     */
+    public Stats stats() {
+        long done = completed.sum();
+        return new Stats(executor.getQueue().size(), executor.getActiveCount(), done, rejected.sum(),
+                done == 0 ? 0 : totalNanos.sum() / done / 1000,
+                done == 0 ? 0 : computeNanos.sum() / done / 1000,
+                maxNanos.get() / 1000);
+    }
+
+    /**
+     * 대기 중인 확인을 마치고 종료
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 비밀번호 확인 지표 (시간 단위는 마이크로초)
+     */
+    public static final class Stats {
+        private final int queueDepth;
+        private final int activeCount;
+        private final long completedCount;
+        private final long rejectedCount;
+        private final long averageLatencyMicros;
+        private final long averageComputeMicros;
+        private final long maxLatencyMicros;
+
+        Stats(int queueDepth, int activeCount, long completedCount, long rejectedCount,
+              long averageLatencyMicros, long averageComputeMicros, long maxLatencyMicros) {
+            this.queueDepth = queueDepth;
+            this.activeCount = activeCount;
+            this.completedCount = completedCount;
+            this.rejectedCount = rejectedCount;
+            this.averageLatencyMicros = averageLatencyMicros;
+            this.averageComputeMicros = averageComputeMicros;
+            this.maxLatencyMicros = maxLatencyMicros;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public int getActiveCount() { return activeCount; }
+        public long getCompletedCount() { return completedCount; }
+        public long getRejectedCount() { return rejectedCount; }
+        public long getAverageLatencyMicros() { return averageLatencyMicros; }
+        public long getAverageComputeMicros() { return averageComputeMicros; }
+        public long getMaxLatencyMicros() { return maxLatencyMicros; }
+
+        @Override
+        public String toString() {
+            return "대기열=" + queueDepth + ", 실행 중=" + activeCount + ", 완료=" + completedCount
+                    + ", 거절=" + rejectedCount + ", 평균 지연=" + averageLatencyMicros + "us"
+                    + " (계산 " + averageComputeMicros + "us), 최대 지연=" + maxLatencyMicros + "us";
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.shopping.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (만료 시각 관리)
+ * - 단계마다 64칸, 0단계 한 칸 = 1틱, k단계 한 칸 = 64^k 틱
+ * - 등록 O(1): 남은 틱 수로 단계를 고르고 만료 틱의 해당 자릿수 칸에 넣음
+ * - 진행 시 상위 단계 칸의 경계에 도달하면 그 칸의 항목을 아래 단계로 내려 보내고(cascade), 0단계 칸은 만료 처리
+ * - 휠 범위(64^단계 수 틱)를 넘는 항목은 맨 끝 칸에 넣음 → 호출자가 만료 시 실제 시각을 다시 확인해 재등록
+ * - 동기화하지 않음 (호출자가 잠금)
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private final List<List<List<Timer<T>>>> wheels;
+    private final long span;      // 휠이 표현할 수 있는 최대 남은 틱 수
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(int levels, long startTick) {
+        if (levels <= 0 || levels * SLOT_BITS >= 63) throw new IllegalArgumentException("levels: " + levels);
+        this.wheels = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<List<Timer<T>>> slots = new ArrayList<>(SLOTS);
+            for (int i = 0; i < SLOTS; i++) slots.add(new ArrayList<>());
+            wheels.add(slots);
+        }
+        this.span = 1L << (levels * SLOT_BITS);
+        this.currentTick = startTick;
+    }
+
+    /**
+     * 만료 틱에 항목 등록 (이미 지난 틱이면 다음 진행 때 만료)
+     */
+    public void schedule(T item, long deadlineTick) {
+        place(new Timer<>(item, Math.max(deadlineTick, currentTick + 1)));
+        size++;
+    }
+
+    /**
+     * tick까지 진행하며 만료된 항목을 expired에 전달
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        if (size == 0) {
+            currentTick = Math.max(currentTick, tick); // 빈 휠은 칸을 돌 필요 없음
+            return;
+        }
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = wheels.size() - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) != 0) continue;
+                List<Timer<T>> slot = wheels.get(level).get(index(currentTick, level));
+                if (slot.isEmpty()) continue;
+                List<Timer<T>> cascading = new ArrayList<>(slot);
+                slot.clear();
+                for (Timer<T> timer : cascading) place(timer);
+            }
+            List<Timer<T>> due = wheels.get(0).get(index(currentTick, 0));
+            if (due.isEmpty()) continue;
+            List<Timer<T>> firing = new ArrayList<>(due);
+            due.clear();
+            size -= firing.size();
+            for (Timer<T> timer : firing) expired.accept(timer.item);
+            if (size == 0) currentTick = tick;
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadline - currentTick;
+        if (delta >= span) {
+            timer.deadline = currentTick + span - 1; // 범위 밖 → 끝 칸에서 재확인
+            delta = span - 1;
+        }
+        int level = 0;
+        while (level < wheels.size() - 1 && delta >= (1L << ((level + 1) * SLOT_BITS))) {
+            level++;
+        }
+        wheels.get(level).get(index(timer.deadline, level)).add(timer);
+    }
+
+    private static int index(long tick, int level) {
+        return (int) ((tick >>> (level * SLOT_BITS)) & MASK);
+    }
+
+    private static final class Timer<T> {
+        final T item;
+        long deadline;
+
+        Timer(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}